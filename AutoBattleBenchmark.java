@@ -0,0 +1,53 @@
+package com.bosakon.monsterhunter;
+
+import java.util.Random;
+
+/**
+ * Measures AutoBattleBot search throughput (search iterations per
+ * second) at 1, 2, 4, ... workers up to the core count, to check near-linear scaling.
+ *
+ * Usage:
+ *   java -cp hunter.jar com.bosakon.monsterhunter.AutoBattleBenchmark [budgetMillis] [decisions]
+ *
+ * Example output:
+ *   workers  1 |   310000 sims/s | speedup 1.00
+ *   workers  2 |   615000 sims/s | speedup 1.98
+ */
+public class AutoBattleBenchmark {
+    public static void main(String[] args) {
+        long budgetMillis = args.length > 0 ? Long.parseLong(args[0]) : 200;
+        int decisions = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        Hunter hunter = new Hunter("Bench", ContentCatalog.get().createWeapon("lapis"));
+        hunter.setQuiet(true);
+        hunter.addItem("Health Potion");
+        hunter.addItem("Health Potion");
+        hunter.addItem("Mana Potion");
+        Monster monster = new Monster(3, true, new Random(42));
+
+        // Warm-up so every worker count is measured with compiled code
+        try (AutoBattleBot warmup = new AutoBattleBot(budgetMillis, cores, 1)) {
+            warmup.decide(hunter, monster, 0);
+        }
+
+        double baseline = 0;
+        for (int workers = 1; workers <= cores; workers = workers < cores ? Math.min(workers * 2, cores) : cores + 1) {
+            long simulations = 0;
+            long start = System.nanoTime();
+            try (AutoBattleBot bot = new AutoBattleBot(budgetMillis, workers, 42)) {
+                for (int i = 0; i < decisions; i++) {
+                    simulations += bot.decide(hunter, monster, 0).getSimulations();
+                }
+            }
+            double perSecond = simulations / ((System.nanoTime() - start) / 1e9);
+            if (workers == 1) baseline = perSecond;
+            System.out.printf("workers %2d | %10.0f sims/s | speedup %.2f%n", workers, perSecond, perSecond / baseline);
+        }
+        AutoBattleBot.Decision decision;
+        try (AutoBattleBot bot = new AutoBattleBot(budgetMillis, cores, 42)) {
+            decision = bot.decide(hunter, monster, 0);
+        }
+        System.out.println("Decision vs " + monster.getName() + " (level " + monster.getLevel() + "): " + decision);
+    }
+}
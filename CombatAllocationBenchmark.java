@@ -0,0 +1,83 @@
+package com.bosakon.monsterhunter;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Checks that a steady-state combat turn allocates nothing.
+ *
+ * A quiet hunter fights a monster with so much health that the fight never ends, through
+ * a silent CombatEngine. After warm-up (so the JIT has compiled the turn loop), the
+ * benchmark reads this thread's allocated bytes before and after several batches of turns
+ * (attack, monster ability or attack, end-of-turn effects) and reports bytes per turn.
+ * A late JIT recompilation can show up as a few hundred bytes in one batch, so the
+ * check uses the median batch: exits with status 1 if most batches allocated.
+ *
+ * Usage:
+ *   java -cp hunter.jar com.bosakon.monsterhunter.CombatAllocationBenchmark [turns]
+ *
+ * Example (also watch GC activity):
+ *   java -Xlog:gc -cp hunter.jar com.bosakon.monsterhunter.CombatAllocationBenchmark 5000000
+ */
+public class CombatAllocationBenchmark {
+    private static final int MONSTER_LEVEL = 100_000_000; // ~1e9 HP: survives any batch
+    private static final int WARMUP_TURNS = 1_000_000;
+    private static final int BATCHES = 5;
+
+    public static void main(String[] args) {
+        int turns = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("> ERROR: Thread allocation counters are not supported by this JVM");
+            System.exit(2);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Hunter hunter = new Hunter("Bench", ContentCatalog.get().createWeapon("lapis"));
+        hunter.setQuiet(true);
+        hunter.setRandom(new Random(42));
+        Monster monster = new Monster(MONSTER_LEVEL, true, new Random(42));
+        CombatEngine engine = new CombatEngine(null);
+        engine.begin(hunter, monster);
+
+        runTurns(engine, hunter, WARMUP_TURNS);
+
+        // The counter read itself allocates a little; measure that and subtract it
+        long threadId = Thread.currentThread().getId();
+        long overhead = threads.getThreadAllocatedBytes(threadId);
+        overhead = threads.getThreadAllocatedBytes(threadId) - overhead;
+
+        long[] allocations = new long[BATCHES];
+        for (int batch = 1; batch <= BATCHES; batch++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            runTurns(engine, hunter, turns);
+            long elapsed = System.nanoTime() - start;
+            long allocated = Math.max(0, threads.getThreadAllocatedBytes(threadId) - before - overhead);
+            allocations[batch - 1] = allocated;
+
+            System.out.printf("Batch %d: %d turns | %.1f ns/turn | allocated %d bytes (%.3f bytes/turn)%n",
+                    batch, turns, elapsed / (double) turns, allocated, allocated / (double) turns);
+        }
+        Arrays.sort(allocations);
+        if (allocations[BATCHES / 2] > 0) {
+            System.out.println("> ERROR: combat turn loop allocates (median batch: " + allocations[BATCHES / 2] + " bytes)");
+            System.exit(1);
+        }
+    }
+
+    /** One turn = the hunter attacks, the monster acts, effects tick; HP and durability are topped up. */
+    private static void runTurns(CombatEngine engine, Hunter hunter, int turns) {
+        for (int i = 0; i < turns; i++) {
+            engine.startTurn();
+            engine.attack();
+            engine.monsterTurn();
+            engine.endTurn();
+            hunter.heal(hunter.getMaxHP());
+            hunter.getWeapon().repair();
+        }
+    }
+}
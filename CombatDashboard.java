@@ -0,0 +1,175 @@
+package com.bosakon.monsterhunter;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live combat dashboard for spectator/streaming terminals: hunter HP/mana bars and
+ * status, the monsters on the current floor, and the tail of the combat log.
+ *
+ * The game only records state changes (showFloor, setTarget, log, refresh); a background
+ * thread redraws at most 30 times per second, and only when something changed. Drawing
+ * goes through a TerminalScreen, so each redraw sends just the cells that differ.
+ *
+ * <b>How to enable:</b>
+ *   Start the game with -Dhunter.dashboard=/dev/pts/3 (any terminal, FIFO or file).
+ *   Without the property every method is a no-op.
+ *
+ * State is read from the game thread's Hunter/Monster objects without locking; a frame
+ * may mix values from two consecutive turns, which the next frame corrects.
+ */
+public class CombatDashboard {
+    private static final int WIDTH = 80;
+    private static final int HEIGHT = 24;
+    private static final int MAX_MONSTERS = 6;
+    private static final int LOG_LINES = 7;
+    private static final int BAR_WIDTH = 30;
+    private static final long FRAME_MILLIS = 1000 / 30;
+
+    private final TerminalScreen screen;
+    private final OutputStream out;
+    private final String[] logLines = new String[LOG_LINES];
+    private int logHead;           // index of the oldest line
+    private int logCount;
+
+    private Hunter hunter;
+    private Dungeon dungeon;
+    private Monster[] monsters = new Monster[0];
+    private Monster target;
+    private boolean dirty;
+
+    /** Creates a dashboard that draws to the stream, or a disabled one if out is null. */
+    public CombatDashboard(OutputStream out) {
+        this.out = out;
+        this.screen = out == null ? null : new TerminalScreen(WIDTH, HEIGHT);
+        if (out != null) {
+            ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "combat-dashboard");
+                t.setDaemon(true);
+                return t;
+            });
+            refresher.scheduleAtFixedRate(this::redrawIfDirty, FRAME_MILLIS, FRAME_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Opens the dashboard configured by -Dhunter.dashboard, or returns a disabled one. */
+    public static CombatDashboard fromSystemProperty() {
+        String target = System.getProperty("hunter.dashboard");
+        if (target == null || target.isEmpty()) return new CombatDashboard(null);
+        try {
+            return new CombatDashboard(new FileOutputStream(target));
+        } catch (IOException e) {
+            System.out.println("> ERROR: Cannot open dashboard output - " + e.getMessage());
+            return new CombatDashboard(null);
+        }
+    }
+
+    public boolean isEnabled() { return screen != null; }
+
+    /** Sets the hunter whose bars are shown. */
+    public synchronized void setHunter(Hunter hunter) {
+        if (screen == null) return;
+        this.hunter = hunter;
+        dirty = true;
+    }
+
+    /** Shows a new floor's encounter. */
+    public synchronized void showFloor(Dungeon dungeon, Monster[] monsters) {
+        if (screen == null) return;
+        this.dungeon = dungeon;
+        this.monsters = monsters;
+        this.target = null;
+        dirty = true;
+    }
+
+    /** Highlights the monster currently being fought. */
+    public synchronized void setTarget(Monster target) {
+        if (screen == null) return;
+        this.target = target;
+        dirty = true;
+    }
+
+    /** Appends a line to the log tail. */
+    public synchronized void log(String line) {
+        if (screen == null) return;
+        if (logCount < LOG_LINES) {
+            logLines[(logHead + logCount++) % LOG_LINES] = line;
+        } else {
+            logLines[logHead] = line;
+            logHead = (logHead + 1) % LOG_LINES;
+        }
+        dirty = true;
+    }
+
+    /** Marks HP/mana/status as changed (call once per combat turn). */
+    public synchronized void refresh() {
+        if (screen == null) return;
+        dirty = true;
+    }
+
+    private synchronized void redrawIfDirty() {
+        if (!dirty) return;
+        dirty = false;
+        drawFrame();
+        try {
+            screen.flush(out);
+        } catch (IOException e) {
+            // Spectator went away; keep the game running and try again next frame
+            screen.invalidate();
+        }
+    }
+
+    /** Draws the full dashboard into the screen's back buffer. */
+    private void drawFrame() {
+        screen.clear();
+        String title = "=== COMBAT DASHBOARD ===";
+        if (dungeon != null) {
+            title += "  " + dungeon.getFullName() + "  Floor " + dungeon.getCurrentFloor();
+        }
+        screen.print(0, 0, title, TerminalScreen.CYAN);
+
+        if (hunter != null) {
+            screen.print(2, 0, hunter.getName() + " | Rank: " + hunter.getRank(), TerminalScreen.WHITE);
+            drawBar(3, "HP", hunter.getHP(), hunter.getMaxHP(), TerminalScreen.GREEN);
+            drawBar(4, "MP", hunter.getMana(), hunter.getMaxMana(), TerminalScreen.BLUE);
+            StatusEffect status = hunter.getStatus();
+            screen.print(5, 0, "Status: " + (status == null ? "none" : status.toString()),
+                    status == null ? TerminalScreen.DEFAULT : TerminalScreen.YELLOW);
+        }
+
+        screen.print(7, 0, "Monsters:", TerminalScreen.WHITE);
+        for (int i = 0; i < monsters.length && i < MAX_MONSTERS; i++) {
+            Monster m = monsters[i];
+            int row = 8 + i;
+            String label = (m == target ? "> " : "  ") + (i + 1) + ". " + m.getName() + " Lv" + m.getLevel();
+            screen.print(row, 0, label, m.isAlive() ? TerminalScreen.DEFAULT : TerminalScreen.RED);
+            if (m.isAlive()) {
+                drawBarAt(row, 32, m.getHealth(), m.getMaxHP(), TerminalScreen.RED);
+            } else {
+                screen.print(row, 32, "DEFEATED", TerminalScreen.RED);
+            }
+        }
+
+        screen.print(15, 0, "Log:", TerminalScreen.WHITE);
+        for (int i = 0; i < logCount; i++) {
+            screen.print(16 + i, 0, logLines[(logHead + i) % LOG_LINES], TerminalScreen.DEFAULT);
+        }
+    }
+
+    private void drawBar(int row, String label, int value, int max, byte color) {
+        screen.print(row, 0, label, TerminalScreen.WHITE);
+        drawBarAt(row, 4, value, max, color);
+    }
+
+    private void drawBarAt(int row, int col, int value, int max, byte color) {
+        int filled = max <= 0 ? 0 : Math.max(0, Math.min(BAR_WIDTH, value * BAR_WIDTH / max));
+        screen.print(row, col, "[", TerminalScreen.DEFAULT);
+        screen.fill(row, col + 1, filled, '#', color);
+        screen.fill(row, col + 1 + filled, BAR_WIDTH - filled, '-', TerminalScreen.DEFAULT);
+        screen.print(row, col + 1 + BAR_WIDTH, "] " + value + "/" + max, TerminalScreen.DEFAULT);
+    }
+}
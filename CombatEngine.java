@@ -0,0 +1,199 @@
+package com.bosakon.monsterhunter;
+
+import java.util.function.Consumer;
+
+/**
+ * Headless combat rules for one Hunter vs one Monster: attacks, skills, items,
+ * fleeing, Flux, and the monster's turn. HunterGame.combat() drives it from the menus;
+ * simulations and benchmarks drive it directly.
+ *
+ * A steady-state turn (startTurn, attack, monsterTurn, endTurn) allocates nothing
+ * when the engine is silent and the hunter is quiet: status effects are copied into
+ * preallocated slots, loops are indexed, randomness comes from the hunter's and
+ * monster's own Random, and messages are only built when someone will read them.
+ *
+ * A hunter that is not quiet prints its own status effect and item messages (and its
+ * monster's abilities); for a quiet one, the engine sends them to its log instead
+ * (party rounds, see PartyDungeon).
+ *
+ * Example:
+ *   CombatEngine engine = new CombatEngine(null);   // silent
+ *   engine.begin(hunter, monster);
+ *   while (!engine.isOver()) {
+ *       engine.startTurn();
+ *       engine.attack();
+ *       engine.monsterTurn();
+ *       engine.endTurn();
+ *   }
+ */
+public class CombatEngine {
+    public static final int ATTACK = 1;
+    public static final int SKILL = 2;
+    public static final int ITEM = 3;
+    public static final int FLEE = 4;
+
+    // Package-private so FightSolver models exactly the same rules
+    static final int FLUX_TURNS = 4;
+    static final double FLUX_DAMAGE_BONUS = 0.4;
+    static final double FLUX_DAMAGE_TAKEN = 0.6;
+    static final double FLEE_CHANCE = 0.4;
+    static final int HEALING_AMOUNT = 30;
+
+    private final Consumer<String> log; // null = silent
+
+    private Hunter hunter;
+    private Monster monster;
+    private int fluxTurns;
+    private int turns;
+    private int damageDealt;  // this turn
+    private int damageTaken;  // this turn
+
+    /**
+     * @param log Receives combat messages, or null to build none (simulations)
+     */
+    public CombatEngine(Consumer<String> log) {
+        this.log = log;
+    }
+
+    /** Starts a new fight; the engine can be reused for any number of fights. */
+    public void begin(Hunter hunter, Monster monster) {
+        begin(hunter, monster, 0);
+    }
+
+    /** Continues a fight from the middle (simulations), with Flux active for fluxTurns more attacks. */
+    public void begin(Hunter hunter, Monster monster, int fluxTurns) {
+        this.hunter = hunter;
+        this.monster = monster;
+        this.fluxTurns = fluxTurns;
+        hunter.setFlux(fluxTurns > 0);
+        this.turns = 0;
+        this.damageDealt = 0;
+        this.damageTaken = 0;
+    }
+
+    /** Start of a turn: the hunter's passive and status effects tick. */
+    public void startTurn() {
+        turns++;
+        damageDealt = 0;
+        damageTaken = 0;
+        StatusEffect status = hunter.getStatus();
+        hunter.applyEndOfTurnEffects();
+        // The slot is kept while the effect still ticks; a tick past the last one clears it
+        if (status != null && hunter.getStatus() != null && reportsFor()) {
+            log.accept("> " + status.getName() + " deals " + status.getDamagePerTurn() + " damage!");
+        }
+    }
+
+    /** Basic weapon attack (plus Flux bonus while active). Returns damage dealt. */
+    public int attack() {
+        if (!hunter.getWeapon().use()) {
+            if (log != null) log.accept("Your weapon broke! Attack failed.");
+            return 0;
+        }
+        int damage = hunter.calculateDamage();
+        if (log != null) log.accept("You deal " + damage + " damage!");
+        monster.takeDamage(damage);
+
+        // Apply flux damage boost if active (the bonus comes from the hunter's stats)
+        if (fluxTurns > 0) {
+            int fluxDamage = hunter.getStats().bonusDamage(damage);
+            if (log != null) log.accept("Flux adds " + fluxDamage + " bonus damage!");
+            monster.takeDamage(fluxDamage);
+            damage += fluxDamage;
+            if (--fluxTurns <= 0) {
+                hunter.setFlux(false);
+                if (log != null) log.accept("> Flux effect wore off");
+            }
+        }
+        damageDealt += damage;
+        return damage;
+    }
+
+    /** Uses an active skill if the hunter has the mana. Returns true if it was cast. */
+    public boolean useSkill(Skill skill) {
+        if (hunter.getMana() < skill.getManaCost()) {
+            if (log != null) log.accept("Not enough mana!");
+            return false;
+        }
+        switch (skill.getName()) {
+            case "Healing":
+                hunter.heal(HEALING_AMOUNT);
+                if (log != null) log.accept("> Healed " + HEALING_AMOUNT + " HP!");
+                break;
+            case "Flux":
+                fluxTurns = FLUX_TURNS;
+                hunter.setFlux(true);
+                if (log != null) log.accept("> ATK/DEF boosted for " + FLUX_TURNS + " turns!");
+                break;
+            case "Stealth":
+                if (log != null) log.accept("> You vanish from sight!");
+                break;
+        }
+        hunter.setMana(hunter.getMana() - skill.getManaCost());
+        return true;
+    }
+
+    /** Uses an inventory item. Returns true if it had an effect. */
+    public boolean useItem(String item) {
+        boolean used = hunter.useItem(item);
+        if (used && reportsFor()) log.accept("> Used " + item + "!");
+        return used;
+    }
+
+    /** Tries to escape. Returns true on success (the fight is over). */
+    public boolean flee() {
+        if (hunter.getRandom().nextDouble() < FLEE_CHANCE) {
+            if (log != null) log.accept("You escaped successfully!");
+            return true;
+        }
+        if (log != null) log.accept("Escape failed!");
+        return false;
+    }
+
+    /**
+     * The monster acts if still alive: its behavior rules pick a ready ability, which
+     * inflicts its status effect, or a basic attack (reduced by Flux and the hunter's
+     * status defense, see HunterStats). Returns direct damage dealt.
+     */
+    public int monsterTurn() {
+        if (!monster.isAlive()) return 0;
+        int ability = monster.chooseAbility(hunter);
+        if (ability != MonsterBehavior.ATTACK) {
+            monster.useAbility(hunter, ability);
+            if (reportsFor()) {
+                log.accept(monster.getName() + " uses " + monster.getAbilityName(ability) + "! Applied " + hunter.getStatus());
+            }
+            return 0;
+        }
+        int monsterDamage = hunter.getStats().damageTaken(monster.getDamage());
+        if (log != null) log.accept(monster.getName() + " attacks for " + monsterDamage + " damage!");
+        hunter.takeDamage(monsterDamage);
+        damageTaken += monsterDamage;
+        monster.recordAttack(hunter);
+        return monsterDamage;
+    }
+
+    /** End of a turn: monster cooldowns and effects tick. */
+    public void endTurn() {
+        monster.reduceCooldowns();
+        monster.applyEndOfTurnEffects();
+    }
+
+    /** True if the engine logs what the hunter would print itself if it were not quiet. */
+    private boolean reportsFor() {
+        return log != null && hunter.isQuiet();
+    }
+
+    /** True once either side is down. */
+    public boolean isOver() {
+        return !hunter.isAlive() || !monster.isAlive();
+    }
+
+    // === Getters ===
+    public int getTurns() { return turns; }
+    public int getFluxTurns() { return fluxTurns; }
+    /** Damage the hunter dealt during the current turn. */
+    public int getDamageDealt() { return damageDealt; }
+    /** Direct damage the hunter took during the current turn. */
+    public int getDamageTaken() { return damageTaken; }
+}
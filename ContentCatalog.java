@@ -0,0 +1,639 @@
+package com.bosakon.monsterhunter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, id-indexed catalog of game content loaded from the content/ directory:
+ * weapons, monster abilities, dungeon names, skills, merchant stock/prices, loot tables
+ * and monster behavior rules.
+ *
+ * Every entry gets an int id (its line order in the content file). Lookups by name
+ * go through a name -> id map, everything else is a plain array read.
+ *
+ * <b>Startup cache:</b>
+ *   The first start parses the text files and writes content/catalog.bin.
+ *   Later starts map that file with a single mmap and read it straight from the buffer.
+ *   The cache is stamped with the size and timestamp of every content file, so editing
+ *   a .txt file simply triggers a reparse on the next start (no recompile needed).
+ *
+ * <b>How to add content:</b>
+ *   - New weapon: add a line to content/weapons.txt (see the header comment there).
+ *   - New skill: add a line to content/skills.txt.
+ *   - New drop or loot table: add lines to content/loot.txt.
+ *   - Smarter monsters: add rules to content/behavior.txt.
+ *   - Different content folder: run with -Dhunter.content.dir=path/to/content
+ *
+ * Example:
+ *   ContentCatalog catalog = ContentCatalog.get();
+ *   Item weapon = catalog.createWeapon("lapis");
+ *   int price = catalog.getPrice("Mana Potion");
+ */
+public final class ContentCatalog {
+    private static final String[] SOURCE_FILES = {
+        "weapons.txt", "abilities.txt", "dungeons.txt", "skills.txt", "merchant.txt", "loot.txt",
+        "behavior.txt"
+    };
+    private static final String CACHE_FILE = "catalog.bin";
+    private static final int CACHE_MAGIC = 0x48434154; // "HCAT"
+    private static final int CACHE_VERSION = 3;
+    private static final String[] RANKS = {"E", "D", "C", "B", "A", "S"};
+
+    private static volatile ContentCatalog instance;
+
+    // Weapons
+    private final String[] weaponIds;
+    private final String[] weaponNames;
+    private final int[] weaponDamage;
+    private final double[] weaponCrit;
+    private final String[] weaponEffects;
+    private final int[] weaponDurability;
+    private final boolean[] weaponStarter;
+
+    // Monster abilities
+    private final String[] abilityNames;
+    private final String[] abilityStatus;
+    private final int[] abilityDuration;
+    private final int[] abilityDamage;
+    private final double[] abilityDmgModifier;
+    private final double[] abilityDefModifier;
+
+    // Dungeon names, indexed by rank (E..S)
+    private final String[][] dungeonNames;
+
+    // Skills
+    private final String[] skillNames;
+    private final boolean[] skillActive;
+    private final int[] skillManaCost;
+    private final String[] skillEffects;
+    private final String[] skillPrerequisites; // null if none
+
+    // Merchant stock and prices
+    private final String[] merchantItems;
+    private final int[] merchantStock;
+    private final int[] merchantPrices;
+
+    // Loot table rows, compiled by LootTables
+    private final String[] lootTables;
+    private final String[] lootDrops;
+    private final double[] lootWeights;
+    private final int[] lootGuarantees; // 0 if none
+
+    // Monster behavior rules, compiled by MonsterBehavior
+    private final String[] behaviorProfiles;
+    private final String[] behaviorConditions;
+    private final String[] behaviorActions;
+
+    // Name indexes
+    private final Map<String, Integer> weaponById;
+    private final Map<String, Integer> weaponByName;
+    private final Map<String, Integer> merchantByItem;
+
+    private ContentCatalog(Builder b) {
+        weaponIds = b.weaponIds.toArray(new String[0]);
+        weaponNames = b.weaponNames.toArray(new String[0]);
+        weaponDamage = toIntArray(b.weaponDamage);
+        weaponCrit = toDoubleArray(b.weaponCrit);
+        weaponEffects = b.weaponEffects.toArray(new String[0]);
+        weaponDurability = toIntArray(b.weaponDurability);
+        weaponStarter = toBooleanArray(b.weaponStarter);
+
+        abilityNames = b.abilityNames.toArray(new String[0]);
+        abilityStatus = b.abilityStatus.toArray(new String[0]);
+        abilityDuration = toIntArray(b.abilityDuration);
+        abilityDamage = toIntArray(b.abilityDamage);
+        abilityDmgModifier = toDoubleArray(b.abilityDmgModifier);
+        abilityDefModifier = toDoubleArray(b.abilityDefModifier);
+
+        dungeonNames = new String[RANKS.length][];
+        for (int i = 0; i < RANKS.length; i++) {
+            List<String> names = b.dungeonNames.get(RANKS[i]);
+            dungeonNames[i] = names == null ? new String[0] : names.toArray(new String[0]);
+        }
+
+        skillNames = b.skillNames.toArray(new String[0]);
+        skillActive = toBooleanArray(b.skillActive);
+        skillManaCost = toIntArray(b.skillManaCost);
+        skillEffects = b.skillEffects.toArray(new String[0]);
+        skillPrerequisites = b.skillPrerequisites.toArray(new String[0]);
+
+        merchantItems = b.merchantItems.toArray(new String[0]);
+        merchantStock = toIntArray(b.merchantStock);
+        merchantPrices = toIntArray(b.merchantPrices);
+
+        lootTables = b.lootTables.toArray(new String[0]);
+        lootDrops = b.lootDrops.toArray(new String[0]);
+        lootWeights = toDoubleArray(b.lootWeights);
+        lootGuarantees = toIntArray(b.lootGuarantees);
+
+        behaviorProfiles = b.behaviorProfiles.toArray(new String[0]);
+        behaviorConditions = b.behaviorConditions.toArray(new String[0]);
+        behaviorActions = b.behaviorActions.toArray(new String[0]);
+
+        weaponById = indexOf(weaponIds);
+        weaponByName = indexOf(weaponNames);
+        merchantByItem = indexOf(merchantItems);
+    }
+
+    /**
+     * Returns the shared catalog, loading it on first use
+     * from -Dhunter.content.dir (default: ./content).
+     */
+    public static ContentCatalog get() {
+        ContentCatalog c = instance;
+        if (c == null) {
+            synchronized (ContentCatalog.class) {
+                c = instance;
+                if (c == null) {
+                    c = load(new File(System.getProperty("hunter.content.dir", "content")));
+                    instance = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Loads a catalog from a content directory, using the binary cache when it is up to date
+     * and rewriting it after a reparse.
+     */
+    public static ContentCatalog load(File dir) {
+        long stamp = sourceStamp(dir);
+        File cache = new File(dir, CACHE_FILE);
+        if (cache.isFile()) {
+            try {
+                ContentCatalog cached = readCache(cache, stamp);
+                if (cached != null) return cached;
+            } catch (IOException | RuntimeException e) {
+                // Corrupt or truncated cache: fall through and rebuild it
+            }
+        }
+        ContentCatalog parsed = parse(dir);
+        try {
+            parsed.writeCache(cache, stamp);
+        } catch (IOException e) {
+            // Read-only install: run from the text files every time
+        }
+        return parsed;
+    }
+
+    // ===================== Weapons =====================
+
+    /** Creates a fresh weapon (own durability) from its content id, e.g. "lapis". */
+    public Item createWeapon(String id) {
+        Integer index = weaponById.get(id);
+        if (index == null) throw new IllegalArgumentException("Unknown weapon id: " + id);
+        return createWeapon(index);
+    }
+
+    /** Creates a fresh weapon from its numeric id. */
+    public Item createWeapon(int index) {
+        return new Item(weaponNames[index], weaponDamage[index], weaponCrit[index],
+                weaponEffects[index], weaponDurability[index]);
+    }
+
+    /** Returns the numeric id for a weapon content id, or -1 if unknown. */
+    public int getWeaponIndex(String id) {
+        Integer index = weaponById.get(id);
+        return index == null ? -1 : index;
+    }
+
+    /** Returns the numeric id for a weapon display name, or -1 if unknown. */
+    public int getWeaponIndexByName(String name) {
+        Integer index = weaponByName.get(name);
+        return index == null ? -1 : index;
+    }
+
+    public int getWeaponCount() { return weaponIds.length; }
+    public String getWeaponName(int index) { return weaponNames[index]; }
+    public boolean isStarterWeapon(int index) { return weaponStarter[index]; }
+
+    // ===================== Monster abilities =====================
+
+    public int getAbilityCount() { return abilityNames.length; }
+    public String getAbilityName(int index) { return abilityNames[index]; }
+
+    /** Creates the status effect an ability inflicts. */
+    public StatusEffect createAbilityEffect(int index) {
+        return new StatusEffect(abilityStatus[index], abilityDuration[index], abilityDamage[index],
+                abilityDmgModifier[index], abilityDefModifier[index]);
+    }
+
+    // ===================== Dungeons =====================
+
+    /** Returns the number of dungeon names for a rank (0 if the rank has none). */
+    public int getDungeonNameCount(String rank) {
+        int r = rankIndex(rank);
+        return r < 0 ? 0 : dungeonNames[r].length;
+    }
+
+    public String getDungeonName(String rank, int index) {
+        return dungeonNames[rankIndex(rank)][index];
+    }
+
+    // ===================== Skills =====================
+
+    public int getSkillCount() { return skillNames.length; }
+    public String getSkillName(int index) { return skillNames[index]; }
+    public boolean isSkillActive(int index) { return skillActive[index]; }
+    public int getSkillManaCost(int index) { return skillManaCost[index]; }
+    public String getSkillEffect(int index) { return skillEffects[index]; }
+    /** Returns the prerequisite skill name, or null if none. */
+    public String getSkillPrerequisite(int index) { return skillPrerequisites[index]; }
+
+    // ===================== Merchant =====================
+
+    public int getMerchantItemCount() { return merchantItems.length; }
+    public String getMerchantItem(int index) { return merchantItems[index]; }
+    public int getMerchantStock(int index) { return merchantStock[index]; }
+    public int getMerchantPrice(int index) { return merchantPrices[index]; }
+    /** Returns the merchant index of an item, or -1 if the merchant doesn't list it. */
+    public int getMerchantIndex(String item) {
+        Integer index = merchantByItem.get(item);
+        return index == null ? -1 : index;
+    }
+
+    /** Gets the base price for an item (0 for items the merchant doesn't list). */
+    public int getPrice(String item) {
+        Integer index = merchantByItem.get(item);
+        return index == null ? 0 : merchantPrices[index];
+    }
+
+    // ===================== Loot =====================
+
+    /** Rows of content/loot.txt in file order (see LootTables). */
+    public int getLootRowCount() { return lootTables.length; }
+    public String getLootTable(int row) { return lootTables[row]; }
+    public String getLootDrop(int row) { return lootDrops[row]; }
+    public double getLootWeight(int row) { return lootWeights[row]; }
+    /** Guaranteed at the latest every N rolls, or 0 if the drop has no guarantee. */
+    public int getLootGuarantee(int row) { return lootGuarantees[row]; }
+
+    // ===================== Monster behavior =====================
+
+    /** Rules of content/behavior.txt in file order (see MonsterBehavior). */
+    public int getBehaviorRuleCount() { return behaviorProfiles.length; }
+    public String getBehaviorProfile(int row) { return behaviorProfiles[row]; }
+    public String getBehaviorConditions(int row) { return behaviorConditions[row]; }
+    public String getBehaviorAction(int row) { return behaviorActions[row]; }
+
+    // ===================== Text parsing =====================
+
+    /**
+     * Rejects an ability that would not only weaken the hunter it afflicts (see
+     * content/abilities.txt): both modifiers must be from 0 to 1.
+     */
+    private static void checkAbility(String name, double dmgModifier, double defModifier) {
+        if (dmgModifier < 0 || dmgModifier > 1 || defModifier < 0 || defModifier > 1) {
+            throw new IllegalStateException("abilities.txt: " + name + " must only weaken the hunter it afflicts"
+                    + " (dmgModifier and defModifier must be from 0 to 1)");
+        }
+    }
+
+    private static ContentCatalog parse(File dir) {
+        Builder b = new Builder();
+        for (String[] f : readTable(dir, "weapons.txt", 7)) {
+            b.weaponIds.add(f[0]);
+            b.weaponNames.add(f[1]);
+            b.weaponDamage.add(Integer.parseInt(f[2]));
+            b.weaponCrit.add(Double.parseDouble(f[3]));
+            b.weaponEffects.add(f[4]);
+            b.weaponDurability.add(Integer.parseInt(f[5]));
+            b.weaponStarter.add(parseYesNo(f[6]));
+        }
+        for (String[] f : readTable(dir, "abilities.txt", 6)) {
+            b.abilityNames.add(f[0]);
+            b.abilityStatus.add(f[1]);
+            b.abilityDuration.add(Integer.parseInt(f[2]));
+            b.abilityDamage.add(Integer.parseInt(f[3]));
+            b.abilityDmgModifier.add(Double.parseDouble(f[4]));
+            b.abilityDefModifier.add(Double.parseDouble(f[5]));
+            checkAbility(f[0], Double.parseDouble(f[4]), Double.parseDouble(f[5]));
+        }
+        for (String[] f : readTable(dir, "dungeons.txt", 2)) {
+            List<String> names = new ArrayList<>();
+            for (String n : f[1].split(",")) {
+                if (!n.trim().isEmpty()) names.add(n.trim());
+            }
+            b.dungeonNames.put(f[0], names);
+        }
+        for (String[] f : readTable(dir, "skills.txt", 5)) {
+            b.skillNames.add(f[0]);
+            b.skillActive.add(parseYesNo(f[1]));
+            b.skillManaCost.add(Integer.parseInt(f[2]));
+            b.skillEffects.add(f[3]);
+            b.skillPrerequisites.add(f[4].isEmpty() ? null : f[4]);
+        }
+        for (String[] f : readTable(dir, "merchant.txt", 3)) {
+            b.merchantItems.add(f[0]);
+            b.merchantStock.add(Integer.parseInt(f[1]));
+            b.merchantPrices.add(Integer.parseInt(f[2]));
+        }
+        for (String[] f : readTable(dir, "loot.txt", 4)) {
+            b.lootTables.add(f[0]);
+            b.lootDrops.add(f[1]);
+            b.lootWeights.add(Double.parseDouble(f[2]));
+            b.lootGuarantees.add(f[3].isEmpty() ? 0 : Integer.parseInt(f[3]));
+        }
+        for (String[] f : readTable(dir, "behavior.txt", 3)) {
+            b.behaviorProfiles.add(f[0]);
+            b.behaviorConditions.add(f[1]);
+            b.behaviorActions.add(f[2]);
+        }
+        return new ContentCatalog(b);
+    }
+
+    /**
+     * Reads a '|' separated content file. Blank lines and '#' comments are skipped;
+     * missing trailing columns are treated as empty.
+     */
+    private static List<String[]> readTable(File dir, String fileName, int columns) {
+        File file = new File(dir, fileName);
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read content file " + file + ": " + e.getMessage(), e);
+        }
+        List<String[]> rows = new ArrayList<>();
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] raw = line.split("\\|", -1);
+            if (raw.length > columns) {
+                throw new IllegalStateException(fileName + ":" + (n + 1) + ": expected " + columns
+                        + " columns but found " + raw.length);
+            }
+            String[] row = new String[columns];
+            for (int i = 0; i < columns; i++) {
+                row[i] = i < raw.length ? raw[i].trim() : "";
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static boolean parseYesNo(String s) {
+        return "yes".equalsIgnoreCase(s) || "true".equalsIgnoreCase(s);
+    }
+
+    /** Size and timestamp of every source file folded into one value; changes when any file is edited. */
+    private static long sourceStamp(File dir) {
+        long stamp = CACHE_VERSION;
+        for (String name : SOURCE_FILES) {
+            File f = new File(dir, name);
+            stamp = stamp * 31 + f.length();
+            stamp = stamp * 31 + f.lastModified();
+        }
+        return stamp;
+    }
+
+    // ===================== Binary cache =====================
+
+    private void writeCache(File cache, long stamp) throws IOException {
+        File tmp = new File(cache.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(CACHE_MAGIC);
+            out.writeInt(CACHE_VERSION);
+            out.writeLong(stamp);
+
+            out.writeInt(weaponIds.length);
+            for (int i = 0; i < weaponIds.length; i++) {
+                writeString(out, weaponIds[i]);
+                writeString(out, weaponNames[i]);
+                out.writeInt(weaponDamage[i]);
+                out.writeDouble(weaponCrit[i]);
+                writeString(out, weaponEffects[i]);
+                out.writeInt(weaponDurability[i]);
+                out.writeBoolean(weaponStarter[i]);
+            }
+
+            out.writeInt(abilityNames.length);
+            for (int i = 0; i < abilityNames.length; i++) {
+                writeString(out, abilityNames[i]);
+                writeString(out, abilityStatus[i]);
+                out.writeInt(abilityDuration[i]);
+                out.writeInt(abilityDamage[i]);
+                out.writeDouble(abilityDmgModifier[i]);
+                out.writeDouble(abilityDefModifier[i]);
+            }
+
+            for (String[] names : dungeonNames) {
+                out.writeInt(names.length);
+                for (String name : names) writeString(out, name);
+            }
+
+            out.writeInt(skillNames.length);
+            for (int i = 0; i < skillNames.length; i++) {
+                writeString(out, skillNames[i]);
+                out.writeBoolean(skillActive[i]);
+                out.writeInt(skillManaCost[i]);
+                writeString(out, skillEffects[i]);
+                writeString(out, skillPrerequisites[i]);
+            }
+
+            out.writeInt(merchantItems.length);
+            for (int i = 0; i < merchantItems.length; i++) {
+                writeString(out, merchantItems[i]);
+                out.writeInt(merchantStock[i]);
+                out.writeInt(merchantPrices[i]);
+            }
+
+            out.writeInt(lootTables.length);
+            for (int i = 0; i < lootTables.length; i++) {
+                writeString(out, lootTables[i]);
+                writeString(out, lootDrops[i]);
+                out.writeDouble(lootWeights[i]);
+                out.writeInt(lootGuarantees[i]);
+            }
+
+            out.writeInt(behaviorProfiles.length);
+            for (int i = 0; i < behaviorProfiles.length; i++) {
+                writeString(out, behaviorProfiles[i]);
+                writeString(out, behaviorConditions[i]);
+                writeString(out, behaviorActions[i]);
+            }
+        }
+        Files.move(tmp.toPath(), cache.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Maps the cache file and decodes it. Returns null if the cache is for other content. */
+    private static ContentCatalog readCache(File cache, long stamp) throws IOException {
+        MappedByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(cache.toPath(), StandardOpenOption.READ)) {
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+        if (buf.getInt() != CACHE_MAGIC || buf.getInt() != CACHE_VERSION || buf.getLong() != stamp) {
+            return null;
+        }
+        Builder b = new Builder();
+
+        int n = buf.getInt();
+        for (int i = 0; i < n; i++) {
+            b.weaponIds.add(readString(buf));
+            b.weaponNames.add(readString(buf));
+            b.weaponDamage.add(buf.getInt());
+            b.weaponCrit.add(buf.getDouble());
+            b.weaponEffects.add(readString(buf));
+            b.weaponDurability.add(buf.getInt());
+            b.weaponStarter.add(buf.get() != 0);
+        }
+
+        n = buf.getInt();
+        for (int i = 0; i < n; i++) {
+            b.abilityNames.add(readString(buf));
+            b.abilityStatus.add(readString(buf));
+            b.abilityDuration.add(buf.getInt());
+            b.abilityDamage.add(buf.getInt());
+            b.abilityDmgModifier.add(buf.getDouble());
+            b.abilityDefModifier.add(buf.getDouble());
+            checkAbility(b.abilityNames.get(i), b.abilityDmgModifier.get(i), b.abilityDefModifier.get(i));
+        }
+
+        for (String rank : RANKS) {
+            n = buf.getInt();
+            if (n == 0) continue;
+            List<String> names = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) names.add(readString(buf));
+            b.dungeonNames.put(rank, names);
+        }
+
+        n = buf.getInt();
+        for (int i = 0; i < n; i++) {
+            b.skillNames.add(readString(buf));
+            b.skillActive.add(buf.get() != 0);
+            b.skillManaCost.add(buf.getInt());
+            b.skillEffects.add(readString(buf));
+            b.skillPrerequisites.add(readString(buf));
+        }
+
+        n = buf.getInt();
+        for (int i = 0; i < n; i++) {
+            b.merchantItems.add(readString(buf));
+            b.merchantStock.add(buf.getInt());
+            b.merchantPrices.add(buf.getInt());
+        }
+
+        n = buf.getInt();
+        for (int i = 0; i < n; i++) {
+            b.lootTables.add(readString(buf));
+            b.lootDrops.add(readString(buf));
+            b.lootWeights.add(buf.getDouble());
+            b.lootGuarantees.add(buf.getInt());
+        }
+
+        n = buf.getInt();
+        for (int i = 0; i < n; i++) {
+            b.behaviorProfiles.add(readString(buf));
+            b.behaviorConditions.add(readString(buf));
+            b.behaviorActions.add(readString(buf));
+        }
+        return new ContentCatalog(b);
+    }
+
+    /** Length-prefixed UTF-8; length -1 encodes null. */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int len = buf.getInt();
+        if (len < 0) return null;
+        byte[] bytes = new byte[len];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ===================== Helpers =====================
+
+    private static int rankIndex(String rank) {
+        for (int i = 0; i < RANKS.length; i++) {
+            if (RANKS[i].equals(rank)) return i;
+        }
+        return -1;
+    }
+
+    private static Map<String, Integer> indexOf(String[] keys) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) index.put(keys[i], i);
+        return Collections.unmodifiableMap(index);
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        int[] a = new int[list.size()];
+        for (int i = 0; i < a.length; i++) a[i] = list.get(i);
+        return a;
+    }
+
+    private static double[] toDoubleArray(List<Double> list) {
+        double[] a = new double[list.size()];
+        for (int i = 0; i < a.length; i++) a[i] = list.get(i);
+        return a;
+    }
+
+    private static boolean[] toBooleanArray(List<Boolean> list) {
+        boolean[] a = new boolean[list.size()];
+        for (int i = 0; i < a.length; i++) a[i] = list.get(i);
+        return a;
+    }
+
+    /** Collects rows while parsing or decoding; frozen into arrays by the constructor. */
+    private static class Builder {
+        final List<String> weaponIds = new ArrayList<>();
+        final List<String> weaponNames = new ArrayList<>();
+        final List<Integer> weaponDamage = new ArrayList<>();
+        final List<Double> weaponCrit = new ArrayList<>();
+        final List<String> weaponEffects = new ArrayList<>();
+        final List<Integer> weaponDurability = new ArrayList<>();
+        final List<Boolean> weaponStarter = new ArrayList<>();
+
+        final List<String> abilityNames = new ArrayList<>();
+        final List<String> abilityStatus = new ArrayList<>();
+        final List<Integer> abilityDuration = new ArrayList<>();
+        final List<Integer> abilityDamage = new ArrayList<>();
+        final List<Double> abilityDmgModifier = new ArrayList<>();
+        final List<Double> abilityDefModifier = new ArrayList<>();
+
+        final Map<String, List<String>> dungeonNames = new HashMap<>();
+
+        final List<String> skillNames = new ArrayList<>();
+        final List<Boolean> skillActive = new ArrayList<>();
+        final List<Integer> skillManaCost = new ArrayList<>();
+        final List<String> skillEffects = new ArrayList<>();
+        final List<String> skillPrerequisites = new ArrayList<>();
+
+        final List<String> merchantItems = new ArrayList<>();
+        final List<Integer> merchantStock = new ArrayList<>();
+        final List<Integer> merchantPrices = new ArrayList<>();
+
+        final List<String> lootTables = new ArrayList<>();
+        final List<String> lootDrops = new ArrayList<>();
+        final List<Double> lootWeights = new ArrayList<>();
+        final List<Integer> lootGuarantees = new ArrayList<>();
+
+        final List<String> behaviorProfiles = new ArrayList<>();
+        final List<String> behaviorConditions = new ArrayList<>();
+        final List<String> behaviorActions = new ArrayList<>();
+    }
+}
@@ -7,15 +7,18 @@ import java.util.Random;
  * and special properties (Red Gate, Double Dungeon).
  *
  * <b>How to add new dungeon names:</b>
- *   - Add to the relevant static array (e.g. E_RANK_NAMES).
+ *   - Add to the relevant rank line in content/dungeons.txt.
  *
  * <b>How to instantiate:</b>
  *   Dungeon d = new Dungeon("A");
  *   d.setAsDoubleDungeon();
  *
+ *   // Same seed, same name and floor layout (see DungeonGenerator)
+ *   Dungeon replay = new Dungeon("A", 42L);
+ *
  * <b>Example: Add new rank or floor logic:</b>
- *   // Add "NewArea" to D-rank:
- *   private static final String[] D_RANK_NAMES = {"Mati", ..., "NewArea"};
+ *   // Add "NewArea" to D-rank in content/dungeons.txt:
+ *   D | Mati, ..., NewArea
  */
 public class Dungeon {
     private String rank;
@@ -24,43 +27,91 @@ public class Dungeon {
     private boolean isRedGate;
     private boolean isDoubleDungeon;
     private int currentFloor;
-
-    // Dungeon name lists (edit here to add new names)
-    private static final String[] E_RANK_NAMES = {"Buhangin", "Milan", "Tigatto", "Bajada", "SPMC", "Cabagiuo"};
-    private static final String[] D_RANK_NAMES = {"Mati", "Apokon", "Panabo", "Carmen", "Mawab"};
-    private static final String[] C_RANK_NAMES = {"Lasang", "Sirawan", "Bunawan", "Donia Pilar", "LandMark"};
-    private static final String[] A_RANK_NAMES = {"Lanang", "Sasa", "Magsaysay", "Roxas", "Uyangureen"};
-    private static final String[] S_RANK_NAMES = {"Boulevard", "Matina Aplaya", "San Pedro", "Ubos Bangkerohan"};
+    private long seed;
+    private DungeonGenerator generator;
+    private long id; // instance id from DungeonInstanceManager, 0 if unmanaged
+    private DungeonGenerator.Floor floor; // the floor the player is on, once asked for
+    private boolean forked;    // the generator is shared with a fork: its floors are templates
+    private boolean simulated; // a fork's floors record no metrics or events
 
     /**
-     * Constructs a dungeon of a given rank.
+     * Constructs a dungeon of a given rank with a random seed.
      * Automatically sets Red Gate for C-Rank.
      * Starts on floor 1.
      */
     public Dungeon(String rank) {
+        this(rank, new Random().nextLong());
+    }
+
+    /**
+     * Constructs a dungeon whose name and floor layout are fully determined by the seed.
+     * @param rank - Dungeon rank ("E"..."S")
+     * @param seed - Layout seed
+     */
+    public Dungeon(String rank, long seed) {
+        reset(rank, seed);
+    }
+
+    /** Empty dungeon for fork(), which fills every field. */
+    private Dungeon() {
+    }
+
+    /**
+     * Returns a branch of the dungeon in O(1), for search and what-if tools (see
+     * Hunter.fork()). The branch gets its own copy of the current floor, whose monsters
+     * are forks themselves; later floors come from the shared generator, and from
+     * then on each side plays a forked copy of them, never the generator's own.
+     * The branch is unmanaged (id 0) and its monsters record no metrics or events.
+     */
+    public Dungeon fork() {
+        Dungeon branch = new Dungeon();
+        branch.rank = rank;
+        branch.name = name;
+        branch.difficulty = difficulty;
+        branch.isRedGate = isRedGate;
+        branch.isDoubleDungeon = isDoubleDungeon;
+        branch.currentFloor = currentFloor;
+        branch.seed = seed;
+        branch.generator = generator;
+        branch.simulated = true;
+        branch.floor = floor == null ? null : floor.fork(true);
+        forked = branch.forked = true;
+        return branch;
+    }
+
+    /**
+     * Turns this object into a fresh dungeon, as if just constructed (DungeonInstanceManager
+     * recycles instances this way). The generator is reset and reused, so floors or
+     * prefetches left over from the previous dungeon are never seen by the new one; after
+     * a fork it is replaced instead, since branches still play its floors.
+     */
+    void reset(String rank, long seed) {
         this.rank = rank;
-        this.name = generateRandomName(rank);
+        this.seed = seed;
+        this.name = generateRandomName(rank, new Random(seed));
         this.difficulty = getDifficultyValue(rank);
         this.isRedGate = "C".equals(rank);
         this.isDoubleDungeon = false;
         this.currentFloor = 1;
+        if (generator == null || forked) generator = new DungeonGenerator(rank, difficulty, seed);
+        else generator.reset(rank, difficulty, seed);
+        this.id = 0;
+        this.floor = null;
+        this.forked = false;
+        this.simulated = false;
     }
 
     /**
      * Generates a random dungeon name based on the rank.
      * @param rank - Dungeon rank ("E"..."S")
+     * @param rand - Source of randomness
      * @return Name string
      */
-    private String generateRandomName(String rank) {
-        Random rand = new Random();
-        switch(rank) {
-            case "E": return E_RANK_NAMES[rand.nextInt(E_RANK_NAMES.length)];
-            case "D": return D_RANK_NAMES[rand.nextInt(D_RANK_NAMES.length)];
-            case "C": return C_RANK_NAMES[rand.nextInt(C_RANK_NAMES.length)];
-            case "A": return A_RANK_NAMES[rand.nextInt(A_RANK_NAMES.length)];
-            case "S": return S_RANK_NAMES[rand.nextInt(S_RANK_NAMES.length)];
-            default: return "Unknown";
-        }
+    private String generateRandomName(String rank, Random rand) {
+        ContentCatalog catalog = ContentCatalog.get();
+        int count = catalog.getDungeonNameCount(rank);
+        if (count == 0) return "Unknown";
+        return catalog.getDungeonName(rank, rand.nextInt(count));
     }
 
     /**
@@ -83,6 +134,25 @@ public class Dungeon {
         currentFloor++;
     }
 
+    /**
+     * Returns the generated layout of the floor the player is on. Entering a floor is
+     * what counts its monsters as spawned (GameMetrics), once per floor and never for
+     * forks or floors that were only prefetched.
+     */
+    public DungeonGenerator.Floor getFloor() {
+        if (floor == null || floor.getNumber() != currentFloor) {
+            floor = generator.getFloor(currentFloor);
+            if (forked) floor = floor.fork(simulated);
+            if (!simulated) GameMetrics.get().recordMonsterSpawns(floor.getMonsters().length);
+        }
+        return floor;
+    }
+
+    /** Returns true once the boss floor has been cleared. */
+    public boolean isCleared() {
+        return currentFloor > generator.getFloorCount();
+    }
+
     /** Marks this dungeon as a Red Gate. */
     public void setAsRedGate() {
         this.isRedGate = true;
@@ -109,6 +179,11 @@ public class Dungeon {
     public String getRank() { return rank; }
     public boolean isRedGate() { return isRedGate; }
     public int getCurrentFloor() { return currentFloor; }
+    public long getSeed() { return seed; }
+    /** Instance id assigned by DungeonInstanceManager (0 if created directly). */
+    public long getId() { return id; }
+    void setId(long id) { this.id = id; }
+    public DungeonGenerator getGenerator() { return generator; }
     public String getName() { return name; }
     public boolean isDoubleDungeon() { return isDoubleDungeon; }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package com.bosakon.monsterhunter;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Turns a dungeon seed into a deterministic multi-floor layout
+ * (encounters, loot, boss floor, hidden paths for "Dungeon Sense").
+ *
+ * Floors are generated lazily: nothing is built until a floor is first asked for.
+ * Each floor gets its own Random derived from (seed, floor number), so the layout
+ * is identical no matter which order floors are generated in or on which thread.
+ * While the player fights, prefetch() builds the next floor in the background so
+ * the floor transition only has to pick up a finished result.
+ *
+ * <b>How to use:</b>
+ *   DungeonGenerator gen = new DungeonGenerator("S", 6, 42L);
+ *   DungeonGenerator.Floor floor = gen.getFloor(1);
+ *   gen.prefetch(2);      // while the player fights floor 1
+ *   gen.release(1);       // after floor 1 is cleared
+ *
+ * <b>How to tweak layouts:</b>
+ *   - Floor count per rank: getFloorCount()
+ *   - Encounter size: buildFloor()
+ *   - Loot odds: content/loot.txt (see LootTables)
+ */
+public class DungeonGenerator {
+    /** Shared background pool for floor prefetch (daemon threads, never blocks exit). */
+    private static final ExecutorService PREFETCH_POOL = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2), r -> {
+                Thread t = new Thread(r, "dungeon-prefetch");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static final double HIDDEN_PATH_CHANCE = 0.2;
+
+    private String rank;
+    private long seed;
+    private int difficulty;
+    private int floorCount;
+    private final boolean simulated; // monsters for offline simulations: no metrics or events
+    private final ConcurrentHashMap<Integer, CompletableFuture<Floor>> floors = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a generator for one dungeon instance.
+     * @param rank       Dungeon rank ("E"..."S")
+     * @param difficulty Numeric difficulty (see Dungeon.getDifficulty())
+     * @param seed       Layout seed; same seed gives the same dungeon
+     */
+    public DungeonGenerator(String rank, int difficulty, long seed) {
+        this(rank, difficulty, seed, false);
+    }
+
+    /** Generator for simulations (see IdleProgress): same layouts, but its monsters record no metrics. */
+    DungeonGenerator(String rank, int difficulty, long seed, boolean simulated) {
+        this.rank = rank;
+        this.seed = seed;
+        this.difficulty = difficulty;
+        this.floorCount = 2 + difficulty;
+        this.simulated = simulated;
+    }
+
+    /**
+     * Turns this generator into a fresh one for another dungeon (see Dungeon.reset()),
+     * keeping its floor map. Floors and prefetches of the previous dungeon are dropped;
+     * a prefetch still running finishes into a future nobody asks for. Must not be
+     * called while a fork shares the generator.
+     */
+    void reset(String rank, int difficulty, long seed) {
+        floors.clear();
+        this.rank = rank;
+        this.seed = seed;
+        this.difficulty = difficulty;
+        this.floorCount = 2 + difficulty;
+    }
+
+    /**
+     * Returns the given floor, generating it now if it was not prefetched.
+     * If a prefetch for this floor is still running, waits for it instead of building twice.
+     */
+    public Floor getFloor(int number) {
+        return floors.computeIfAbsent(number,
+                n -> CompletableFuture.completedFuture(buildFloor(n))).join();
+    }
+
+    /** Starts generating a floor in the background (no-op if already generated or past the boss floor). */
+    public void prefetch(int number) {
+        if (number < 1 || number > floorCount) return;
+        floors.computeIfAbsent(number,
+                n -> CompletableFuture.supplyAsync(() -> buildFloor(n), PREFETCH_POOL));
+    }
+
+    /** Drops a finished floor so long dungeon runs don't keep every cleared floor alive. */
+    public void release(int number) {
+        floors.remove(number);
+    }
+
+    /** Builds one floor from its derived seed. Must only depend on (seed, number). */
+    private Floor buildFloor(int number) {
+        Random rand = new Random(floorSeed(number));
+        boolean bossFloor = number == floorCount;
+        int monsterLevel = number + difficulty - 1;
+
+        Monster[] monsters;
+        if (bossFloor) {
+            // Boss plus 0-2 escorts
+            monsters = new Monster[1 + rand.nextInt(3)];
+            monsters[0] = new Monster(monsterLevel, true, rand, simulated);
+            for (int i = 1; i < monsters.length; i++) {
+                monsters[i] = new Monster(monsterLevel, false, rand, simulated);
+            }
+        } else {
+            // 1-3 regular monsters
+            monsters = new Monster[1 + rand.nextInt(3)];
+            for (int i = 0; i < monsters.length; i++) {
+                monsters[i] = new Monster(monsterLevel, false, rand, simulated);
+            }
+        }
+
+        int[] monsterDrops = new int[monsters.length];
+        int clearDrop = LootTables.get().rollFloor(rank, monsters, rand, monsterDrops);
+        boolean hiddenPath = !bossFloor && rand.nextDouble() < HIDDEN_PATH_CHANCE;
+        return new Floor(number, monsters, bossFloor, clearDrop, monsterDrops, hiddenPath);
+    }
+
+    /** Mixes the dungeon seed with the floor number (SplitMix64 finalizer). */
+    private long floorSeed(int number) {
+        long z = seed + number * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // -------- Getters ---------
+    public String getRank() { return rank; }
+    public long getSeed() { return seed; }
+    /** Number of floors; the last one is the boss floor. */
+    public int getFloorCount() { return floorCount; }
+
+    /**
+     * One generated floor: its encounter and pre-rolled rewards.
+     * Drops are LootTables drop ids, or LootTable.NOTHING.
+     */
+    public static class Floor {
+        private final int number;
+        private final Monster[] monsters;
+        private final boolean bossFloor;
+        private final int clearDrop;
+        private final int[] monsterDrops;
+        private final boolean hiddenPath;
+        private boolean hiddenPathTaken;
+
+        Floor(int number, Monster[] monsters, boolean bossFloor, int clearDrop, int[] monsterDrops, boolean hiddenPath) {
+            this.number = number;
+            this.monsters = monsters;
+            this.bossFloor = bossFloor;
+            this.clearDrop = clearDrop;
+            this.monsterDrops = monsterDrops;
+            this.hiddenPath = hiddenPath;
+        }
+
+        /** Copy of the floor with forked monsters (see Dungeon.fork()); drops are shared, they never change. */
+        Floor fork(boolean simulated) {
+            Monster[] branch = new Monster[monsters.length];
+            for (int i = 0; i < monsters.length; i++) branch[i] = monsters[i].fork(simulated);
+            Floor floor = new Floor(number, branch, bossFloor, clearDrop, monsterDrops, hiddenPath);
+            floor.hiddenPathTaken = hiddenPathTaken;
+            return floor;
+        }
+
+        /** Returns true once every monster on this floor is dead. */
+        public boolean isCleared() {
+            for (Monster m : monsters) {
+                if (m.isAlive()) return false;
+            }
+            return true;
+        }
+
+        public int getNumber() { return number; }
+        public Monster[] getMonsters() { return monsters; }
+        public boolean isBossFloor() { return bossFloor; }
+        /** Drop for clearing this floor. */
+        public int getClearDrop() { return clearDrop; }
+        /** Drop for killing the monster at index i of getMonsters(). */
+        public int getMonsterDrop(int i) { return monsterDrops[i]; }
+        /** True if this floor hides a side path (only visible with Dungeon Sense). */
+        public boolean hasHiddenPath() { return hiddenPath; }
+
+        /** Marks the hidden path as explored; true only the first time, and only if the floor has one. */
+        public boolean takeHiddenPath() {
+            if (!hiddenPath || hiddenPathTaken) return false;
+            hiddenPathTaken = true;
+            return true;
+        }
+    }
+}
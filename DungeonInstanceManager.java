@@ -0,0 +1,235 @@
+package com.bosakon.monsterhunter;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Owns every live Dungeon instance of the process: assigns ids, recycles closed
+ * instances from a pool, and evicts instances nobody has touched for a while, so a
+ * long-running session server does not keep every dungeon ever entered.
+ *
+ * Lifecycle: open() hands out a (possibly recycled) Dungeon with a new id. Sessions
+ * call touch() while they play it and close() when they are done, which returns it
+ * to the pool right away. A background sweep (daemon thread) also removes:
+ *   - finished instances (finish() was called) older than finishedMillis
+ *   - idle instances not touched for idleMillis
+ * Swept instances are dropped, never pooled: their session may still hold the object,
+ * and a recycled object would let its stale touch()/close() act on the next session's
+ * instance. Only close(), the owner's own "done with it", recycles.
+ * What is recycled is the Dungeon and its DungeonGenerator (with its floor map); floors
+ * and their monsters are built per dungeon and released floor by floor
+ * (DungeonGenerator.release), so they never outlive the floor the player is on.
+ *
+ * Example:
+ *   DungeonInstanceManager dungeons = DungeonInstanceManager.get();
+ *   Dungeon dungeon = dungeons.open("C");
+ *   ...                                    // dungeons.touch(dungeon) on every floor
+ *   dungeons.close(dungeon);
+ *   System.out.println(dungeons.getLive() + " live, peak " + dungeons.getPeak());
+ *
+ * <b>How to configure:</b>
+ *   -Dhunter.dungeon.idleMillis=1800000      evict instances idle this long (default 30 min)
+ *   -Dhunter.dungeon.finishedMillis=60000    keep finished instances this long (default 1 min)
+ *   -Dhunter.dungeon.pool=64                 most recycled instances kept (default 64)
+ */
+public final class DungeonInstanceManager {
+    private static final long SWEEP_MILLIS = 10_000;
+
+    private static volatile DungeonInstanceManager instance;
+
+    private final long idleNanos;
+    private final long finishedNanos;
+    private final int maxPooled;
+
+    private final ConcurrentHashMap<Long, Slot> live = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<Dungeon> pool = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicInteger peak = new AtomicInteger();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder recycled = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * @param idleMillis     Evict instances not touched for this long
+     * @param finishedMillis Recycle finished instances after this long
+     * @param maxPooled      Most recycled instances kept for reuse
+     */
+    public DungeonInstanceManager(long idleMillis, long finishedMillis, int maxPooled) {
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.finishedNanos = TimeUnit.MILLISECONDS.toNanos(finishedMillis);
+        this.maxPooled = maxPooled;
+    }
+
+    /** Returns the process-wide manager, configured from system properties, with its sweep running. */
+    public static DungeonInstanceManager get() {
+        DungeonInstanceManager result = instance;
+        if (result == null) {
+            synchronized (DungeonInstanceManager.class) {
+                result = instance;
+                if (result == null) {
+                    result = new DungeonInstanceManager(
+                            Long.getLong("hunter.dungeon.idleMillis", 30 * 60 * 1000L),
+                            Long.getLong("hunter.dungeon.finishedMillis", 60 * 1000L),
+                            Integer.getInteger("hunter.dungeon.pool", 64));
+                    result.startSweeper(SWEEP_MILLIS);
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Runs sweep() every periodMillis on a daemon thread. */
+    public synchronized void startSweeper(long periodMillis) {
+        if (sweeper != null) return;
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dungeon-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Opens a dungeon of the given rank with a random seed. */
+    public Dungeon open(String rank) {
+        return open(rank, new Random().nextLong());
+    }
+
+    /** Opens a dungeon whose layout is fully determined by the seed (see Dungeon). */
+    public Dungeon open(String rank, long seed) {
+        Dungeon dungeon = pool.pollFirst();
+        if (dungeon != null) {
+            pooled.decrementAndGet();
+            dungeon.reset(rank, seed);
+            recycled.increment();
+        } else {
+            dungeon = new Dungeon(rank, seed);
+            created.increment();
+        }
+        long id = nextId.getAndIncrement();
+        dungeon.setId(id);
+        live.put(id, new Slot(dungeon));
+        peak.accumulateAndGet(live.size(), Math::max);
+        return dungeon;
+    }
+
+    /** Marks the dungeon as in use now (postpones idle eviction). */
+    public void touch(Dungeon dungeon) {
+        Slot slot = slotOf(dungeon);
+        if (slot != null) slot.touched = System.nanoTime();
+    }
+
+    /** Marks the dungeon as finished; the sweep drops it after finishedMillis. */
+    public void finish(Dungeon dungeon) {
+        Slot slot = slotOf(dungeon);
+        if (slot != null) {
+            slot.touched = System.nanoTime();
+            slot.finished = true;
+        }
+    }
+
+    /** Removes the dungeon now and pools it for reuse. The caller must not use it afterwards. */
+    public void close(Dungeon dungeon) {
+        Slot slot = slotOf(dungeon);
+        if (slot != null && live.remove(dungeon.getId(), slot)) recycle(dungeon);
+    }
+
+    /** The live slot holding exactly this object, or null (closed, swept, or never opened here). */
+    private Slot slotOf(Dungeon dungeon) {
+        Slot slot = live.get(dungeon.getId());
+        return slot != null && slot.dungeon == dungeon ? slot : null;
+    }
+
+    /** Removes finished and idle instances. Runs on the sweeper; also callable directly. */
+    public void sweep() {
+        long now = System.nanoTime();
+        for (Iterator<Map.Entry<Long, Slot>> it = live.entrySet().iterator(); it.hasNext(); ) {
+            Slot slot = it.next().getValue();
+            long quiet = now - slot.touched;
+            if ((slot.finished && quiet >= finishedNanos) || quiet >= idleNanos) {
+                it.remove();
+                slot.dungeon.setId(0);
+                evicted.increment();
+            }
+        }
+    }
+
+    private void recycle(Dungeon dungeon) {
+        dungeon.setId(0);
+        if (pooled.incrementAndGet() <= maxPooled) {
+            pool.offerFirst(dungeon);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    /** Returns the live instance with this id, or null if it was closed or evicted. */
+    public Dungeon find(long id) {
+        Slot slot = live.get(id);
+        return slot == null ? null : slot.dungeon;
+    }
+
+    // -------- Stats ---------
+    /** Instances currently open (not closed or evicted). */
+    public int getLive() { return live.size(); }
+    /** Most instances open at the same time. */
+    public int getPeak() { return peak.get(); }
+    /** Instances waiting in the pool for reuse. */
+    public int getPooled() { return pooled.get(); }
+    /** Dungeon objects allocated (pool misses). */
+    public long getCreated() { return created.sum(); }
+    /** Opens served from the pool. */
+    public long getRecycled() { return recycled.sum(); }
+    /** Finished and idle instances dropped by the sweep. */
+    public long getEvicted() { return evicted.sum(); }
+
+    /** One live instance and when it was last used. */
+    private static final class Slot {
+        final Dungeon dungeon;
+        volatile long touched = System.nanoTime();
+        volatile boolean finished;
+
+        Slot(Dungeon dungeon) {
+            this.dungeon = dungeon;
+        }
+    }
+
+    /**
+     * Simulates sessions entering dungeons and abandoning some of them, and prints
+     * live/peak counts and heap use as the server keeps running.
+     */
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        DungeonInstanceManager dungeons = new DungeonInstanceManager(0, 0, 64);
+        Random rand = new Random(42);
+        String[] ranks = {"E", "D", "C", "B", "A", "S"};
+        Runtime rt = Runtime.getRuntime();
+
+        for (int i = 1; i <= entries; i++) {
+            Dungeon dungeon = dungeons.open(ranks[rand.nextInt(ranks.length)], rand.nextLong());
+            dungeon.getFloor(); // build floor 1, as a session entering would
+            int fate = rand.nextInt(10);
+            if (fate < 7) dungeons.close(dungeon);          // played to the end
+            else if (fate < 9) dungeons.finish(dungeon);    // finished, left for the sweep
+            // else abandoned: only the idle sweep will drop it
+            if (i % 1000 == 0) dungeons.sweep();
+            if (i % (entries / 5) == 0) {
+                System.gc();
+                System.out.printf("%7d entered | live %4d | peak %4d | pooled %2d | created %6d | recycled %6d | evicted %6d | heap %5.1f MB%n",
+                        i, dungeons.getLive(), dungeons.getPeak(), dungeons.getPooled(), dungeons.getCreated(),
+                        dungeons.getRecycled(), dungeons.getEvicted(), (rt.totalMemory() - rt.freeMemory()) / 1e6);
+            }
+        }
+    }
+}
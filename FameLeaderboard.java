@@ -0,0 +1,333 @@
+package com.bosakon.monsterhunter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live fame ranking of every registered hunter in the process (all game sessions).
+ *
+ * Writes: hunters are kept in a ConcurrentSkipListSet ordered by (fame descending,
+ * hunter id ascending). Hunter.addFame on a registered hunter moves its key in
+ * O(log n), locking only that hunter's entry, so any number of threads can add fame
+ * to different hunters at once without a global lock.
+ *
+ * Reads: rank and top-K queries are answered from an immutable Snapshot (sorted fame
+ * and id arrays plus an id index) published through a volatile field, so readers
+ * never lock and never see a half-updated ranking. A reader that finds the snapshot
+ * older than the latest write and older than REFRESH_NANOS rebuilds it (one rebuild
+ * at a time; other readers keep using the previous snapshot). rankOf is a binary
+ * search, topK copies K entries.
+ *
+ * Example:
+ *   FameLeaderboard board = FameLeaderboard.get();
+ *   board.register(player);
+ *   player.addFame(10);
+ *   board.refresh();                        // optional: see the update right away
+ *   int rank = board.rankOf(player);        // 1 = most famous
+ *   List<FameLeaderboard.Standing> top = board.topK(10);
+ *
+ * <b>How to benchmark:</b>
+ *   java -cp hunter.jar com.bosakon.monsterhunter.FameLeaderboard [hunters] [threads] [updatesPerThread]
+ */
+public final class FameLeaderboard {
+    private static final long REFRESH_NANOS = 50_000_000L; // 50 ms
+
+    private static final FameLeaderboard INSTANCE = new FameLeaderboard();
+
+    private final ConcurrentSkipListSet<Key> ranking = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile Snapshot snapshot = new Snapshot(new Key[0], new long[0], 0, 0);
+
+    FameLeaderboard() {
+    }
+
+    /** Returns the process-wide leaderboard. */
+    public static FameLeaderboard get() {
+        return INSTANCE;
+    }
+
+    /** Adds a hunter to the ranking; from now on its addFame calls update the board. */
+    public void register(Hunter hunter) {
+        Entry entry = new Entry();
+        if (entries.putIfAbsent(hunter.getId(), entry) != null) return;
+        synchronized (entry) {
+            entry.key = new Key(hunter.getFame(), hunter.getId(), hunter.getName());
+            ranking.add(entry.key);
+        }
+        hunter.setLeaderboard(this);
+        version.incrementAndGet();
+    }
+
+    /** Removes a hunter from the ranking (e.g. when a session loads another save). */
+    public void unregister(Hunter hunter) {
+        Entry entry = entries.remove(hunter.getId());
+        if (entry == null) return;
+        hunter.setLeaderboard(null);
+        synchronized (entry) {
+            ranking.remove(entry.key);
+            entry.key = null;
+        }
+        version.incrementAndGet();
+    }
+
+    /** Called by Hunter.addFame: moves the hunter to its current fame. */
+    void update(Hunter hunter) {
+        Entry entry = entries.get(hunter.getId());
+        if (entry == null) return;
+        synchronized (entry) {
+            // Reading fame under the entry lock keeps the key in step with the last update
+            int fame = hunter.getFame();
+            if (entry.key == null || entry.key.fame == fame) return;
+            ranking.remove(entry.key);
+            entry.key = new Key(fame, hunter.getId(), hunter.getName());
+            ranking.add(entry.key);
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Returns the hunter's rank (1 = most fame) in the current snapshot. A hunter
+     * registered after the snapshot is placed by its live fame.
+     */
+    public int rankOf(Hunter hunter) {
+        Snapshot s = snapshot();
+        int index = s.indexOf(hunter.getId());
+        if (index >= 0) return index + 1;
+        int insertion = Arrays.binarySearch(s.keys, new Key(hunter.getFame(), hunter.getId(), null));
+        return (insertion >= 0 ? insertion : -insertion - 1) + 1;
+    }
+
+    /** Returns the (up to) k most famous hunters, best first. */
+    public List<Standing> topK(int k) {
+        Snapshot s = snapshot();
+        int n = Math.min(k, s.keys.length);
+        List<Standing> top = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Key key = s.keys[i];
+            top.add(new Standing(i + 1, key.name, key.fame));
+        }
+        return top;
+    }
+
+    /** Number of hunters in the current snapshot. */
+    public int size() {
+        return snapshot().keys.length;
+    }
+
+    /** Rebuilds the snapshot now, so the next reads see every update made so far. */
+    public void refresh() {
+        while (!rebuilding.compareAndSet(false, true)) {
+            Thread.yield();
+        }
+        try {
+            rebuild();
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s.version != version.get() && System.nanoTime() - s.builtAt >= REFRESH_NANOS
+                && rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuild();
+                s = snapshot;
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+        return s;
+    }
+
+    private void rebuild() {
+        long seen = version.get(); // read first: a write racing the copy makes the next read rebuild again
+        Key[] keys = new Key[Math.max(entries.size(), 16)];
+        int n = 0;
+        for (Iterator<Key> it = ranking.iterator(); it.hasNext(); ) {
+            Key key = it.next();
+            if (n == keys.length) keys = Arrays.copyOf(keys, n * 2);
+            keys[n++] = key;
+        }
+        long[] index = Snapshot.index(keys, n);
+        // The weakly consistent iterator can see a hunter's old and new key; keep the first (higher) one
+        int duplicates = 0;
+        for (int i = 1; i < n; i++) {
+            if (index[i] >>> 32 == index[i - 1] >>> 32) {
+                keys[(int) index[i]] = null;
+                duplicates++;
+            }
+        }
+        if (duplicates > 0) {
+            int kept = 0;
+            for (int i = 0; i < n; i++) {
+                if (keys[i] != null) keys[kept++] = keys[i];
+            }
+            n = kept;
+            index = Snapshot.index(keys, n);
+        }
+        snapshot = new Snapshot(Arrays.copyOf(keys, n), index, seen, System.nanoTime());
+    }
+
+    /** Ranking key: higher fame first, then lower hunter id (created earlier). */
+    private static final class Key implements Comparable<Key> {
+        final int fame;
+        final long id;
+        final String name;
+
+        Key(int fame, long id, String name) {
+            this.fame = fame;
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            if (fame != other.fame) return fame > other.fame ? -1 : 1;
+            return Long.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).fame == fame && ((Key) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id) * 31 + fame;
+        }
+    }
+
+    /** One registered hunter; its monitor serializes that hunter's key moves. */
+    private static final class Entry {
+        Key key; // guarded by this
+    }
+
+    /** Immutable ranking at one point in time. */
+    private static final class Snapshot {
+        final Key[] keys;   // best first
+        final long[] index; // (id << 32 | position in keys), ascending, for rankOf
+        final long version;
+        final long builtAt;
+
+        Snapshot(Key[] keys, long[] index, long version, long builtAt) {
+            this.keys = keys;
+            this.index = index;
+            this.version = version;
+            this.builtAt = builtAt;
+        }
+
+        /** Sorted id index of the first n keys (hunter ids stay far below 2^31). */
+        static long[] index(Key[] keys, int n) {
+            long[] index = new long[n];
+            for (int i = 0; i < n; i++) index[i] = keys[i].id << 32 | i;
+            Arrays.sort(index);
+            return index;
+        }
+
+        int indexOf(long id) {
+            int lo = 0, hi = index.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                long midId = index[mid] >>> 32;
+                if (midId < id) lo = mid + 1;
+                else if (midId > id) hi = mid - 1;
+                else return (int) index[mid];
+            }
+            return -1;
+        }
+    }
+
+    /** One leaderboard row. */
+    public static final class Standing {
+        private final int rank;
+        private final String name;
+        private final int fame;
+
+        Standing(int rank, String name, int fame) {
+            this.rank = rank;
+            this.name = name;
+            this.fame = fame;
+        }
+
+        public int getRank() { return rank; }
+        public String getName() { return name; }
+        public int getFame() { return fame; }
+
+        @Override
+        public String toString() {
+            return "#" + rank + " " + name + " (" + fame + " fame)";
+        }
+    }
+
+    /**
+     * Hammers a private board with concurrent addFame calls while a reader keeps
+     * querying it, then checks the final ranking against a plain sort.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int updates = args.length > 2 ? Integer.parseInt(args[2]) : 500_000;
+
+        FameLeaderboard board = new FameLeaderboard();
+        Item weapon = ContentCatalog.get().createWeapon("lapis");
+        Hunter[] hunters = new Hunter[count];
+        for (int i = 0; i < count; i++) {
+            hunters[i] = new Hunter("Hunter" + i, weapon);
+            hunters[i].setQuiet(true);
+            board.register(hunters[i]);
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong reads = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            Random rand = new Random(7);
+            while (!done.get()) {
+                board.rankOf(hunters[rand.nextInt(count)]);
+                board.topK(10);
+                reads.incrementAndGet();
+            }
+        });
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            writers[t] = new Thread(() -> {
+                Random rand = new Random(seed);
+                for (int i = 0; i < updates; i++) {
+                    hunters[rand.nextInt(count)].addFame(1 + rand.nextInt(15));
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        reader.start();
+        for (Thread writer : writers) writer.start();
+        for (Thread writer : writers) writer.join();
+        long nanos = System.nanoTime() - start;
+        done.set(true);
+        reader.join();
+
+        board.refresh();
+        Hunter[] expected = hunters.clone();
+        Arrays.sort(expected, (a, b) -> a.getFame() != b.getFame()
+                ? Integer.compare(b.getFame(), a.getFame()) : Long.compare(a.getId(), b.getId()));
+        int mismatches = 0;
+        for (int i = 0; i < count; i++) {
+            if (board.rankOf(expected[i]) != i + 1) mismatches++;
+        }
+        System.out.printf("%d hunters | %d threads | %.0f updates/s | %d reads during updates%n",
+                count, threads, (double) threads * updates / (nanos / 1e9), reads.get());
+        System.out.println("Top 3: " + board.topK(3));
+        System.out.println("Rank mismatches after refresh: " + mismatches);
+        if (mismatches > 0) System.exit(1);
+    }
+}
@@ -0,0 +1,743 @@
+package com.bosakon.monsterhunter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Exact optimal policy and win probability for one Hunter vs one Monster fight,
+ * for balance sign-off without Monte Carlo noise.
+ *
+ * The fight is modelled as a Markov decision process over the state between turns:
+ * hunter HP and mana, monster HP, ability cooldowns, Flux turns, the hunter's status
+ * effect and its remaining duration, potion/repair kit counts and weapon durability.
+ * The hunter's damage and damage taken follow HunterStats under each status and Flux.
+ * Each state is packed into one long (see the layout below) and stored in a compact
+ * open-addressing transposition table. All states reachable from the start are
+ * enumerated with their exact transition probabilities (CombatEngine's rules, and the
+ * monster's own MonsterBehavior rules), then value iteration finds the maximal win
+ * probability and the action achieving it.
+ *
+ * The policy covers the combat menu: Attack, each active skill the hunter can afford
+ * (awakened hunters only) and each item the hunter carries. Fleeing is never a win,
+ * so it is never optimal here.
+ *
+ * Results are cached on disk in build/solver/, one file per (weapon, monster template,
+ * level) and hunter profile, so sign-off reruns are instant.
+ *
+ * Example:
+ *   FightSolver.Solution s = new FightSolver().solve(hunter, monster);
+ *   System.out.println("Win: " + s.getWinProbability());
+ *   System.out.println("Best opening: " + s.getBestAction(hunter, monster, 0));
+ *
+ * <b>How to run a sign-off table:</b>
+ *   java -cp hunter.jar com.bosakon.monsterhunter.FightSolver [weaponId] [monsterLevel] [boss]
+ */
+public class FightSolver {
+    private static final int MAGIC = 0x48465331; // "HFS1"
+    private static final int MAX_STATES = 8_000_000;
+    private static final double EPSILON = 1e-12;
+    private static final int MAX_SWEEPS = 1_000_000;
+
+    // Packed state layout: 64 bits, low to high
+    private static final int HP_SHIFT = 0, HP_BITS = 10;
+    private static final int MANA_SHIFT = 10, MANA_BITS = 8;
+    private static final int MHP_SHIFT = 18, MHP_BITS = 14;
+    private static final int CD_SHIFT = 32, CD_BITS = 2;        // three cooldowns
+    private static final int FLUX_SHIFT = 38, FLUX_BITS = 3;
+    private static final int SID_SHIFT = 41, SID_BITS = 3;      // status (by its effect on the numbers)
+    private static final int SDUR_SHIFT = 44, SDUR_BITS = 3;
+    private static final int HPOT_SHIFT = 47, HPOT_BITS = 4;
+    private static final int MPOT_SHIFT = 51, MPOT_BITS = 4;
+    private static final int KIT_SHIFT = 55, KIT_BITS = 2;
+    private static final int DUR_SHIFT = 57, DUR_BITS = 7;
+    private static final int MAX_ABILITIES = 3;
+
+    // Terminal outcomes use encodings no live state has (live states have HP > 0 on both sides)
+    private static final long LOSS = 0L;
+    private static final long WIN = 1L;
+    private static final int TO_WIN = -1;
+    private static final int TO_LOSS = -2;
+
+    // Action kinds
+    private static final int SKILL_OTHER = 0, SKILL_HEALING = 1, SKILL_FLUX = 2;
+    private static final int ITEM_HEALTH = 0, ITEM_MANA = 1, ITEM_KIT = 2;
+    private static final String[] ITEMS = {"Health Potion", "Mana Potion", "Weapon Repair Kit"};
+
+    private final File cacheDir;
+
+    /** Solver caching results in build/solver/. */
+    public FightSolver() {
+        this(new File("build", "solver"));
+    }
+
+    /** @param cacheDir Directory for cached solutions, or null for no disk cache */
+    public FightSolver(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /** Solves the fight from its current position, with no Flux active. */
+    public Solution solve(Hunter hunter, Monster monster) {
+        return solve(hunter, monster, 0);
+    }
+
+    /**
+     * Solves the fight from its current position.
+     *
+     * @throws IllegalArgumentException if a value doesn't fit the state encoding
+     *         (e.g. hunter max HP over 1023 or more than 15 potions)
+     * @throws IllegalStateException if the fight has more than 8 million reachable states
+     */
+    public Solution solve(Hunter hunter, Monster monster, int fluxTurns) {
+        Model model = new Model(hunter, monster);
+        long start = model.encode(hunter, monster, fluxTurns);
+        String key = model.cacheKey(start);
+
+        File file = cacheDir == null ? null : new File(cacheDir, key + ".fight");
+        if (file != null && file.isFile()) {
+            Solution cached = readCache(file, key, model, hunter, monster, fluxTurns);
+            if (cached != null) return cached;
+        }
+        Solution solution = new Builder(model).solve(start);
+        if (file != null) writeCache(file, key, solution);
+        return solution;
+    }
+
+    // ===================== Model =====================
+
+    /** Everything about the fight that never changes between turns. */
+    private static final class Model {
+        final int maxHP, maxMana, maxDurability;
+        final boolean tenacity, willToRecover;
+        final double critChance;
+        final boolean tetanusProc, sangaProc;
+        final int monsterDamage, monsterMaxHP;
+        final boolean boss;
+        final int[] behavior;             // the monster's compiled rules (MonsterBehavior)
+        final int abilityCount;
+        final int[] abilityStatus = new int[MAX_ABILITIES];   // status id inflicted
+        final int[] abilityDuration = new int[MAX_ABILITIES];
+        final int[] statusDamage;                             // per status id (0 = none): damage per turn
+        final int[] statusHit;                                // hit damage under the status
+        final double[] statusTaken, statusTakenFlux;          // HunterStats damage taken, without/with Flux
+        final int tetanusStatus;
+        final String[] actionLabels;
+        final int[] actionType, actionKind, actionCost;
+        final String weaponName, template; // cache file name parts
+        final String description;          // every constant above, to validate cache files
+
+        Model(Hunter hunter, Monster monster) {
+            Item weapon = hunter.getWeapon();
+            if (weapon == null) throw new IllegalArgumentException("Hunter has no weapon");
+            if (!monster.hasNoActiveEffects()) throw new IllegalArgumentException("Monster effects are not modelled");
+            if (monster.getAbilityCount() > MAX_ABILITIES) {
+                throw new IllegalArgumentException("At most " + MAX_ABILITIES + " monster abilities are supported");
+            }
+            maxHP = check("max HP", hunter.getMaxHP(), HP_BITS);
+            maxMana = check("max mana", hunter.getMaxMana(), MANA_BITS);
+            maxDurability = check("weapon durability", weapon.getMaxDurability(), DUR_BITS);
+            check("monster HP", monster.getMaxHP(), MHP_BITS);
+            tenacity = hunter.hasSkill("Tenacity");
+            willToRecover = hunter.hasSkill("Will to Recover");
+            int weaponDamage = weapon.getBaseDamage();
+            critChance = weapon.getCritChance();
+            weaponName = weapon.getName();
+            StringBuilder abilities = new StringBuilder(monster.isBoss() ? "boss" : "monster");
+            for (int i = 0; i < monster.getAbilityCount(); i++) abilities.append('-').append(monster.getAbilityName(i));
+            template = abilities + "-L" + monster.getLevel();
+            tetanusProc = weapon.getName().equals("Tirungan");
+            sangaProc = weapon.getName().equals("Sanga sa Kamunggay");
+            monsterDamage = monster.getDamage();
+            monsterMaxHP = monster.getMaxHP();
+            boss = monster.isBoss();
+            behavior = monster.getBehavior();
+
+            // Status effects only matter through their numbers (damage per turn, hit damage,
+            // damage taken) and duration, so the status id is an index into the distinct
+            // number sets; 0 = none (a status that changes nothing)
+            List<double[]> statuses = new ArrayList<>();
+            statuses.add(effectNumbers(weaponDamage, null));
+            abilityCount = monster.getAbilityCount();
+            for (int i = 0; i < abilityCount; i++) {
+                StatusEffect effect = monster.getAbilityEffect(i);
+                abilityStatus[i] = statusId(statuses, effectNumbers(weaponDamage, effect));
+                abilityDuration[i] = check("status duration", effect.getDuration(), SDUR_BITS);
+            }
+            tetanusStatus = statusId(statuses, effectNumbers(weaponDamage, Hunter.TETANUS));
+            if (hunter.getStatus() != null) statusId(statuses, effectNumbers(weaponDamage, hunter.getStatus()));
+            if (statuses.size() > 1 << SID_BITS) throw new IllegalArgumentException("Too many distinct status effects");
+            statusDamage = new int[statuses.size()];
+            statusHit = new int[statuses.size()];
+            statusTaken = new double[statuses.size()];
+            statusTakenFlux = new double[statuses.size()];
+            for (int i = 0; i < statuses.size(); i++) {
+                double[] numbers = statuses.get(i);
+                statusDamage[i] = (int) numbers[0];
+                statusHit[i] = (int) numbers[1];
+                statusTaken[i] = numbers[2];
+                statusTakenFlux[i] = numbers[3];
+            }
+
+            List<String> labels = new ArrayList<>();
+            List<int[]> specs = new ArrayList<>();  // {type, kind, cost}
+            labels.add("Attack");
+            specs.add(new int[] {CombatEngine.ATTACK, 0, 0});
+            if (hunter.isAwakened()) {
+                for (int i = 0; i < hunter.getSkillCount(); i++) {
+                    Skill skill = hunter.getSkillAt(i);
+                    if (!skill.isActive()) continue;
+                    int kind = skill.getName().equals("Healing") ? SKILL_HEALING
+                             : skill.getName().equals("Flux") ? SKILL_FLUX : SKILL_OTHER;
+                    labels.add(skill.getName());
+                    specs.add(new int[] {CombatEngine.SKILL, kind, skill.getManaCost()});
+                }
+            }
+            for (int i = 0; i < ITEMS.length; i++) {
+                labels.add(ITEMS[i]);
+                specs.add(new int[] {CombatEngine.ITEM, i, 0});
+            }
+            actionLabels = labels.toArray(new String[0]);
+            actionType = new int[specs.size()];
+            actionKind = new int[specs.size()];
+            actionCost = new int[specs.size()];
+            for (int a = 0; a < specs.size(); a++) {
+                actionType[a] = specs.get(a)[0];
+                actionKind[a] = specs.get(a)[1];
+                actionCost[a] = specs.get(a)[2];
+            }
+
+            StringBuilder sb = new StringBuilder();
+            sb.append(weapon.getName()).append(' ').append(weaponDamage).append(' ').append(critChance)
+              .append(' ').append(maxDurability).append(" | hp ").append(maxHP).append(" mana ").append(maxMana)
+              .append(tenacity ? " tenacity" : "").append(willToRecover ? " recover" : "")
+              .append(" | ").append(String.join(",", actionLabels)).append(" ").append(Arrays.toString(actionCost))
+              .append(" | monster ").append(monster.getMaxHP()).append(' ').append(monsterDamage)
+              .append(" | ai ").append(MonsterBehavior.get().getDescription());
+            for (int i = 0; i < abilityCount; i++) {
+                int sid = abilityStatus[i];
+                sb.append(' ').append(monster.getAbilityName(i)).append('/').append(abilityDuration[i])
+                  .append('/').append(statusDamage[sid]).append('/').append(statusHit[sid])
+                  .append('/').append(statusTaken[sid]).append('/').append(statusTakenFlux[sid]);
+            }
+            description = sb.toString();
+        }
+
+        /** {damage per turn, hit damage, damage taken, damage taken with Flux} under an effect (null = none). */
+        private static double[] effectNumbers(int weaponDamage, StatusEffect effect) {
+            double damageModifier = effect == null ? 1.0 : effect.getDamageModifier();
+            double defenseModifier = effect == null ? 0 : effect.getDefenseModifier();
+            return new double[] {
+                effect == null ? 0 : Math.max(0, effect.getDamagePerTurn()),
+                HunterStats.hitDamage(weaponDamage, damageModifier),
+                HunterStats.damageTaken(false, defenseModifier),
+                HunterStats.damageTaken(true, defenseModifier)
+            };
+        }
+
+        private static int statusId(List<double[]> statuses, double[] numbers) {
+            for (int id = 0; id < statuses.size(); id++) {
+                if (Arrays.equals(statuses.get(id), numbers)) return id;
+            }
+            statuses.add(numbers);
+            return statuses.size() - 1;
+        }
+
+        /** Packs the live fight position. */
+        long encode(Hunter hunter, Monster monster, int fluxTurns) {
+            int sid = 0, sdur = 0;
+            StatusEffect status = hunter.getStatus();
+            if (status != null && status.getDuration() > 0) {
+                sid = statusIdOf(status);
+                sdur = sid == 0 ? 0 : check("status duration", status.getDuration(), SDUR_BITS);
+            }
+            int[] cd = new int[MAX_ABILITIES];
+            for (int i = 0; i < abilityCount; i++) cd[i] = check("cooldown", monster.getCooldown(i), CD_BITS);
+            return pack(hunter.getHP(), hunter.getMana(), monster.getHP(), cd[0], cd[1], cd[2],
+                    check("Flux turns", fluxTurns, FLUX_BITS), sid, sdur,
+                    check("Health Potions", hunter.getItemCount(ITEMS[ITEM_HEALTH]), HPOT_BITS),
+                    check("Mana Potions", hunter.getItemCount(ITEMS[ITEM_MANA]), MPOT_BITS),
+                    check("Weapon Repair Kits", hunter.getItemCount(ITEMS[ITEM_KIT]), KIT_BITS),
+                    hunter.getWeapon().getDurability());
+        }
+
+        private int statusIdOf(StatusEffect status) {
+            double[] numbers = effectNumbers(statusHit[0], status);
+            for (int id = 1; id < statusDamage.length; id++) {
+                if (statusDamage[id] == numbers[0] && statusHit[id] == numbers[1]
+                        && statusTaken[id] == numbers[2] && statusTakenFlux[id] == numbers[3]) return id;
+            }
+            return 0;
+        }
+
+        /** Cache file name: weapon, monster template and level, plus a hash of the rest and the start. */
+        String cacheKey(long start) {
+            long hash = description.hashCode() * 0x9E3779B97F4A7C15L + start;
+            hash ^= hash >>> 31;
+            return sanitize(weaponName) + "_" + sanitize(template) + "_" + Long.toHexString(hash);
+        }
+
+        private static String sanitize(String s) {
+            return s.replaceAll("[^A-Za-z0-9]+", "-");
+        }
+
+        private static int check(String what, int value, int bits) {
+            if (value < 0 || value >= 1 << bits) {
+                throw new IllegalArgumentException(what + " " + value + " is outside the solver's range (0-"
+                        + ((1 << bits) - 1) + ")");
+            }
+            return value;
+        }
+    }
+
+    private static long pack(int hp, int mana, int mhp, int cd0, int cd1, int cd2, int flux,
+                             int sid, int sdur, int hpot, int mpot, int kits, int dur) {
+        return (long) hp << HP_SHIFT | (long) mana << MANA_SHIFT | (long) mhp << MHP_SHIFT
+             | (long) cd0 << CD_SHIFT | (long) cd1 << (CD_SHIFT + CD_BITS) | (long) cd2 << (CD_SHIFT + 2 * CD_BITS)
+             | (long) flux << FLUX_SHIFT | (long) sid << SID_SHIFT | (long) sdur << SDUR_SHIFT
+             | (long) hpot << HPOT_SHIFT | (long) mpot << MPOT_SHIFT | (long) kits << KIT_SHIFT
+             | (long) dur << DUR_SHIFT;
+    }
+
+    private static int field(long state, int shift, int bits) {
+        return (int) (state >>> shift) & ((1 << bits) - 1);
+    }
+
+    // ===================== Transitions =====================
+
+    /**
+     * Enumerates the state space and solves it. Transitions are stored CSR-style:
+     * state -> its legal actions -> their outcomes (successor index and probability).
+     */
+    private static final class Builder {
+        private final Model m;
+        private final StateTable table = new StateTable();
+
+        private int[] firstAction = new int[1024];
+        private byte[] actions = new byte[4096];
+        private int[] firstOutcome = new int[4096];
+        private int[] target = new int[16384];
+        private double[] prob = new double[16384];
+        private int actionCount, outcomeCount;
+
+        // Scratch for one expansion
+        private final long[] outState = new long[16];
+        private final double[] outProb = new double[16];
+        private int outCount;
+
+        Builder(Model m) {
+            this.m = m;
+        }
+
+        Solution solve(long start) {
+            long began = System.nanoTime();
+            table.add(start);
+            for (int s = 0; s < table.size(); s++) {
+                if (s + 1 >= firstAction.length) firstAction = Arrays.copyOf(firstAction, firstAction.length * 2);
+                firstAction[s] = actionCount;
+                long state = table.key(s);
+                for (int a = 0; a < m.actionLabels.length; a++) {
+                    if (!legal(state, a)) continue;
+                    expand(state, a);
+                    addAction(a);
+                    for (int o = 0; o < outCount; o++) {
+                        int t = outState[o] == WIN ? TO_WIN : outState[o] == LOSS ? TO_LOSS : table.add(outState[o]);
+                        addOutcome(t, outProb[o]);
+                    }
+                }
+                if (table.size() > MAX_STATES) {
+                    throw new IllegalStateException("Fight too large to solve exactly: more than "
+                            + MAX_STATES + " states");
+                }
+            }
+            int n = table.size();
+            firstAction[n] = actionCount;
+            firstOutcome[actionCount] = outcomeCount;
+
+            // Value iteration (Gauss-Seidel, successors first). Starting from 0 converges
+            // from below to the maximal win probability, cycles (healing, waiting) included.
+            double[] value = new double[n];
+            byte[] policy = new byte[n];
+            int sweeps = 0;
+            double delta;
+            do {
+                delta = 0;
+                for (int s = n - 1; s >= 0; s--) {
+                    double best = 0;
+                    byte bestAction = 0;
+                    for (int a = firstAction[s]; a < firstAction[s + 1]; a++) {
+                        double q = 0;
+                        for (int o = firstOutcome[a]; o < firstOutcome[a + 1]; o++) {
+                            int t = target[o];
+                            q += prob[o] * (t == TO_WIN ? 1.0 : t == TO_LOSS ? 0.0 : value[t]);
+                        }
+                        if (q > best + EPSILON || a == firstAction[s]) {
+                            best = q;
+                            bestAction = actions[a];
+                        }
+                    }
+                    delta = Math.max(delta, Math.abs(best - value[s]));
+                    value[s] = best;
+                    policy[s] = bestAction;
+                }
+            } while (delta > EPSILON && ++sweeps < MAX_SWEEPS);
+
+            long[] keys = new long[n];
+            for (int s = 0; s < n; s++) keys[s] = table.key(s);
+            return new Solution(m, table, keys, value, policy, System.nanoTime() - began);
+        }
+
+        private boolean legal(long state, int a) {
+            switch (m.actionType[a]) {
+                case CombatEngine.SKILL:
+                    return field(state, MANA_SHIFT, MANA_BITS) >= m.actionCost[a];
+                case CombatEngine.ITEM:
+                    switch (m.actionKind[a]) {
+                        case ITEM_HEALTH: return field(state, HPOT_SHIFT, HPOT_BITS) > 0;
+                        case ITEM_MANA: return field(state, MPOT_SHIFT, MPOT_BITS) > 0;
+                        default: return field(state, KIT_SHIFT, KIT_BITS) > 0;
+                    }
+                default:
+                    return true;
+            }
+        }
+
+        /** Hunter.takeDamage(): Tenacity halves damage below 30% HP. */
+        private int damageHunter(int hp, int damage) {
+            if (damage < 0) damage = 0;
+            if (hp < m.maxHP * Hunter.TENACITY_THRESHOLD && m.tenacity) damage *= 0.5;
+            return Math.max(0, hp - damage);
+        }
+
+        /** Fills outState/outProb with the outcomes of one full turn (CombatEngine order). */
+        private void expand(long state, int a) {
+            outCount = 0;
+            int hp = field(state, HP_SHIFT, HP_BITS);
+            int mana = field(state, MANA_SHIFT, MANA_BITS);
+            int mhp = field(state, MHP_SHIFT, MHP_BITS);
+            int cd0 = field(state, CD_SHIFT, CD_BITS);
+            int cd1 = field(state, CD_SHIFT + CD_BITS, CD_BITS);
+            int cd2 = field(state, CD_SHIFT + 2 * CD_BITS, CD_BITS);
+            int flux = field(state, FLUX_SHIFT, FLUX_BITS);
+            int sid = field(state, SID_SHIFT, SID_BITS);
+            int sdur = field(state, SDUR_SHIFT, SDUR_BITS);
+            int hpot = field(state, HPOT_SHIFT, HPOT_BITS);
+            int mpot = field(state, MPOT_SHIFT, MPOT_BITS);
+            int kits = field(state, KIT_SHIFT, KIT_BITS);
+            int dur = field(state, DUR_SHIFT, DUR_BITS);
+
+            // startTurn(): Will to Recover, then the status effect ticks
+            if (m.willToRecover) hp = Math.min(m.maxHP, hp + Hunter.WILL_TO_RECOVER_HEAL);
+            if (sid != 0) {
+                hp = damageHunter(hp, m.statusDamage[sid]);
+                if (--sdur == 0) sid = 0;
+            }
+            if (hp == 0) {
+                emit(LOSS, 1.0);
+                return;
+            }
+
+            // The hunter's action; an attack branches on the weapon proc and the crit
+            switch (m.actionType[a]) {
+                case CombatEngine.ATTACK:
+                    if (dur == 0) break; // weapon broken: attack fails
+                    dur--;
+                    double procChance = m.tetanusProc ? Hunter.TETANUS_CHANCE : m.sangaProc ? Hunter.SANGA_HEAL_CHANCE : 0;
+                    for (int proc = 0; proc < 2; proc++) {
+                        double pProc = proc == 1 ? procChance : 1 - procChance;
+                        if (pProc <= 0) continue;
+                        int hpP = hp, sidP = sid, sdurP = sdur;
+                        if (proc == 1 && m.tetanusProc) {
+                            sidP = m.tetanusStatus;
+                            sdurP = sidP == 0 ? 0 : Hunter.TETANUS.getDuration();
+                        } else if (proc == 1) {
+                            hpP = Math.min(m.maxHP, hp + Hunter.SANGA_HEAL);
+                        }
+                        for (int crit = 0; crit < 2; crit++) {
+                            double pCrit = crit == 1 ? m.critChance : 1 - m.critChance;
+                            if (pCrit <= 0) continue;
+                            // Hit damage under the status before the proc (HunterStats)
+                            int damage = crit == 1 ? m.statusHit[sid] * 2 : m.statusHit[sid];
+                            int mhpC = Math.max(0, mhp - damage);
+                            int fluxC = flux;
+                            if (fluxC > 0) {
+                                mhpC = Math.max(0, mhpC - (int) (damage * CombatEngine.FLUX_DAMAGE_BONUS));
+                                fluxC--;
+                            }
+                            monsterTurn(pProc * pCrit, hpP, mana, mhpC, cd0, cd1, cd2, fluxC, sidP, sdurP, hpot, mpot, kits, dur);
+                        }
+                    }
+                    return;
+                case CombatEngine.SKILL:
+                    if (m.actionKind[a] == SKILL_HEALING) hp = Math.min(m.maxHP, hp + CombatEngine.HEALING_AMOUNT);
+                    else if (m.actionKind[a] == SKILL_FLUX) flux = CombatEngine.FLUX_TURNS;
+                    mana -= m.actionCost[a];
+                    break;
+                case CombatEngine.ITEM:
+                    if (m.actionKind[a] == ITEM_HEALTH) {
+                        hpot--;
+                        hp = Math.min(m.maxHP, hp + Hunter.HEALTH_POTION_HEAL);
+                    } else if (m.actionKind[a] == ITEM_MANA) {
+                        mpot--;
+                        mana = Math.min(m.maxMana, mana + Hunter.MANA_POTION_RESTORE);
+                    } else {
+                        kits--;
+                        dur = m.maxDurability;
+                    }
+                    break;
+            }
+            monsterTurn(1.0, hp, mana, mhp, cd0, cd1, cd2, flux, sid, sdur, hpot, mpot, kits, dur);
+        }
+
+        /**
+         * monsterTurn() and endTurn(); the monster's behavior picks the move from the same
+         * situation and ready abilities, and a used ability branches on its new cooldown (2 or 3).
+         */
+        private void monsterTurn(double p, int hp, int mana, int mhp, int cd0, int cd1, int cd2, int flux,
+                                 int sid, int sdur, int hpot, int mpot, int kits, int dur) {
+            if (mhp == 0) {
+                emit(WIN, p);
+                return;
+            }
+            int readyMask = (m.abilityCount > 0 && cd0 == 0 ? 1 : 0) | (m.abilityCount > 1 && cd1 == 0 ? 2 : 0)
+                          | (m.abilityCount > 2 && cd2 == 0 ? 4 : 0);
+            int ready = readyMask == 0 ? MonsterBehavior.ATTACK : MonsterBehavior.get().choose(
+                    MonsterBehavior.situation(mhp, m.monsterMaxHP, m.boss, hp, m.maxHP, m.statusDamage[sid] > 0),
+                    readyMask, m.behavior, m.boss);
+            if (ready < 0) {
+                int damage = m.monsterDamage;
+                damage = HunterStats.scale(damage, flux > 0 ? m.statusTakenFlux[sid] : m.statusTaken[sid]);
+                hp = damageHunter(hp, damage);
+                if (hp == 0) {
+                    emit(LOSS, p);
+                    return;
+                }
+                emit(endTurn(hp, mana, mhp, cd0, cd1, cd2, flux, sid, sdur, hpot, mpot, kits, dur), p);
+                return;
+            }
+            // The hunter's status is replaced by the ability's effect
+            int sidA = m.abilityStatus[ready];
+            int sdurA = sidA == 0 ? 0 : m.abilityDuration[ready];
+            if (sdurA == 0) sidA = 0;
+            for (int cooldown = 2; cooldown <= 3; cooldown++) {
+                emit(endTurn(hp, mana, mhp, ready == 0 ? cooldown : cd0, ready == 1 ? cooldown : cd1,
+                        ready == 2 ? cooldown : cd2, flux, sidA, sdurA, hpot, mpot, kits, dur), p * 0.5);
+            }
+        }
+
+        /** endTurn(): cooldowns tick down. */
+        private long endTurn(int hp, int mana, int mhp, int cd0, int cd1, int cd2, int flux,
+                             int sid, int sdur, int hpot, int mpot, int kits, int dur) {
+            return pack(hp, mana, mhp, Math.max(0, cd0 - 1), Math.max(0, cd1 - 1), Math.max(0, cd2 - 1),
+                    flux, sid, sdur, hpot, mpot, kits, dur);
+        }
+
+        /** Adds an outcome, merging it with an equal one. */
+        private void emit(long state, double p) {
+            for (int o = 0; o < outCount; o++) {
+                if (outState[o] == state) {
+                    outProb[o] += p;
+                    return;
+                }
+            }
+            outState[outCount] = state;
+            outProb[outCount++] = p;
+        }
+
+        private void addAction(int a) {
+            if (actionCount + 1 >= actions.length) {
+                actions = Arrays.copyOf(actions, actions.length * 2);
+                firstOutcome = Arrays.copyOf(firstOutcome, actions.length);
+            }
+            actions[actionCount] = (byte) a;
+            firstOutcome[actionCount++] = outcomeCount;
+        }
+
+        private void addOutcome(int t, double p) {
+            if (outcomeCount == target.length) {
+                target = Arrays.copyOf(target, target.length * 2);
+                prob = Arrays.copyOf(prob, prob.length * 2);
+            }
+            target[outcomeCount] = t;
+            prob[outcomeCount++] = p;
+        }
+    }
+
+    // ===================== Transposition table =====================
+
+    /**
+     * Open-addressing map from packed state to dense index (insertion order).
+     * Costs 4 bytes per slot plus 8 per state; the load factor stays at or below 1/2.
+     */
+    private static final class StateTable {
+        private long[] keys = new long[1024];
+        private int[] slots = newSlots(2048);
+        private int size;
+
+        private static int[] newSlots(int n) {
+            int[] slots = new int[n];
+            Arrays.fill(slots, -1);
+            return slots;
+        }
+
+        int size() { return size; }
+        long key(int index) { return keys[index]; }
+
+        /** Returns the index of the state, or -1 if it isn't in the table. */
+        int find(long key) {
+            int mask = slots.length - 1;
+            for (int pos = hash(key) & mask; ; pos = (pos + 1) & mask) {
+                int index = slots[pos];
+                if (index < 0 || keys[index] == key) return index;
+            }
+        }
+
+        /** Returns the index of the state, adding it if it's new. */
+        int add(long key) {
+            int mask = slots.length - 1;
+            int pos = hash(key) & mask;
+            for (; ; pos = (pos + 1) & mask) {
+                int index = slots[pos];
+                if (index < 0) break;
+                if (keys[index] == key) return index;
+            }
+            if (size == keys.length) keys = Arrays.copyOf(keys, size * 2);
+            keys[size] = key;
+            slots[pos] = size;
+            if (++size * 2 > slots.length) rehash();
+            return size - 1;
+        }
+
+        private void rehash() {
+            slots = newSlots(slots.length * 2);
+            int mask = slots.length - 1;
+            for (int i = 0; i < size; i++) {
+                int pos = hash(keys[i]) & mask;
+                while (slots[pos] >= 0) pos = (pos + 1) & mask;
+                slots[pos] = i;
+            }
+        }
+
+        private static int hash(long key) {
+            key *= 0x9E3779B97F4A7C15L;
+            return (int) (key ^ (key >>> 32));
+        }
+    }
+
+    // ===================== Solution =====================
+
+    /** Optimal values and actions for every state reachable in one fight. */
+    public static final class Solution {
+        private final Model model;
+        private final StateTable table;
+        private final long[] keys;
+        private final double[] value;
+        private final byte[] policy;
+        private final long solveNanos;
+
+        private Solution(Model model, StateTable table, long[] keys, double[] value, byte[] policy, long solveNanos) {
+            this.model = model;
+            this.table = table;
+            this.keys = keys;
+            this.value = value;
+            this.policy = policy;
+            this.solveNanos = solveNanos;
+        }
+
+        /** Win probability with optimal play from the solved starting position. */
+        public double getWinProbability() {
+            return value[0];
+        }
+
+        /** Win probability from a later position of the same fight, or -1 if it wasn't reachable. */
+        public double getWinProbability(Hunter hunter, Monster monster, int fluxTurns) {
+            int s = table.find(model.encode(hunter, monster, fluxTurns));
+            return s < 0 ? -1 : value[s];
+        }
+
+        /** Optimal menu choice ("Attack", a skill or item name), or null if the position wasn't reachable. */
+        public String getBestAction(Hunter hunter, Monster monster, int fluxTurns) {
+            int s = table.find(model.encode(hunter, monster, fluxTurns));
+            return s < 0 ? null : model.actionLabels[policy[s]];
+        }
+
+        public int getStateCount() { return keys.length; }
+        /** Time spent enumerating and solving (0 when loaded from the disk cache). */
+        public long getSolveNanos() { return solveNanos; }
+    }
+
+    // ===================== Disk cache =====================
+
+    private static Solution readCache(File file, String key, Model model, Hunter hunter, Monster monster, int fluxTurns) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || !in.readUTF().equals(key) || !in.readUTF().equals(model.description)) {
+                return null;
+            }
+            long start = in.readLong();
+            if (start != model.encode(hunter, monster, fluxTurns)) return null;
+            int n = in.readInt();
+            long[] keys = new long[n];
+            double[] value = new double[n];
+            byte[] policy = new byte[n];
+            StateTable table = new StateTable();
+            for (int i = 0; i < n; i++) {
+                keys[i] = in.readLong();
+                table.add(keys[i]);
+            }
+            for (int i = 0; i < n; i++) value[i] = in.readDouble();
+            in.readFully(policy);
+            return new Solution(model, table, keys, value, policy, 0);
+        } catch (IOException e) {
+            return null; // unreadable cache: solve again
+        }
+    }
+
+    private static void writeCache(File file, String key, Solution solution) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            file.getParentFile().mkdirs();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeUTF(key);
+                out.writeUTF(solution.model.description);
+                out.writeLong(solution.keys[0]);
+                out.writeInt(solution.keys.length);
+                for (long k : solution.keys) out.writeLong(k);
+                for (double v : solution.value) out.writeDouble(v);
+                out.write(solution.policy);
+            }
+            if (!tmp.renameTo(file)) tmp.delete();
+        } catch (IOException e) {
+            System.out.println("> ERROR: Failed to cache fight solution - " + e.getMessage());
+            tmp.delete();
+        }
+    }
+
+    /** Prints exact win probabilities of a fresh hunter with one weapon against monsters of a level. */
+    public static void main(String[] args) {
+        String weaponId = args.length > 0 ? args[0] : "lapis";
+        int level = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        boolean boss = args.length > 2 && Boolean.parseBoolean(args[2]);
+
+        FightSolver solver = new FightSolver();
+        for (long seed = 1; seed <= 5; seed++) {
+            Hunter hunter = new Hunter("Solver", ContentCatalog.get().createWeapon(weaponId));
+            hunter.setQuiet(true);
+            hunter.addItem("Health Potion");
+            Monster monster = new Monster(level, boss, new Random(seed));
+            Solution s = solver.solve(hunter, monster);
+            System.out.printf("%-28s | win %.6f | open with %-13s | %,d states | %.1f ms%n",
+                    monster.toString().substring(0, monster.toString().indexOf(" | Abilities")),
+                    s.getWinProbability(), s.getBestAction(hunter, monster, 0), s.getStateCount(),
+                    s.getSolveNanos() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.bosakon.monsterhunter;
+
+import java.util.Random;
+
+/**
+ * Measures forking a game state (hunter + dungeon with its current floor) and checks
+ * that branches never leak into each other.
+ *
+ * Hunter.fork(), Monster.fork() and Dungeon.fork() copy a fixed number of fields and
+ * share every collection copy-on-write, so a fork costs the same however big the
+ * inventory, skill list or quest log is; a branch pays for a component only when it
+ * first changes it. For comparison the benchmark also times Hunter.copy(), which copies
+ * the inventory up front, with an inventory of the given size.
+ *
+ * Usage:
+ *   java -cp hunter.jar com.bosakon.monsterhunter.ForkBenchmark [forks] [inventory items]
+ */
+public class ForkBenchmark {
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int forks = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        Hunter hunter = new Hunter("Bench", ContentCatalog.get().createWeapon("lapis"));
+        hunter.setQuiet(true);
+        hunter.setRandom(new Random(42));
+        hunter.addItem("Health Potion", 5);
+        hunter.addItem("Weapon Repair Kit", 2);
+        for (int i = 0; i < items; i++) hunter.addItem("Trophy " + i);
+        hunter.addQuest(new Quest("Bench", "Clear an S-Rank dungeon", 100, 100, null));
+        Dungeon dungeon = new Dungeon("S", 42L);
+        dungeon.getFloor();
+
+        if (!checkIsolation(hunter, dungeon)) {
+            System.out.println("> ERROR: a branch changed the state it was forked from");
+            System.exit(1);
+        }
+        System.out.println("Branches are isolated: a fought-out branch left the original untouched");
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long sink = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < forks; i++) sink += hunter.copy().getGold();
+            double copyNanos = (System.nanoTime() - start) / (double) forks;
+
+            start = System.nanoTime();
+            for (int i = 0; i < forks; i++) sink += hunter.fork().getGold();
+            double forkNanos = (System.nanoTime() - start) / (double) forks;
+
+            start = System.nanoTime();
+            for (int i = 0; i < forks; i++) sink += dungeon.fork().getCurrentFloor();
+            double dungeonNanos = (System.nanoTime() - start) / (double) forks;
+
+            // Fork the whole state and play one turn on the branch: only touched parts are copied
+            CombatEngine engine = new CombatEngine(null);
+            start = System.nanoTime();
+            for (int i = 0; i < forks; i++) {
+                Hunter branch = hunter.fork();
+                Monster monster = dungeon.fork().getFloor().getMonsters()[0];
+                engine.begin(branch, monster);
+                engine.startTurn();
+                engine.attack();
+                engine.monsterTurn();
+                engine.endTurn();
+                sink += monster.getHP();
+            }
+            double turnNanos = (System.nanoTime() - start) / (double) forks;
+
+            System.out.printf("Round %d | hunter copy %.0f ns | hunter fork %.0f ns | dungeon fork %.0f ns "
+                    + "| fork + one turn %.0f ns (%.0fk/s)%s%n", round, copyNanos, forkNanos, dungeonNanos,
+                    turnNanos, 1e6 / turnNanos, sink == 42 ? " " : "");
+        }
+    }
+
+    /** Fights every monster of the current floor on a branch, with potions; the original must not change. */
+    private static boolean checkIsolation(Hunter hunter, Dungeon dungeon) {
+        String before = describe(hunter, dungeon);
+        Hunter branch = hunter.fork();
+        Dungeon world = dungeon.fork();
+        CombatEngine engine = new CombatEngine(null);
+        for (Monster monster : world.getFloor().getMonsters()) {
+            engine.begin(branch, monster);
+            while (!engine.isOver()) {
+                engine.startTurn();
+                if (branch.getHP() < 40) engine.useItem("Health Potion");
+                else if (branch.getWeapon().getDurability() == 0) engine.useItem("Weapon Repair Kit");
+                else engine.attack();
+                engine.monsterTurn();
+                engine.endTurn();
+            }
+        }
+        branch.addItem("Trophy 0", 3);
+        branch.addGold(500);
+        branch.getLootCounters()[0]++;
+        return before.equals(describe(hunter, dungeon)) && !before.equals(describe(branch, world));
+    }
+
+    private static String describe(Hunter hunter, Dungeon dungeon) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(hunter.getHP()).append('/').append(hunter.getGold()).append('/')
+          .append(hunter.getItemCount("Health Potion")).append('/').append(hunter.getItemCount("Weapon Repair Kit"))
+          .append('/').append(hunter.getItemCount("Trophy 0")).append('/').append(hunter.getWeapon().getDurability())
+          .append('/').append(hunter.getLootCounters()[0]);
+        for (Monster monster : dungeon.getFloor().getMonsters()) {
+            sb.append('/').append(monster.getHP());
+            for (int i = 0; i < monster.getAbilityCount(); i++) sb.append(':').append(monster.getCooldown(i));
+        }
+        return sb.toString();
+    }
+}
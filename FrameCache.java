@@ -0,0 +1,63 @@
+package com.bosakon.monsterhunter;
+
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches pre-rendered ASCII/ANSI frames as encoded bytes, keyed by whatever the
+ * frame depends on (health band, rank, ...).
+ *
+ * A frame is rasterized once per key by the given function and then written with a
+ * single write call, instead of one System.out.print per glyph. Frames are shared by
+ * all sessions, so only use keys that fully determine the picture; print per-player
+ * text (names, exact HP numbers) separately.
+ *
+ * Example:
+ *   static final FrameCache<Integer> BANNERS = new FrameCache<>(rank -> buildBanner(rank));
+ *   BANNERS.write(rankIndex, System.out);
+ */
+public final class FrameCache<K> {
+    private final ConcurrentHashMap<K, byte[]> frames = new ConcurrentHashMap<>();
+    private final Function<? super K, String> rasterizer;
+    private final Charset charset;
+
+    /**
+     * @param rasterizer Builds the full text of a frame (including line breaks and ANSI codes)
+     */
+    public FrameCache(Function<? super K, String> rasterizer) {
+        this(rasterizer, Charset.defaultCharset());
+    }
+
+    /**
+     * @param rasterizer Builds the full text of a frame
+     * @param charset    Encoding of the terminal the frames are written to
+     */
+    public FrameCache(Function<? super K, String> rasterizer, Charset charset) {
+        this.rasterizer = rasterizer;
+        this.charset = charset;
+    }
+
+    /** Returns the encoded frame for a key, rasterizing it on first use. Do not modify the array. */
+    public byte[] get(K key) {
+        return frames.computeIfAbsent(key, k -> rasterizer.apply(k).getBytes(charset));
+    }
+
+    /** Writes the frame for a key with a single write call. */
+    public void write(K key, PrintStream out) {
+        byte[] frame = get(key);
+        out.write(frame, 0, frame.length);
+        out.flush();
+    }
+
+    /** Drops all cached frames (e.g. after the art or palette changes). */
+    public void clear() {
+        frames.clear();
+    }
+
+    /** Number of frames currently cached. */
+    public int size() {
+        return frames.size();
+    }
+}
@@ -0,0 +1,149 @@
+package com.bosakon.monsterhunter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event types for game-level activity, so combat, dungeon and
+ * persistence work can be lined up with GC and allocation data in one recording.
+ *
+ * Every event carries the hunter's rank and, when the hunter is inside a dungeon,
+ * the dungeon rank and floor (empty / 0 otherwise). Durations come from JFR itself:
+ * call begin() when the operation starts and commit() when it ends.
+ *
+ * <b>How to record:</b>
+ *   java -XX:StartFlightRecording=filename=hunter.jfr,settings=profile ... HunterGame
+ *   jfr print --categories "Hunter Game" hunter.jfr
+ *
+ * Example:
+ *   GameEvents.Persistence event = new GameEvents.Persistence();
+ *   event.begin();
+ *   ... save ...
+ *   event.operation = "save";
+ *   GameEvents.commit(event, player);
+ */
+public final class GameEvents {
+    private GameEvents() {
+    }
+
+    /** Fills the shared context fields from the hunter and commits the event (if enabled). */
+    public static void commit(HunterEvent event, Hunter hunter) {
+        if (!event.shouldCommit()) return;
+        if (hunter != null) {
+            event.hunterRank = hunter.getRank();
+            Dungeon dungeon = hunter.getCurrentDungeon();
+            if (dungeon != null) {
+                event.dungeonRank = dungeon.getRank();
+                event.floor = dungeon.getCurrentFloor();
+            }
+        }
+        event.commit();
+    }
+
+    /** Fields shared by all game events. */
+    @Category("Hunter Game")
+    @StackTrace(false)
+    public abstract static class HunterEvent extends Event {
+        @Label("Hunter Rank")
+        public String hunterRank;
+
+        @Label("Dungeon Rank")
+        @Description("Rank of the dungeon the hunter is in, empty outside dungeons")
+        public String dungeonRank;
+
+        @Label("Floor")
+        public int floor;
+    }
+
+    @Name("com.bosakon.monsterhunter.CombatTurn")
+    @Label("Combat Turn")
+    @Category({"Hunter Game", "Combat"})
+    public static class CombatTurn extends HunterEvent {
+        @Label("Action")
+        public String action;
+
+        @Label("Monster")
+        public String monster;
+
+        @Label("Damage Dealt")
+        public int damageDealt;
+
+        @Label("Damage Taken")
+        public int damageTaken;
+    }
+
+    @Name("com.bosakon.monsterhunter.MonsterAbility")
+    @Label("Monster Ability")
+    @Category({"Hunter Game", "Combat"})
+    public static class MonsterAbility extends HunterEvent {
+        @Label("Monster")
+        public String monster;
+
+        @Label("Ability")
+        @Description("Ability used, or empty for a basic attack")
+        public String ability;
+
+        @Label("Boss")
+        public boolean boss;
+    }
+
+    @Name("com.bosakon.monsterhunter.FloorTransition")
+    @Label("Floor Transition")
+    @Description("Time from clearing a floor until the next floor's layout is ready")
+    @Category({"Hunter Game", "Dungeon"})
+    public static class FloorTransition extends HunterEvent {
+        @Label("From Floor")
+        public int fromFloor;
+
+        @Label("Dungeon Cleared")
+        public boolean cleared;
+    }
+
+    @Name("com.bosakon.monsterhunter.QuestComplete")
+    @Label("Quest Complete")
+    @Category({"Hunter Game", "Quest"})
+    public static class QuestComplete extends HunterEvent {
+        @Label("Quest")
+        public String title;
+
+        @Label("Reward XP")
+        public int rewardXP;
+
+        @Label("Reward Gold")
+        public int rewardGold;
+    }
+
+    @Name("com.bosakon.monsterhunter.Persistence")
+    @Label("Save/Load")
+    @Category({"Hunter Game", "Persistence"})
+    public static class Persistence extends HunterEvent {
+        @Label("Operation")
+        @Description("\"save\" or \"load\"")
+        public String operation;
+
+        @Label("Success")
+        public boolean success;
+    }
+
+    @Name("com.bosakon.monsterhunter.MerchantPurchase")
+    @Label("Merchant Purchase")
+    @Category({"Hunter Game", "Economy"})
+    public static class MerchantPurchase extends HunterEvent {
+        @Label("Merchant")
+        public String merchant;
+
+        @Label("Item")
+        public String item;
+
+        @Label("Price")
+        public int price;
+
+        @Label("Success")
+        @Description("False if the hunter lacked gold or the item was out of stock")
+        public boolean success;
+    }
+}
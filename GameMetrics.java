@@ -0,0 +1,252 @@
+package com.bosakon.monsterhunter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide counters and histograms for the game loop hot paths.
+ *
+ * Counters are LongAdders (striped per thread, so concurrent sessions don't contend)
+ * and distributions use LatencyHistogram. Recording costs tens of nanoseconds (run
+ * main() to measure it on this machine, alone and with every core recording); reading
+ * (JMX, dump) merges the stripes and is the only expensive part.
+ *
+ * <b>Where to read them:</b>
+ *   - JMX: MBean "com.bosakon.monsterhunter:type=GameMetrics" (jconsole, VisualVM).
+ *   - File: GameMetrics.get().dump("metrics.txt"), or run with
+ *     -Dhunter.metrics.dump=metrics.txt to write a report when the JVM exits.
+ *
+ * <b>How to add a metric:</b>
+ *   Add a LongAdder/LatencyHistogram field and a record method here, expose it in
+ *   GameMetricsMXBean, and call the record method from the game code.
+ */
+public final class GameMetrics implements GameMetricsMXBean {
+    private static final String[] RANKS = {"E", "D", "C", "B", "A", "S"};
+    private static final GameMetrics INSTANCE = new GameMetrics();
+
+    private final long startNanos = System.nanoTime();
+
+    // Combat
+    private final LongAdder combats = new LongAdder();
+    private final LongAdder combatTurns = new LongAdder();
+    private final LatencyHistogram turnsPerCombat = new LatencyHistogram();
+    private final LongAdder damageDealt = new LongAdder();
+    private final LongAdder damageTaken = new LongAdder();
+    private final ConcurrentHashMap<String, WeaponCounters> weapons = new ConcurrentHashMap<>();
+
+    // Dungeons
+    private final LongAdder monsterSpawns = new LongAdder();
+    private final LongAdder[] dungeonClears = new LongAdder[RANKS.length];
+
+    // Persistence and input (nanoseconds)
+    private final LatencyHistogram saveNanos = new LatencyHistogram();
+    private final LatencyHistogram loadNanos = new LatencyHistogram();
+    private final LatencyHistogram promptNanos = new LatencyHistogram();
+
+    private GameMetrics() {
+        for (int i = 0; i < dungeonClears.length; i++) dungeonClears[i] = new LongAdder();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName("com.bosakon.monsterhunter:type=GameMetrics"));
+        } catch (Exception e) {
+            // JMX unavailable (or already registered by another class loader); metrics still work locally
+        }
+        String dumpPath = System.getProperty("hunter.metrics.dump");
+        if (dumpPath != null && !dumpPath.isEmpty()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(dumpPath), "metrics-dump"));
+        }
+    }
+
+    /** Returns the process-wide metrics. */
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    // ===================== Recording (hot path) =====================
+
+    /** Records one finished combat and how many turns it took. */
+    public void recordCombat(int turns) {
+        combats.increment();
+        combatTurns.add(turns);
+        turnsPerCombat.record(turns);
+    }
+
+    public void recordDamageDealt(int amount) {
+        damageDealt.add(amount);
+    }
+
+    public void recordDamageTaken(int amount) {
+        damageTaken.add(amount);
+    }
+
+    /** Records one weapon hit and whether it was a critical. */
+    public void recordHit(String weaponName, boolean crit) {
+        WeaponCounters w = weapons.get(weaponName);
+        if (w == null) w = weapons.computeIfAbsent(weaponName, k -> new WeaponCounters());
+        w.hits.increment();
+        if (crit) w.crits.increment();
+    }
+
+    /** Records the monsters of a floor a player just entered (see Dungeon.getFloor()). */
+    public void recordMonsterSpawns(int count) {
+        monsterSpawns.add(count);
+    }
+
+    public void recordDungeonClear(String rank) {
+        for (int i = 0; i < RANKS.length; i++) {
+            if (RANKS[i].equals(rank)) {
+                dungeonClears[i].increment();
+                return;
+            }
+        }
+    }
+
+    public void recordSave(long nanos) { saveNanos.record(nanos); }
+    public void recordLoad(long nanos) { loadNanos.record(nanos); }
+    /** Time between showing a prompt and getting the player's answer. */
+    public void recordPromptLatency(long nanos) { promptNanos.record(nanos); }
+
+    // ===================== Reading (JMX) =====================
+
+    @Override public long getCombats() { return combats.sum(); }
+    @Override public long getCombatTurns() { return combatTurns.sum(); }
+    @Override public double getTurnsPerCombatMean() { return turnsPerCombat.getMean(); }
+    @Override public long getTurnsPerCombatP99() { return turnsPerCombat.getValueAtPercentile(99); }
+    @Override public long getDamageDealt() { return damageDealt.sum(); }
+    @Override public long getDamageTaken() { return damageTaken.sum(); }
+
+    @Override
+    public Map<String, Double> getCritRateByWeapon() {
+        Map<String, Double> rates = new TreeMap<>();
+        for (Map.Entry<String, WeaponCounters> e : weapons.entrySet()) {
+            long hits = e.getValue().hits.sum();
+            rates.put(e.getKey(), hits == 0 ? 0.0 : e.getValue().crits.sum() / (double) hits);
+        }
+        return rates;
+    }
+
+    @Override public long getMonsterSpawns() { return monsterSpawns.sum(); }
+
+    @Override
+    public double getMonsterSpawnsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds <= 0 ? 0 : monsterSpawns.sum() / seconds;
+    }
+
+    @Override
+    public Map<String, Long> getDungeonClearsByRank() {
+        Map<String, Long> clears = new LinkedHashMap<>();
+        for (int i = 0; i < RANKS.length; i++) clears.put(RANKS[i], dungeonClears[i].sum());
+        return clears;
+    }
+
+    @Override public int getLiveDungeons() { return DungeonInstanceManager.get().getLive(); }
+    @Override public int getPeakDungeons() { return DungeonInstanceManager.get().getPeak(); }
+
+    @Override public double getSaveMillisP50() { return saveNanos.getValueAtPercentile(50) / 1e6; }
+    @Override public double getSaveMillisP99() { return saveNanos.getValueAtPercentile(99) / 1e6; }
+    @Override public double getLoadMillisP50() { return loadNanos.getValueAtPercentile(50) / 1e6; }
+    @Override public double getLoadMillisP99() { return loadNanos.getValueAtPercentile(99) / 1e6; }
+    @Override public double getPromptLatencyMillisP50() { return promptNanos.getValueAtPercentile(50) / 1e6; }
+    @Override public double getPromptLatencyMillisP99() { return promptNanos.getValueAtPercentile(99) / 1e6; }
+
+    @Override
+    public void dump(String path) {
+        try (PrintWriter out = new PrintWriter(path, "UTF-8")) {
+            out.println("# Hunter game metrics, uptime " + (System.nanoTime() - startNanos) / 1_000_000 + " ms");
+            out.println("combats " + getCombats());
+            out.println("combat_turns " + getCombatTurns());
+            out.printf("turns_per_combat mean=%.2f p99=%d max=%d%n",
+                    getTurnsPerCombatMean(), getTurnsPerCombatP99(), turnsPerCombat.getMax());
+            out.println("damage_dealt " + getDamageDealt());
+            out.println("damage_taken " + getDamageTaken());
+            for (Map.Entry<String, Double> e : getCritRateByWeapon().entrySet()) {
+                out.printf("crit_rate{weapon=\"%s\"} %.4f%n", e.getKey(), e.getValue());
+            }
+            out.println("monster_spawns " + getMonsterSpawns());
+            out.printf("monster_spawns_per_second %.3f%n", getMonsterSpawnsPerSecond());
+            for (Map.Entry<String, Long> e : getDungeonClearsByRank().entrySet()) {
+                out.println("dungeon_clears{rank=\"" + e.getKey() + "\"} " + e.getValue());
+            }
+            out.println("dungeons_live " + getLiveDungeons());
+            out.println("dungeons_peak " + getPeakDungeons());
+            printLatency(out, "save_ms", saveNanos);
+            printLatency(out, "load_ms", loadNanos);
+            printLatency(out, "prompt_latency_ms", promptNanos);
+        } catch (IOException e) {
+            System.out.println("> ERROR: Failed to write metrics - " + e.getMessage());
+        }
+    }
+
+    private static void printLatency(PrintWriter out, String name, LatencyHistogram h) {
+        out.printf("%s count=%d p50=%.3f p90=%.3f p99=%.3f max=%.3f%n", name, h.getCount(),
+                h.getValueAtPercentile(50) / 1e6, h.getValueAtPercentile(90) / 1e6,
+                h.getValueAtPercentile(99) / 1e6, h.getMax() / 1e6);
+    }
+
+    @Override
+    public void reset() {
+        combats.reset();
+        combatTurns.reset();
+        turnsPerCombat.reset();
+        damageDealt.reset();
+        damageTaken.reset();
+        weapons.clear();
+        monsterSpawns.reset();
+        for (LongAdder a : dungeonClears) a.reset();
+        saveNanos.reset();
+        loadNanos.reset();
+        promptNanos.reset();
+    }
+
+    /** Hit and crit counts for one weapon. */
+    private static final class WeaponCounters {
+        final LongAdder hits = new LongAdder();
+        final LongAdder crits = new LongAdder();
+    }
+
+    /**
+     * Measures the recording overhead of one combat hit (recordHit + recordDamageDealt)
+     * and of one histogram sample (recordCombat), on one thread and then on every core.
+     *
+     * Usage:
+     *   java -cp hunter.jar com.bosakon.monsterhunter.GameMetrics [operations per thread]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        GameMetrics metrics = get();
+        for (int threads : new int[] {1, 1, Runtime.getRuntime().availableProcessors()}) { // first round warms up
+            double[] nanos = new double[2];
+            for (int kind = 0; kind < 2; kind++) {
+                int which = kind;
+                Thread[] workers = new Thread[threads];
+                for (int t = 0; t < threads; t++) {
+                    workers[t] = new Thread(() -> {
+                        for (int i = 0; i < operations; i++) {
+                            if (which == 0) {
+                                metrics.recordHit("Lapis", (i & 7) == 0);
+                                metrics.recordDamageDealt(i & 31);
+                            } else {
+                                metrics.recordCombat(1 + (i & 15));
+                            }
+                        }
+                    });
+                }
+                long start = System.nanoTime();
+                for (Thread worker : workers) worker.start();
+                for (Thread worker : workers) worker.join();
+                nanos[kind] = (System.nanoTime() - start) / (double) operations;
+            }
+            System.out.printf("threads %2d | hit + damage %.1f ns | combat histogram %.1f ns (wall time per operation per thread)%n",
+                    threads, nanos[0], nanos[1]);
+        }
+        metrics.reset();
+    }
+}
@@ -0,0 +1,42 @@
+package com.bosakon.monsterhunter;
+
+import java.util.Map;
+
+/**
+ * JMX view of GameMetrics, registered as
+ * "com.bosakon.monsterhunter:type=GameMetrics" (see jconsole / VisualVM "MBeans").
+ */
+public interface GameMetricsMXBean {
+    long getCombats();
+    long getCombatTurns();
+    double getTurnsPerCombatMean();
+    long getTurnsPerCombatP99();
+
+    long getDamageDealt();
+    long getDamageTaken();
+    /** Crit rate (0-1) per weapon name. */
+    Map<String, Double> getCritRateByWeapon();
+
+    long getMonsterSpawns();
+    /** Average monster spawns per second since startup. */
+    double getMonsterSpawnsPerSecond();
+    /** Dungeon clears per rank ("E".."S"). */
+    Map<String, Long> getDungeonClearsByRank();
+    /** Dungeon instances currently open (see DungeonInstanceManager). */
+    int getLiveDungeons();
+    /** Most dungeon instances open at the same time. */
+    int getPeakDungeons();
+
+    double getSaveMillisP50();
+    double getSaveMillisP99();
+    double getLoadMillisP50();
+    double getLoadMillisP99();
+    double getPromptLatencyMillisP50();
+    double getPromptLatencyMillisP99();
+
+    /** Writes a text report to a local file. */
+    void dump(String path);
+
+    /** Clears every counter and histogram. */
+    void reset();
+}
@@ -0,0 +1,578 @@
+package com.bosakon.monsterhunter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Golden runs: fixed-seed end-to-end sessions through the real HunterGame menus, checked
+ * for correctness (final state hash) and for performance (against stored baselines).
+ * Hashes and performance baselines live in separate files and are recorded separately:
+ * a gameplay change re-records the hashes only, and a performance baseline only moves
+ * with a written reason, which stays in the file's history.
+ *
+ * Each run creates a new hunter, checks stats and inventory, views quests, buys at the
+ * market, tours the Gym and Center (NPCs included), then works up the dungeon ranks
+ * from E (always the highest rank the hunter may enter, toward S), resting and
+ * restocking potions in between. It ends by saving, loading the save and clearing one
+ * more dungeon with the loaded hunter. A driver answers every prompt from what the
+ * game printed and the hunter's state, and every roll comes from the run's seed
+ * (HunterGame(InputSource, Random, WorldEvents)), so a run is the same session every
+ * time. Each run has its own world of gates, whose clock the driver advances
+ * TICKS_PER_DUNGEON ticks before every dungeon instead of letting wall time tick it.
+ *
+ * Per run the suite records:
+ *   - hash:      SHA-256 of the whole transcript plus the final hunter state
+ *   - wall time: best of the measured iterations, each the average of a batch of runs
+ *   - allocated: bytes allocated by the game thread (floor prefetch not included)
+ *   - turns/s:   finished combat turns (GameMetrics) per second of wall time
+ * A run fails if its hash differs from the baseline or between iterations, or if its
+ * turns/s drops more than the threshold below the baseline. Any failure exits with 1.
+ * Turns/s is measured over the whole session, menus included, so a gameplay change that
+ * makes sessions shorter or longer can move it too: check CombatAllocationBenchmark
+ * (ns per combat turn) before blaming the combat loop.
+ *
+ * Usage:
+ *   java -cp hunter.jar com.bosakon.monsterhunter.GoldenRunSuite                     check
+ *   java -cp hunter.jar com.bosakon.monsterhunter.GoldenRunSuite record              rewrite the hashes
+ *   java -cp hunter.jar com.bosakon.monsterhunter.GoldenRunSuite record-perf "why"   rewrite the performance baselines
+ *
+ * Example output:
+ *   golden  | hash 1e0a45dba5d42141 OK | 1935 turns | 35 ms (base 33, +7%) | 5.0 MB (base 5.0) | 54581 turns/s (base 58636, -7%) | ranks E,D,C,B,A | PASS
+ *
+ * <b>How to configure:</b>
+ *   -Dhunter.golden.threshold=0.30      allowed turns/s drop below baseline (default 30%)
+ *   -Dhunter.golden.iterations=5        measured iterations per run, after one warmup (default 5)
+ *   -Dhunter.golden.batch=10            runs averaged per iteration (default 10)
+ *   -Dhunter.golden.hashes=<file>       hashes file (default scripts/golden-hashes.txt)
+ *   -Dhunter.golden.perf=<file>         performance baselines (default scripts/golden-perf.txt)
+ *
+ * <b>How to add a run:</b>
+ *   Add a Scenario to SCENARIOS, then run with "record" and with "record-perf", and commit both files.
+ *   Record hashes again whenever a change is meant to alter gameplay (the hashes will move).
+ *   Record performance only to accept a measured change, saying why (e.g. "monster AI adds
+ *   a decision per turn, +12% ns/turn in CombatAllocationBenchmark").
+ */
+public class GoldenRunSuite {
+    private static final Scenario[] SCENARIOS = {
+        new Scenario("golden", "Golden", "lapis", 7L, 40),
+        new Scenario("duslak", "Duslak", "flat screw", 99L, 40),
+        new Scenario("tetanus", "Tetanus", "tirungan", 2024L, 40),
+    };
+    private static final int MAX_INPUTS = 50_000;   // ends a run stuck in a stalemate
+    private static final int MAX_FIGHT_TURNS = 40;  // flee a fight that goes nowhere
+    private static final int WORLD_WARMUP_TICKS = 600;
+    private static final int TICKS_PER_DUNGEON = 30;  // world time passing between dungeons
+
+    public static void main(String[] args) throws IOException {
+        boolean record = args.length > 0 && "record".equals(args[0]);
+        boolean recordPerf = args.length > 0 && "record-perf".equals(args[0]);
+        String reason = recordPerf ? String.join(" ", Arrays.copyOfRange(args, 1, args.length)).trim() : "";
+        if (recordPerf && reason.isEmpty()) {
+            System.out.println("> ERROR: record-perf needs a reason, e.g. record-perf \"new machine\"");
+            System.exit(2);
+        }
+        double threshold = Double.parseDouble(System.getProperty("hunter.golden.threshold", "0.30"));
+        int iterations = Math.max(1, Integer.getInteger("hunter.golden.iterations", 5));
+        int batch = Math.max(1, Integer.getInteger("hunter.golden.batch", 10));
+        File hashFile = new File(System.getProperty("hunter.golden.hashes", "scripts/golden-hashes.txt"));
+        File perfFile = new File(System.getProperty("hunter.golden.perf", "scripts/golden-perf.txt"));
+
+        // Prices and stock must not move with wall time: no scheduled recompute or restock (see Driver.home)
+        System.setProperty("hunter.market.priceMillis", String.valueOf(24 * 60 * 60 * 1000L));
+        System.setProperty("hunter.market.restockMillis", String.valueOf(24 * 60 * 60 * 1000L));
+        new File("build/golden").mkdirs();
+        System.setProperty("hunter.save", "build/golden/save.txt");
+
+        Map<String, Result> baselines = readBaselines(hashFile, perfFile, !record);
+        Result[] results = new Result[SCENARIOS.length];
+        boolean failed = false;
+        for (int s = 0; s < SCENARIOS.length; s++) {
+            Scenario scenario = SCENARIOS[s];
+            Result best = null;
+            boolean deterministic = true;
+            for (int i = 0; i <= iterations; i++) {
+                Result run = play(scenario);
+                for (int b = 1; b < batch; b++) {
+                    Result again = play(scenario);
+                    deterministic &= again.hash.equals(run.hash);
+                    run.wallNanos += again.wallNanos;
+                    run.allocated += again.allocated;
+                }
+                run.wallNanos /= batch;
+                run.allocated /= batch;
+                if (i == 0) continue; // warmup
+                if (best == null) {
+                    best = run;
+                } else {
+                    deterministic &= run.hash.equals(best.hash);
+                    best.wallNanos = Math.min(best.wallNanos, run.wallNanos);
+                    best.allocated = Math.min(best.allocated, run.allocated);
+                }
+            }
+            results[s] = best;
+            failed |= !report(scenario, best, baselines.get(scenario.id), deterministic, threshold, record, recordPerf);
+        }
+
+        if (record && !failed) {
+            writeHashes(hashFile, results);
+            System.out.println("> Hashes written to " + hashFile);
+        }
+        if (recordPerf && !failed) {
+            writePerf(perfFile, results, baselines, reason);
+            System.out.println("> Performance baselines written to " + perfFile);
+        }
+        if (failed) {
+            System.out.println("> GOLDEN RUNS FAILED");
+            System.exit(1);
+        }
+        System.out.println("> All golden runs passed");
+    }
+
+    /** Plays one scenario from a fresh market, with the game's output captured and hashed. */
+    private static Result play(Scenario scenario) {
+        MarketEngine.get().reset();
+        Transcript transcript = new Transcript();
+        WorldEvents world = new WorldEvents(new Random(scenario.seed));
+        world.advance(WORLD_WARMUP_TICKS);
+        Driver driver = new Driver(scenario, transcript, world);
+        HunterGame game = new HunterGame(InputSource.fromSupplier(driver), new Random(scenario.seed), world);
+        driver.game = game;
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        boolean counting = threads.isThreadAllocatedMemorySupported();
+        long turnsBefore = GameMetrics.get().getCombatTurns();
+        PrintStream console = System.out;
+        Result result = new Result();
+        long allocatedBefore = counting ? threads.getThreadAllocatedBytes(threadId) : 0;
+        long start = System.nanoTime();
+        System.setOut(transcript.stream);
+        try {
+            game.startGame();
+        } catch (NoSuchElementException e) {
+            result.truncated = true; // MAX_INPUTS reached
+        } finally {
+            System.setOut(console);
+        }
+        result.wallNanos = System.nanoTime() - start;
+        result.allocated = counting ? threads.getThreadAllocatedBytes(threadId) - allocatedBefore : -1;
+        result.turns = GameMetrics.get().getCombatTurns() - turnsBefore;
+        result.state = describe(game.getPlayer());
+        result.hash = transcript.hash(result.state);
+        result.ranks = String.join(",", driver.ranks);
+        result.inputs = driver.inputs;
+        return result;
+    }
+
+    /** The end state that must match: everything a save would want and more. */
+    private static String describe(Hunter hunter) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(hunter.getName()).append(" | ").append(hunter.getRank()).append("-Rank | Level ")
+          .append(hunter.getLevel()).append(" (").append(hunter.getExperience()).append(" XP) | HP ")
+          .append(hunter.getHP()).append('/').append(hunter.getMaxHP()).append(" | Gold ").append(hunter.getGold())
+          .append(" | Fame ").append(hunter.getFame()).append(" | ").append(hunter.getWeapon().getName())
+          .append(" (DUR ").append(hunter.getWeapon().getDurability()).append(')');
+        for (String item : new String[] {"Health Potion", "Mana Potion", "Weapon Repair Kit"}) {
+            sb.append(" | ").append(item).append(' ').append(hunter.getItemCount(item));
+        }
+        sb.append(" | Skills ").append(new TreeSet<>(hunter.getSkills().keySet()));
+        return sb.toString();
+    }
+
+    /** Prints one run against its baseline; returns false if it failed. */
+    private static boolean report(Scenario scenario, Result run, Result base, boolean deterministic,
+                                  double threshold, boolean record, boolean recordPerf) {
+        boolean hasHash = base != null && base.hash != null;
+        boolean hasPerf = base != null && base.wallNanos > 0;
+        boolean hashOk = !hasHash || base.hash.equals(run.hash);
+        boolean speedOk = !hasPerf || run.turnsPerSecond() >= base.turnsPerSecond * (1 - threshold);
+        StringBuilder line = new StringBuilder();
+        line.append(String.format("%-8s| hash %s %s | %d turns | %d ms", scenario.id, run.hash.substring(0, 16),
+                !hasHash ? "" : hashOk ? "OK" : "MISMATCH", run.turns, run.wallNanos / 1_000_000));
+        if (hasPerf) line.append(String.format(" (base %d, %s)", base.wallNanos / 1_000_000,
+                change(run.wallNanos, base.wallNanos)));
+        line.append(run.allocated < 0 ? " | alloc n/a" : String.format(" | %.1f MB", run.allocated / 1e6));
+        if (hasPerf && run.allocated >= 0) line.append(String.format(" (base %.1f)", base.allocated / 1e6));
+        line.append(String.format(" | %.0f turns/s", run.turnsPerSecond()));
+        if (hasPerf) line.append(String.format(" (base %.0f, %s)", base.turnsPerSecond,
+                change(run.turnsPerSecond(), base.turnsPerSecond)));
+        line.append(" | ranks ").append(run.ranks);
+        if (run.truncated) line.append(" | stopped after ").append(run.inputs).append(" inputs");
+
+        // Recording one file still checks the other: hashes can't move while recording performance
+        boolean passed = deterministic && (record || hashOk) && (recordPerf || record || speedOk);
+        line.append(passed ? " | PASS" : " | FAIL");
+        System.out.println(line);
+        if (!deterministic) System.out.println("  > Same seed, different transcripts between iterations");
+        if (!record && !hashOk) System.out.println("  > Final state: " + run.state);
+        if (!record && !speedOk) System.out.printf("  > Throughput dropped more than %.0f%%%n", threshold * 100);
+        return passed;
+    }
+
+    private static String change(double value, double base) {
+        return String.format("%+.0f%%", (value / base - 1) * 100);
+    }
+
+    /**
+     * Reads the baselines: hashes ("id | state hash | turns") and performance
+     * ("id | wall ms | allocated MB | turns/s"); hashes only if asked for. Recording
+     * performance still reads the old values, for the history line.
+     */
+    private static Map<String, Result> readBaselines(File hashFile, File perfFile, boolean hashes)
+            throws IOException {
+        Map<String, Result> baselines = new HashMap<>();
+        if (hashes) {
+            for (String[] parts : readRows(hashFile)) {
+                Result base = baselines.computeIfAbsent(parts[0], id -> new Result());
+                base.hash = parts[1];
+                base.turns = Long.parseLong(parts[2]);
+            }
+        }
+        for (String[] parts : readRows(perfFile)) {
+            Result base = baselines.computeIfAbsent(parts[0], id -> new Result());
+            base.wallNanos = (long) (Double.parseDouble(parts[1]) * 1e6);
+            base.allocated = (long) (Double.parseDouble(parts[2]) * 1e6);
+            base.turnsPerSecond = Double.parseDouble(parts[3]);
+        }
+        return baselines;
+    }
+
+    private static List<String[]> readRows(File file) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        if (!file.exists()) {
+            System.out.println("> ERROR: No baselines at " + file + " (run with \"record\" or \"record-perf\" first)");
+            return rows;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                rows.add(line.split("\\s*\\|\\s*"));
+            }
+        }
+        return rows;
+    }
+
+    private static void writeHashes(File file, Result[] results) throws IOException {
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("# Golden run hashes (GoldenRunSuite): id | state hash | turns\n");
+            writer.write("# Rewrite with: java -cp hunter.jar com.bosakon.monsterhunter.GoldenRunSuite record\n");
+            for (int s = 0; s < SCENARIOS.length; s++) {
+                Result r = results[s];
+                writer.write(String.format(Locale.ROOT, "%s | %s | %d\n", SCENARIOS[s].id, r.hash, r.turns));
+            }
+        }
+    }
+
+    /**
+     * Rewrites the performance baselines, keeping the file's history comments and adding
+     * one with the reason and the turns/s change per run.
+     */
+    private static void writePerf(File file, Result[] results, Map<String, Result> old, String reason)
+            throws IOException {
+        List<String> history = new ArrayList<>();
+        if (file.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("#   ") || line.startsWith("#     ")) history.add(line);
+                }
+            }
+        }
+        StringBuilder entry = new StringBuilder("#   ").append(LocalDate.now()).append(": ").append(reason).append(" (");
+        for (int s = 0; s < SCENARIOS.length; s++) {
+            Result base = old.get(SCENARIOS[s].id);
+            if (s > 0) entry.append(", ");
+            entry.append(SCENARIOS[s].id).append(' ');
+            if (base != null && base.turnsPerSecond > 0) {
+                entry.append(String.format(Locale.ROOT, "%.0f -> ", base.turnsPerSecond));
+            }
+            entry.append(String.format(Locale.ROOT, "%.0f turns/s", results[s].turnsPerSecond()));
+        }
+        history.add(entry.append(')').toString());
+
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("# Golden run performance baselines (GoldenRunSuite): id | wall ms | allocated MB | turns/s\n");
+            writer.write("# Rewrite with: java -cp hunter.jar com.bosakon.monsterhunter.GoldenRunSuite record-perf \"<reason>\"\n");
+            writer.write("# History:\n");
+            for (String line : history) writer.write(line + "\n");
+            for (int s = 0; s < SCENARIOS.length; s++) {
+                Result r = results[s];
+                writer.write(String.format(Locale.ROOT, "%s | %.1f | %.1f | %.0f\n", SCENARIOS[s].id,
+                        r.wallNanos / 1e6, r.allocated / 1e6, r.turnsPerSecond()));
+            }
+        }
+    }
+
+    /** One golden run: who plays, with which starter weapon and seed, for how many dungeons. */
+    private static final class Scenario {
+        final String id;
+        final String hunterName;
+        final String weapon;
+        final long seed;
+        final int dungeons;
+
+        Scenario(String id, String hunterName, String weapon, long seed, int dungeons) {
+            this.id = id;
+            this.hunterName = hunterName;
+            this.weapon = weapon;
+            this.seed = seed;
+            this.dungeons = dungeons;
+        }
+    }
+
+    /** Measurements of one run (or a baseline). */
+    private static final class Result {
+        String hash;
+        String state;
+        String ranks;
+        long wallNanos;
+        long allocated;
+        long turns;
+        long inputs;
+        boolean truncated;
+        double turnsPerSecond; // baselines only: as recorded
+
+        double turnsPerSecond() {
+            return turns / (wallNanos / 1e9);
+        }
+    }
+
+    /**
+     * Game output sink: hashes everything printed (line breaks normalized to \n, so the
+     * hash is the same on every OS) and keeps the text since the last input for the Driver.
+     */
+    private static final class Transcript extends OutputStream {
+        private final MessageDigest digest;
+        private final ByteArrayOutputStream screen = new ByteArrayOutputStream();
+        final PrintStream stream;
+
+        Transcript() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+                stream = new PrintStream(this, false, "UTF-8");
+            } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            if (b != '\r') digest.update((byte) b);
+            screen.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            int from = off;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\r') {
+                    digest.update(b, from, i - from);
+                    from = i + 1;
+                }
+            }
+            digest.update(b, from, off + len - from);
+            screen.write(b, off, len);
+        }
+
+        /** Everything printed since the last call. */
+        String takeScreen() {
+            stream.flush();
+            String text = new String(screen.toByteArray(), StandardCharsets.UTF_8);
+            screen.reset();
+            return text;
+        }
+
+        String hash(String finalState) {
+            stream.flush();
+            digest.update(finalState.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) hex.append(String.format("%02x", b));
+            return hex.toString();
+        }
+    }
+
+    /**
+     * Plays a scenario by answering each prompt when the game asks for input: the prompt
+     * says which menu is open, the hunter's state says what to do there. Menu plans are
+     * queues of answers; the home plan drives the session.
+     */
+    private static final class Driver implements Supplier<String> {
+        private final Scenario scenario;
+        private final Transcript transcript;
+        private final WorldEvents world;
+        HunterGame game;
+        final TreeSet<String> ranks = new TreeSet<>(
+                (a, b) -> Hunter.rankIndex(a) - Hunter.rankIndex(b));
+        int inputs;
+
+        private final Deque<String> mainPlan = new ArrayDeque<>(Arrays.asList("2", "3", "4"));
+        private final Deque<String> homePlan = new ArrayDeque<>();
+        private final Deque<String> outsidePlan = new ArrayDeque<>();
+        private final Deque<String> centerPlan = new ArrayDeque<>();
+        private boolean restocked; // at most one market trip between dungeons
+        private String pendingItem;
+        private int fightTurns;
+
+        Driver(Scenario scenario, Transcript transcript, WorldEvents world) {
+            this.scenario = scenario;
+            this.transcript = transcript;
+            this.world = world;
+            homePlan.addAll(Arrays.asList("quests", "train", "tour", "shop"));
+            for (int d = 0; d < scenario.dungeons; d++) homePlan.add("dungeon");
+            homePlan.addAll(Arrays.asList("quests", "save", "load", "dungeon", "quests", "exit"));
+        }
+
+        @Override
+        public String get() {
+            if (inputs++ == MAX_INPUTS) return null;
+            String screen = transcript.takeScreen();
+            Hunter player = game.getPlayer();
+            if (screen.endsWith("Enter your Hunter's name: ")) return scenario.hunterName;
+            if (screen.endsWith("): ") && screen.contains("Choose your starting weapon")) return scenario.weapon;
+            if (screen.endsWith(" to leave): ") && screen.contains("Choose a monster to attack")) return target(player);
+            if (screen.endsWith("Select item: ")) return shop(player, screen);
+            if (screen.endsWith("Select service: ")) return centerPlan.isEmpty() ? "0" : centerPlan.poll();
+            if (screen.endsWith("Select skill: ")) return String.valueOf(player.getSkillCount() + 1); // Cancel
+            if (screen.endsWith("Enter skill name to train (or 'back'): ")) return "back";
+            if (screen.endsWith("Select: ")) {
+                if (screen.contains("DUNGEON SELECTION")) return dungeonRank(player);
+                if (screen.contains("4. Cancel")) return pendingItem;
+                return combatAction(player);
+            }
+            if (screen.endsWith("Please enter your choice: ")) {
+                if (screen.contains("1. Save Game")) return home(player);
+                if (screen.contains("1. Visit Market")) return outsidePlan.isEmpty() ? "0" : outsidePlan.poll();
+                return mainPlan.isEmpty() ? "0" : mainPlan.poll();
+            }
+            throw new IllegalStateException("Unexpected prompt: " + screen);
+        }
+
+        private String home(Hunter player) {
+            String step = homePlan.peek();
+            if (step == null) return "0";
+            if ("dungeon".equals(step)) {
+                // Rest first; restock when potions or repair kits run low and the gold allows
+                MarketEngine market = MarketEngine.get();
+                if (player.getHP() < player.getMaxHP()) return "3";
+                boolean lowOnPotions = player.getItemCount("Health Potion") < 2
+                        && player.getGold() >= market.getPrice("Health Potion");
+                boolean noKit = player.getItemCount("Weapon Repair Kit") == 0
+                        && player.getGold() >= market.getPrice("Weapon Repair Kit");
+                if (!restocked && (lowOnPotions || noKit)) {
+                    // The suite plays the restock schedule itself: one restock per trip
+                    market.restock();
+                    restocked = true;
+                    outsidePlan.addAll(Arrays.asList("1", "0"));
+                    return "4";
+                }
+            }
+            homePlan.poll();
+            switch (step) {
+                case "quests": return "7";
+                case "train": return "6";
+                case "tour":
+                    outsidePlan.addAll(Arrays.asList("2", "3", "0"));
+                    centerPlan.addAll(Arrays.asList("1", "2", "3", "4", "5", "0"));
+                    return "4";
+                case "shop":
+                    outsidePlan.addAll(Arrays.asList("1", "0"));
+                    return "4";
+                case "dungeon":
+                    world.advance(TICKS_PER_DUNGEON);
+                    restocked = false;
+                    return "5";
+                case "save": return "1";
+                case "load": return "2";
+                default: return "0";
+            }
+        }
+
+        /** Buys up to three Weapon Repair Kits and three Health Potions, then leaves. */
+        private String shop(Hunter player, String screen) {
+            MarketEngine market = MarketEngine.get();
+            if (!screen.contains("Not enough gold") && !screen.contains("out of stock")) {
+                if (player.getItemCount("Weapon Repair Kit") < 3 && player.getGold() >= market.getPrice("Weapon Repair Kit")) {
+                    return "3";
+                }
+                if (player.getItemCount("Health Potion") < 3 && player.getGold() >= market.getPrice("Health Potion")) {
+                    return "1";
+                }
+            }
+            return String.valueOf(market.getItemCount() + 1); // Exit
+        }
+
+        /**
+         * The highest rank the hunter may enter. Without the weapon, repair kits and potions
+         * to see a Red Gate through (no way out; any of D to A may be one), E-Rank instead.
+         */
+        private String dungeonRank(Hunter player) {
+            int rank = Hunter.rankIndex(player.getRank());
+            Item weapon = player.getWeapon();
+            boolean supplied = player.getItemCount("Weapon Repair Kit") >= 3 && player.getItemCount("Health Potion") >= 2
+                    && weapon.getDurability() * 2 >= weapon.getMaxDurability();
+            if (!supplied && rank < Hunter.rankIndex("S")) rank = 0;
+            return String.valueOf(rank + 1);
+        }
+
+        /**
+         * First monster still standing. Leaves (Red Gates excepted) when badly hurt with no
+         * potions, or with a broken weapon and no repair kit.
+         */
+        private String target(Hunter player) {
+            fightTurns = 0;
+            Dungeon dungeon = player.getCurrentDungeon();
+            ranks.add(dungeon.getRank());
+            boolean hurt = player.getHP() * 100 < player.getMaxHP() * 30 && player.getItemCount("Health Potion") == 0;
+            boolean unarmed = player.getWeapon().getDurability() == 0 && player.getItemCount("Weapon Repair Kit") == 0;
+            if (!dungeon.isRedGate() && (hurt || unarmed)) return "0";
+            Monster[] monsters = dungeon.getFloor().getMonsters();
+            for (int i = 0; i < monsters.length; i++) {
+                if (monsters[i].isAlive()) return String.valueOf(i + 1);
+            }
+            return "1";
+        }
+
+        /** Potion when low, repair when broken, flee when losing or stuck, otherwise attack. */
+        private String combatAction(Hunter player) {
+            fightTurns++;
+            int hpPercent = player.getHP() * 100 / Math.max(1, player.getMaxHP());
+            if (hpPercent < 40 && player.getItemCount("Health Potion") > 0) {
+                pendingItem = "1";
+                return "3";
+            }
+            if (player.getWeapon().getDurability() == 0 && player.getItemCount("Weapon Repair Kit") > 0) {
+                pendingItem = "3";
+                return "3";
+            }
+            if (hpPercent < 25 || fightTurns > MAX_FIGHT_TURNS) return "4";
+            return "1";
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.bosakon.monsterhunter;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents the player character with stats, inventory, progression, skills, and quest log.
@@ -12,7 +14,7 @@ public class Hunter {
     private int level;
     private int experience;
     private int gold;
-    private int fame;
+    private volatile int fame; // updated atomically, many threads may add fame
     private boolean isAwakened;
 
     // Stats
@@ -21,14 +23,52 @@ public class Hunter {
     private int intelligence;
     private int currentHP, maxHP;
     private int currentMana, maxMana;
+    private boolean flux;                  // Flux active (set by CombatEngine)
+    private final HunterStats stats = new HunterStats(); // effective stats, see getStats()
+    private boolean statsDirty = true;     // a contributor changed since stats were computed
 
     // Inventory and progression systems
-    private Map<String, Integer> inventory; // e.g. "Health Potion" -> 2
+    private Map<String, int[]> inventory; // e.g. "Health Potion" -> {2}; mutable count, no boxing on use
     private Item equippedWeapon;
     private Map<String, Skill> skills;
-    private StatusEffect currentStatus;
+    private Skill[] skillList;             // unlocked skills in unlock order, for menus (no toArray per turn)
+    private int skillCount;
+    private StatusEffect currentStatus;    // null, or statusSlot while an effect is active
+    private final StatusEffect statusSlot = new StatusEffect("", 0, 0);
     private List<Quest> activeQuests;
     public SkillTree skillTree;
+    private Dungeon currentDungeon; // null when not in a dungeon
+
+    // Combat plumbing: one Random per hunter, and a quiet mode for simulations
+    // (no messages built, no metrics recorded)
+    private Random rand;
+    private boolean quiet;
+    private int[] lootCounters; // guarantee counters of the boss table etc. (see LootTable.roll())
+    private HunterJournal journal; // records progression and economy events, null unless started
+
+    // Copy-on-write (see fork()): components shared with a branch, copied before the first write
+    private static final int INVENTORY = 1, SKILLS = 2, QUESTS = 4, LOOT = 8, WEAPON = 16;
+    private int shared;
+
+    // Identity for rankings, and the FameLeaderboard this hunter is registered on (if any)
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+    private static final AtomicIntegerFieldUpdater<Hunter> FAME =
+            AtomicIntegerFieldUpdater.newUpdater(Hunter.class, "fame");
+    private final long id = NEXT_ID.getAndIncrement();
+    private volatile FameLeaderboard leaderboard;
+
+    // Combat numbers (package-private so FightSolver models exactly the same rules)
+    static final StatusEffect TETANUS = new StatusEffect("Tetanus", 3, 3);
+    static final double TETANUS_CHANCE = 0.25;    // Tirungan
+    static final double SANGA_HEAL_CHANCE = 0.2;  // Sanga sa Kamunggay
+    static final int SANGA_HEAL = 5;
+    static final int WILL_TO_RECOVER_HEAL = 5;
+    static final double TENACITY_THRESHOLD = 0.3; // of max HP
+    static final int HEALTH_POTION_HEAL = 25;
+    static final int MANA_POTION_RESTORE = 20;
+    static final int STAT_PER_LEVEL = 2;          // strength, dexterity and intelligence (HunterJournal replays these)
+    static final int HP_PER_LEVEL = 10;
+    static final int MANA_PER_LEVEL = 5;
 
     // Rank thresholds and possible ranks
     private static final int[] RANK_THRESHOLDS = {100, 300, 700, 1500, 3000};
@@ -57,8 +97,202 @@ public class Hunter {
         this.inventory = new HashMap<>();
         this.equippedWeapon = startingWeapon;
         this.skills = new HashMap<>();
+        this.skillList = new Skill[4];
         this.activeQuests = new LinkedList<>();
         this.skillTree = new SkillTree();
+        this.rand = new Random();
+    }
+
+    /** Empty hunter for copy() and fork(), which fill every field. */
+    private Hunter() {
+    }
+
+    /**
+     * Returns a quiet branch of the hunter in O(1), for search and what-if tools.
+     * Stats, HP/mana and status effect are copied; inventory, skills, quests, loot
+     * counters and weapon are shared with this hunter until either side writes to one,
+     * which then copies just that component (weapon: getWeapon() hands out a private copy).
+     * The branch has its own Random, no journal and is not on the fame leaderboard.
+     *
+     * Unlike copy()/copyFrom(), which reuse one object per simulation, forks are meant to
+     * be kept: a tree of branches shares everything no branch has changed.
+     */
+    public Hunter fork() {
+        Hunter branch = new Hunter();
+        branch.copyStats(this);
+        branch.inventory = inventory;
+        branch.equippedWeapon = equippedWeapon;
+        branch.skills = skills;
+        branch.skillList = skillList;
+        branch.skillCount = skillCount;
+        branch.skillTree = skillTree;
+        branch.activeQuests = activeQuests;
+        branch.lootCounters = lootCounters;
+        branch.currentDungeon = currentDungeon;
+        shared = branch.shared = INVENTORY | SKILLS | QUESTS | LOOT | WEAPON;
+        branch.rand = new Random();
+        branch.quiet = true;
+        return branch;
+    }
+
+    /** Takes private copies of the given components if they are shared with a fork. */
+    private void own(int components) {
+        int copy = shared & components;
+        if (copy == 0) return;
+        shared &= ~copy;
+        if ((copy & INVENTORY) != 0) {
+            Map<String, int[]> own = new HashMap<>();
+            for (Map.Entry<String, int[]> entry : inventory.entrySet()) own.put(entry.getKey(), new int[] {entry.getValue()[0]});
+            inventory = own;
+        }
+        if ((copy & SKILLS) != 0) {
+            skills = new HashMap<>(skills);
+            skillList = skillList.clone();
+        }
+        if ((copy & QUESTS) != 0) {
+            List<Quest> own = new LinkedList<>();
+            for (Quest quest : activeQuests) own.add(quest.copy());
+            activeQuests = own;
+        }
+        if ((copy & LOOT) != 0 && lootCounters != null) lootCounters = lootCounters.clone();
+        if ((copy & WEAPON) != 0 && equippedWeapon != null) equippedWeapon = equippedWeapon.copy();
+    }
+
+    /**
+     * Returns a quiet copy of the hunter for combat simulations (see AutoBattleBot).
+     * Stats, HP/mana, inventory counts, weapon durability and status effect are copied;
+     * skills, skill tree and quests are shared, since combat rarely changes them
+     * (a copy that learns a skill or takes a quest copies that component first).
+     */
+    public Hunter copy() {
+        Hunter copy = new Hunter();
+        copy.inventory = new HashMap<>();
+        copy.copyFrom(this);
+        copy.rand = new Random();
+        copy.quiet = true;
+        return copy;
+    }
+
+    /**
+     * Resets this copy to another hunter's combat state, reusing this object's
+     * weapon, status slot and inventory counts (simulation rollouts call this per iteration).
+     * Keeps this hunter's own Random and quiet flag.
+     */
+    public void copyFrom(Hunter other) {
+        copyStats(other);
+        if ((shared & INVENTORY) != 0) {
+            inventory = new HashMap<>();
+            shared &= ~INVENTORY;
+        }
+        // Zero every count first: items this copy picked up that the other hunter lacks
+        // (loot, shop buys in a rollout) must not survive the reset
+        for (int[] count : inventory.values()) count[0] = 0;
+        for (Map.Entry<String, int[]> entry : other.inventory.entrySet()) {
+            int[] count = inventory.get(entry.getKey());
+            if (count == null) inventory.put(entry.getKey(), new int[] {entry.getValue()[0]});
+            else count[0] = entry.getValue()[0];
+        }
+        if (other.equippedWeapon == null) equippedWeapon = null;
+        else if (equippedWeapon == null || equippedWeapon == other.equippedWeapon || (shared & WEAPON) != 0) equippedWeapon = other.equippedWeapon.copy();
+        else equippedWeapon.copyFrom(other.equippedWeapon);
+        shared &= ~WEAPON;
+
+        skills = other.skills;
+        skillList = other.skillList;
+        skillCount = other.skillCount;
+        skillTree = other.skillTree;
+        activeQuests = other.activeQuests;
+        shared |= SKILLS | QUESTS; // aliased: learn(), addQuest() etc. copy them first (see own())
+        currentDungeon = other.currentDungeon;
+    }
+
+    /** Copies the plain fields: identity, progression, stats, HP/mana, status effect and Flux. */
+    private void copyStats(Hunter other) {
+        name = other.name;
+        rank = other.rank;
+        level = other.level;
+        experience = other.experience;
+        gold = other.gold;
+        fame = other.fame;
+        isAwakened = other.isAwakened;
+        strength = other.strength;
+        dexterity = other.dexterity;
+        intelligence = other.intelligence;
+        currentHP = other.currentHP;
+        maxHP = other.maxHP;
+        currentMana = other.currentMana;
+        maxMana = other.maxMana;
+        if (other.currentStatus == null) {
+            currentStatus = null;
+        } else {
+            statusSlot.copyFrom(other.currentStatus);
+            currentStatus = statusSlot;
+        }
+        flux = other.flux;
+        statsDirty = true;
+    }
+
+    /**
+     * Effective combat stats (see HunterStats), recomputed only after a contributor
+     * changed: level, weapon, skills, status effect or Flux.
+     */
+    public HunterStats getStats() {
+        if (statsDirty) {
+            stats.recompute(strength, dexterity, intelligence, maxHP, equippedWeapon,
+                    skills.containsKey("Tenacity"), currentStatus, flux);
+            statsDirty = false;
+        }
+        return stats;
+    }
+
+    /**
+     * Starts journaling this hunter's progression and economy (see HunterJournal) from
+     * the current state: the items, skills and quests already held become its first events.
+     * Copies made with copy() are never journaled.
+     */
+    public HunterJournal startJournal() {
+        journal = new HunterJournal(name, rankIndex(rank), level, experience, gold,
+                strength, dexterity, intelligence, maxHP, maxMana);
+        if (isAwakened) journal.awaken();
+        for (Map.Entry<String, int[]> entry : inventory.entrySet()) {
+            if (entry.getValue()[0] > 0) journal.item(entry.getKey(), entry.getValue()[0]);
+        }
+        for (int i = 0; i < skillCount; i++) journal.skill(skillList[i].getName());
+        for (Quest quest : activeQuests) journal.quest(quest);
+        return journal;
+    }
+
+    /**
+     * Continues a saved journal (HunterJournal.load()): takes over its latest progress and
+     * records new events after the old ones, so history survives save and load.
+     */
+    public void resumeJournal(HunterJournal journal) {
+        restore(journal.getHead());
+        this.journal = journal;
+    }
+
+    /** Takes over the progress of a journal state (HunterJournal.materialize()); HP and mana are full. */
+    void restore(HunterJournal.State state) {
+        own(INVENTORY | SKILLS | QUESTS);
+        rank = state.getRank();
+        level = state.getLevel();
+        experience = state.getExperience();
+        gold = state.getGold();
+        strength = state.getStrength();
+        dexterity = state.getDexterity();
+        intelligence = state.getIntelligence();
+        maxHP = currentHP = state.getMaxHP();
+        maxMana = currentMana = state.getMaxMana();
+        isAwakened = state.isAwakened();
+        inventory.clear();
+        state.forEachItem((item, count) -> inventory.put(item, new int[] {count}));
+        for (int i = 0; i < state.getSkillCount(); i++) {
+            Skill skill = skillTree.getSkill(state.getSkill(i));
+            if (skill != null) learn(skill);
+        }
+        activeQuests.clear();
+        for (int i = 0; i < state.getQuestCount(); i++) activeQuests.add(state.createQuest(i));
+        statsDirty = true;
     }
 
     /** Triggers awakening after double dungeon death; unlocks special skills. */
@@ -68,6 +302,7 @@ public class Hunter {
             return;
         }
         isAwakened = true;
+        if (journal != null) journal.awaken();
         System.out.println("\n===============================================");
         System.out.println("      SYSTEM INTERVENTION: AWAKENING EVENT     ");
         System.out.println("===============================================");
@@ -86,53 +321,138 @@ public class Hunter {
             return;
         }
         if (skillTree.canUnlock(skillName, this)) {
-            Skill skill = skillTree.getSkill(skillName);
-            skills.put(skillName, skill);
+            learn(skillTree.getSkill(skillName));
+            if (journal != null) journal.skill(skillName);
             System.out.println("> Learned new skill: " + skillName);
         } else {
             System.out.println("> Requirements not met for " + skillName);
         }
     }
 
-    /** Adds experience and checks for level up and rank up. */
+    /** Gives this hunter the other hunter's skills, silently and without prerequisites (simulation templates). */
+    void learnSkillsOf(Hunter other) {
+        for (int i = 0; i < other.skillCount; i++) learn(other.skillList[i]);
+    }
+
+    private void learn(Skill skill) {
+        if (skills.containsKey(skill.getName())) return;
+        own(SKILLS);
+        skills.put(skill.getName(), skill);
+        if (skillCount == skillList.length) skillList = Arrays.copyOf(skillList, skillCount * 2);
+        skillList[skillCount++] = skill;
+        statsDirty = true;
+    }
+
+    /**
+     * Adds experience and applies every level up and rank up it pays for,
+     * so large grants (offline progress, events) can cross several levels at once.
+     */
     public void addExperience(int exp) {
-        experience += exp;
-        System.out.println("> Gained " + exp + " XP");
-        if (experience >= level * 100) {
-            levelUp();
+        if (!quiet) System.out.println("> Gained " + exp + " XP");
+        String before = rank;
+        int levels = gainExperience(exp);
+        if (levels > 0 && !quiet) {
+            System.out.println("\n> Level up! You're now level " + level
+                    + (levels > 1 ? " (+" + levels + ")" : ""));
+        }
+        if (!rank.equals(before) && !quiet) {
+            System.out.println("\n> Rank up! You're now " + rank + "-Rank Hunter!");
         }
-        checkRankUp();
     }
 
-    /** Checks if player is eligible for a rank up based on experience. */
-    private void checkRankUp() {
-        for (int i = 0; i < RANK_THRESHOLDS.length; i++) {
-            if (experience >= RANK_THRESHOLDS[i] && rank.equals(RANKS[i])) {
-                rank = RANKS[i+1];
-                System.out.println("\n> Rank up! You're now " + rank + "-Rank Hunter!");
-                break;
-            }
+    /**
+     * Applies a reward silently and returns the number of levels gained (see BulkRewards).
+     * Level and rank are computed in closed form, so a grant costs the same however big it is.
+     */
+    int applyReward(int exp, int goldAmount, int fameAmount) {
+        addGold(goldAmount);
+        addFame(fameAmount);
+        return gainExperience(exp);
+    }
+
+    /** Adds experience, then applies level and rank ups in closed form. Returns levels gained. */
+    private int gainExperience(int exp) {
+        if (journal != null) journal.experience(exp);
+        long total = (long) experience + exp;
+        int target = levelFor(level, total);
+        int levels = target - level;
+        // Leveling from L to L+1 costs L*100 XP; extra XP carries over
+        experience = (int) (total - levelCost(level, target));
+        if (levels > 0) levelUp(levels);
+        int before = rankIndex(rank);
+        int after = rankFor(before, experience);
+        if (after != before) {
+            rank = RANKS[after];
+            if (journal != null) journal.rankUp(after);
+        }
+        return levels;
+    }
+
+    /** XP spent going from level {@code from} to level {@code to}: 100 * (from + ... + to-1). */
+    static long levelCost(int from, int to) {
+        return 50L * ((long) to * (to - 1) - (long) from * (from - 1));
+    }
+
+    /**
+     * Highest level reachable from {@code level} with {@code experience} XP in hand.
+     * Solves 50 * (L(L-1) - level(level-1)) <= experience for the largest L.
+     */
+    static int levelFor(int level, long experience) {
+        double s = experience / 50.0 + (double) level * (level - 1);
+        int target = Math.max(level, (int) ((1 + Math.sqrt(1 + 4 * s)) / 2));
+        // Correct floating point rounding at exact thresholds
+        while (target > level && levelCost(level, target) > experience) target--;
+        while (levelCost(level, target + 1) <= experience) target++;
+        return target;
+    }
+
+    /**
+     * Rank index (into RANKS) after holding {@code experience} XP at rank {@code current}:
+     * ranks only go up, one step for every threshold the experience reaches.
+     */
+    static int rankFor(int current, int experience) {
+        int reached = 0;
+        while (reached < RANK_THRESHOLDS.length && experience >= RANK_THRESHOLDS[reached]) reached++;
+        return Math.max(current, reached);
+    }
+
+    /** Index of a rank letter in RANKS (E = 0 ... S = 5), or 0 if unknown. */
+    static int rankIndex(String rank) {
+        for (int i = 0; i < RANKS.length; i++) {
+            if (RANKS[i].equals(rank)) return i;
         }
+        return 0;
+    }
+
+    /** Rank letter for an index into RANKS. */
+    static String rankName(int index) {
+        return RANKS[index];
     }
 
-    /** Increases level and stats, restores health and mana. */
-    private void levelUp() {
-        level++;
-        experience -= (level - 1) * 100; // Carry over extra XP
-        strength += 2;
-        dexterity += 2;
-        intelligence += 2;
-        maxHP += 10;
-        maxMana += 5;
+    /** Number of hunter ranks (E through S). */
+    static int rankCount() {
+        return RANKS.length;
+    }
+
+    /** Increases level and stats by {@code levels} level ups, restores health and mana. */
+    private void levelUp(int levels) {
+        if (journal != null) journal.levelUp(levels);
+        level += levels;
+        strength += STAT_PER_LEVEL * levels;
+        dexterity += STAT_PER_LEVEL * levels;
+        intelligence += STAT_PER_LEVEL * levels;
+        maxHP += HP_PER_LEVEL * levels;
+        maxMana += MANA_PER_LEVEL * levels;
         currentHP = maxHP;
         currentMana = maxMana;
-        System.out.println("\n> Level up! You're now level " + level);
+        statsDirty = true;
     }
 
     /** Spends gold if possible, returns true if successful. */
     public boolean spendGold(int amount) {
         if (gold >= amount) {
             gold -= amount;
+            if (journal != null) journal.spendGold(amount);
             return true;
         }
         System.out.println("> Not enough gold!");
@@ -147,30 +467,52 @@ public class Hunter {
 
     /** Adds a stackable item to inventory. */
     public void addItem(String item) {
-        inventory.put(item, inventory.getOrDefault(item, 0) + 1);
+        addItem(item, 1);
+    }
+
+    /** Adds several of a stackable item at once. */
+    public void addItem(String item, int amount) {
+        if (amount <= 0) return;
+        own(INVENTORY);
+        int[] count = inventory.get(item);
+        if (count == null) inventory.put(item, new int[] {amount});
+        else count[0] += amount;
+        if (journal != null) journal.item(item, amount);
+    }
+
+    /** Returns how many of an item the hunter carries. */
+    public int getItemCount(String item) {
+        int[] count = inventory.get(item);
+        return count == null ? 0 : count[0];
     }
 
     /** Uses an item from inventory (e.g. potion, repair kit). */
     public boolean useItem(String item) {
-        if (inventory.containsKey(item) && inventory.get(item) > 0) {
-            inventory.put(item, inventory.get(item) - 1);
+        int[] count = inventory.get(item);
+        if (count != null && count[0] > 0) {
+            if ((shared & INVENTORY) != 0) {
+                own(INVENTORY);
+                count = inventory.get(item);
+            }
+            count[0]--;
+            if (journal != null) journal.useItem(item);
 
             switch(item) {
                 case "Health Potion":
-                    heal(25);
-                    System.out.println("> Healed 25 HP!");
+                    heal(HEALTH_POTION_HEAL);
+                    if (!quiet) System.out.println("> Healed " + HEALTH_POTION_HEAL + " HP!");
                     return true;
                 case "Mana Potion":
-                    restoreMana(20);
-                    System.out.println("> Restored 20 Mana!");
+                    restoreMana(MANA_POTION_RESTORE);
+                    if (!quiet) System.out.println("> Restored " + MANA_POTION_RESTORE + " Mana!");
                     return true;
                 case "Weapon Repair Kit":
                     if (equippedWeapon != null) {
-                        equippedWeapon.repair();
-                        System.out.println("> Weapon repaired!");
+                        getWeapon().repair();
+                        if (!quiet) System.out.println("> Weapon repaired!");
                         return true;
                     } else {
-                        System.out.println("> No weapon equipped to repair!");
+                        if (!quiet) System.out.println("> No weapon equipped to repair!");
                         return false;
                     }
             }
@@ -187,15 +529,17 @@ public class Hunter {
     public void takeDamage(int damage) {
         if (damage < 0) damage = 0; // Prevent negative damage
         // Apply damage reduction from Tenacity (if HP < 30%)
-        if (currentHP < maxHP * 0.3 && skills.containsKey("Tenacity")) {
+        if (getStats().isTenacious(currentHP)) {
             damage *= 0.5;
         }
+        if (!quiet) GameMetrics.get().recordDamageTaken(damage);
         currentHP -= damage;
         if (currentHP < 0) currentHP = 0;
     }
 
     /** Reduces HP directly (for monster attacks). */
     public void reduceHP(int amount) {
+        if (!quiet) GameMetrics.get().recordDamageTaken(amount);
         currentHP -= amount;
         if (currentHP < 0) currentHP = 0;
     }
@@ -213,52 +557,61 @@ public class Hunter {
 
     /** Calculates attack damage, applying crit and weapon effects. */
     public int calculateDamage() {
-        int baseDamage = equippedWeapon.getBaseDamage();
-        double critChance = equippedWeapon.getCritChance();
+        HunterStats stats = getStats(); // before the weapon effect: a proc only counts from the next hit
 
         // Apply weapon special effects (add more cases here)
-        Random rand = new Random();
         switch(equippedWeapon.getName()) {
             case "Tirungan":
-                if (rand.nextDouble() < 0.25) {
-                    currentStatus = new StatusEffect("Tetanus", 3, 3);
+                if (rand.nextDouble() < TETANUS_CHANCE) {
+                    statusSlot.copyFrom(TETANUS);
+                    currentStatus = statusSlot;
+                    statsDirty = true;
                 }
                 break;
             case "Sanga sa Kamunggay":
-                if (rand.nextDouble() < 0.2) {
-                    heal(5);
+                if (rand.nextDouble() < SANGA_HEAL_CHANCE) {
+                    heal(SANGA_HEAL);
                 }
                 break;
         }
         // Critical hit calculation
-        if (rand.nextDouble() < critChance) {
-            return baseDamage * 2;
-        }
-        return baseDamage;
+        boolean crit = rand.nextDouble() < stats.getCritChance();
+        if (!quiet) GameMetrics.get().recordHit(equippedWeapon.getName(), crit);
+        return crit ? stats.getCritDamage() : stats.getHitDamage();
     }
 
     /** Applies end-of-turn effects (passive healing, status damage, etc.) */
     public void applyEndOfTurnEffects() {
         // Passive healing from Will to Recover
         if (skills.containsKey("Will to Recover")) {
-            heal(5);
+            heal(WILL_TO_RECOVER_HEAL);
         }
         // Status effects (e.g. poison)
         if (currentStatus != null) {
+            statsDirty = true; // duration runs out, or the effect ends
             if (currentStatus.applyEffect()) {
                 takeDamage(currentStatus.getDamagePerTurn());
-                System.out.println("> " + currentStatus.getName() + " deals " +
-                                  currentStatus.getDamagePerTurn() + " damage!");
+                if (!quiet) {
+                    System.out.println("> " + currentStatus.getName() + " deals " +
+                                      currentStatus.getDamagePerTurn() + " damage!");
+                }
             } else {
                 currentStatus = null;
             }
         }
     }
 
-    /** Allows monsters to inflict status effects on the hunter. */
+    /**
+     * Allows monsters to inflict status effects on the hunter.
+     * The effect's values are copied into the hunter's own slot, so callers may pass a shared template.
+     */
     public void applyStatusEffect(StatusEffect se) {
-        this.currentStatus = se;
-        System.out.println("> Status effect applied: " + se.getName() + " (" + se.getDuration() + " turns)");
+        statusSlot.copyFrom(se);
+        this.currentStatus = statusSlot;
+        statsDirty = true;
+        if (!quiet) {
+            System.out.println("> Status effect applied: " + se.getName() + " (" + se.getDuration() + " turns)");
+        }
     }
 
     /** Displays all hunter stats, equipped weapon, and skills. */
@@ -267,6 +620,7 @@ public class Hunter {
         System.out.println(name + " | Rank: " + rank + " | Level: " + level);
         System.out.println("HP: " + currentHP + "/" + maxHP + " | Mana: " + currentMana + "/" + maxMana);
         System.out.println("Gold: " + gold + " | Fame: " + fame);
+        System.out.println("Stats: " + getStats());
         System.out.println("Weapon: " + equippedWeapon.getName() +
                           " (DMG: " + equippedWeapon.getBaseDamage() +
                           ", DUR: " + equippedWeapon.getDurability() + "/" +
@@ -286,8 +640,8 @@ public class Hunter {
         if (inventory.isEmpty()) {
             System.out.println("Your inventory is empty");
         } else {
-            for (Map.Entry<String, Integer> entry : inventory.entrySet()) {
-                System.out.println("- " + entry.getKey() + ": " + entry.getValue());
+            for (Map.Entry<String, int[]> entry : inventory.entrySet()) {
+                System.out.println("- " + entry.getKey() + ": " + entry.getValue()[0]);
             }
         }
     }
@@ -309,19 +663,26 @@ public class Hunter {
 
     /** Adds a new quest to the active quest log. */
     public void addQuest(Quest quest) {
+        own(QUESTS);
         activeQuests.add(quest);
+        if (journal != null) journal.quest(quest);
         System.out.println("> New Quest: " + quest.getTitle());
     }
 
     /** Checks quest completion conditions (e.g. after dungeon clear). */
     public void checkQuestCompletion(String dungeonName, String rank) {
+        int index = 0;
         for (Quest quest : activeQuests) {
             if (!quest.isCompleted()) {
                 if (quest.getObjective().contains(dungeonName) ||
                     quest.getObjective().contains(rank + "-Rank")) {
-                    quest.complete(this);
+                    // Read-only until a quest completes: only then copy a list shared with a fork,
+                    // and complete this hunter's own copy of the quest
+                    own(QUESTS);
+                    activeQuests.get(index).complete(this);
                 }
             }
+            index++;
         }
     }
 
@@ -333,22 +694,70 @@ public class Hunter {
     // === Getters and Setters ===
     public int getHP() { return currentHP; }
     public int getMaxHP() { return maxHP; }
+    public int getLevel() { return level; }
+    public int getExperience() { return experience; }
     public int getMana() { return currentMana; }
     public int getMaxMana() { return maxMana; }
     public int getGold() { return gold; }
     public int getFame() { return fame; }
+    public long getId() { return id; }
     public String getRank() { return rank; }
     public String getName() { return name; }
-    public Item getWeapon() { return equippedWeapon; }
+    /** The equipped weapon; copied first if it is shared with a fork, since callers use and repair it. */
+    public Item getWeapon() {
+        own(WEAPON);
+        return equippedWeapon;
+    }
+    /** Current status effect, or null if none. */
+    public StatusEffect getStatus() { return currentStatus; }
+    /** Dungeon the hunter is currently exploring, or null. */
+    public Dungeon getCurrentDungeon() { return currentDungeon; }
+    public void setCurrentDungeon(Dungeon dungeon) { currentDungeon = dungeon; }
     public boolean isAwakened() {
         return isAwakened;
     }
     public Map<String, Skill> getSkills() {
         return skills;
     }
+    /** Unlocked skill by menu position (0-based, unlock order). */
+    public Skill getSkillAt(int index) { return skillList[index]; }
+    public int getSkillCount() { return skillCount; }
+    public Random getRandom() { return rand; }
+    /** The hunter's loot guarantee counters, one slot per guaranteed table (see LootTables). */
+    int[] getLootCounters() {
+        own(LOOT);
+        if (lootCounters == null) lootCounters = new int[LootTables.get().getCounterCount()];
+        return lootCounters;
+    }
+    /** Replaces the hunter's Random (seeded simulations and replays). */
+    public void setRandom(Random rand) { this.rand = rand; }
+    /** True if combat messages and metrics are suppressed (simulations, benchmarks). */
+    public boolean isQuiet() { return quiet; }
+    public void setQuiet(boolean quiet) { this.quiet = quiet; }
+    void setLeaderboard(FameLeaderboard leaderboard) { this.leaderboard = leaderboard; }
     public boolean hasSkill(String skillName) { return skills.containsKey(skillName); }
-    public void addGold(int amount) { gold += amount; }
-    public void addFame(int amount) { fame += amount; }
-    public void setWeapon(Item weapon) { equippedWeapon = weapon; }
+    /** The journal recording this hunter's progress, or null (see startJournal()). */
+    public HunterJournal getJournal() { return journal; }
+    public void addGold(int amount) {
+        gold += amount;
+        if (journal != null) journal.gold(amount);
+    }
+    public void addFame(int amount) {
+        FAME.addAndGet(this, amount);
+        FameLeaderboard board = leaderboard;
+        if (board != null) board.update(this);
+    }
+    public void setWeapon(Item weapon) {
+        equippedWeapon = weapon;
+        shared &= ~WEAPON;
+        statsDirty = true;
+    }
+    /** Flux on or off (CombatEngine, when it is cast, wears off or a fight begins). */
+    void setFlux(boolean flux) {
+        if (this.flux != flux) {
+            this.flux = flux;
+            statsDirty = true;
+        }
+    }
     public void setMana(int amount) { currentMana = Math.max(0, Math.min(amount, maxMana)); }
 }
\ No newline at end of file
@@ -1,16 +1,15 @@
 package com.bosakon.monsterhunter;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.InputMismatchException;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Random;
-import java.util.Scanner;
-import java.util.Stack;
 
 
 
@@ -18,52 +17,86 @@ import java.util.Stack;
  * Main game controller with game loop and systems.
  * 
  * === Extension/Customization Guide ===
- * - Add new weapons: Add new Item fields (see THUNDER_BLADE example).
- * - Add new locations/NPCs: Add to locations and npcs maps in initializeWorld().
+ * - Add new weapons: Add a line to content/weapons.txt (see ContentCatalog).
+ * - Add new locations/NPCs: Add a case to createLocation()/createNpc() (built on first visit).
  * - Add new skills/items/quests: Update SkillTree, merchant inventories, and quest lists.
  * - Adjust monster generation: Integrate with Monster class as needed.
+ * - Save file location: -Dhunter.save=<path> (default hunter_save.txt).
+ * - Progress journal: -Dhunter.journal=<path> records the player's XP, gold, items, skills
+ *   and quests as events (see HunterJournal) and writes them there on every save; loading
+ *   the game continues that journal, so the history spans every session.
  */
 public class HunterGame {
 
     private Hunter player;
-    private final Scanner scanner;
+    private final InputSource input;
+    private final Random rand; // dungeon seeds, double dungeon rolls, hunter Randoms
+    private final String saveFile = System.getProperty("hunter.save", "hunter_save.txt");
+    private final String journalFile = System.getProperty("hunter.journal"); // null = no journal
     private boolean inGame;
     private boolean atHome;
 
-    // --- Starting weapons (edit/add here) ---
-    private static final Item LAPIS = new Item("Lapis", 8, 0.2, "20% critical hit chance", 50);
-    private static final Item TIRUNGAN = new Item("Tirungan", 6, 0.1, "25% chance to inflict Tetanus", 40);
-    private static final Item FLAT_SCREW = new Item("Flat Screw", 5, 0.6, "Duslak ability (60% crit)", 35);
-    private static final Item SANGGA = new Item("Sanga sa Kamunggay", 7, 0.15, "20% chance to heal on hit", 45);
+    // --- Weapons come from content/weapons.txt (starters are flagged there) ---
+    private static final String DEFAULT_WEAPON = "lapis";
 
-    // --- Special weapons (boss drops) ---
-    private static final Item DOS_PURDOS = new Item("Dos Purdos", 12, 0.3, "High critical hit chance", 60);
-    // Example: Add a new weapon
-    // private static final Item THUNDER_BLADE = new Item("Thunder Blade", 15, 0.5, "Stuns on crit", 55);
+    // --- Locations and NPCs (created lazily on first visit, see location()/npc()) ---
+    private final Map<String, Location> locations = new HashMap<>();
+    private final Map<String, NPC> npcs = new HashMap<>();
+    private final DungeonInstanceManager dungeons = DungeonInstanceManager.get();
+    private final WorldEvents world; // open gates, shared by all sessions
 
-    // --- Locations and NPCs ---
-    private Map<String, Location> locations;
-    private Map<String, NPC> npcs;
-    private Stack<Dungeon> dungeonStack = new Stack<>();
+    // --- Optional spectator view (-Dhunter.dashboard=<terminal>) ---
+    private final CombatDashboard dashboard = CombatDashboard.fromSystemProperty();
+    private final CombatEngine combatEngine = new CombatEngine(this::combatLog);
 
+    // --- Auto-battle (-Dhunter.autobattle=true: the bot fights; "5. Auto" asks it for one turn) ---
+    private static final int AUTO = 5;
+    private final boolean autoBattle = Boolean.getBoolean("hunter.autobattle");
+    private AutoBattleBot bot; // created on first use, see bot()
+
+    /** Game on the console, or on the script named by -Dhunter.input. */
     public HunterGame() {
-        scanner = new Scanner(System.in);
+        this(InputSource.fromSystemProperty());
+    }
+
+    /** Game driven by any input: console, script file or in-memory script (see SoakTest). */
+    public HunterGame(InputSource input) {
+        this(input, new Random());
+    }
+
+    /** Game whose every roll comes from the given Random, so a seed and an input replay a session exactly (see GoldenRunSuite). */
+    public HunterGame(InputSource input, Random rand) {
+        this(input, rand, WorldEvents.get());
+    }
+
+    /** Game in its own world, e.g. one whose clock the caller ticks (see GoldenRunSuite). */
+    HunterGame(InputSource input, Random rand, WorldEvents world) {
+        this.input = input;
+        this.rand = rand;
+        this.world = world;
         inGame = true;
         atHome = false;
     }
 
     public static void main(String[] args) {
         HunterGame game = new HunterGame();
-        game.startGame();
+        try {
+            game.startGame();
+        } catch (NoSuchElementException e) {
+            System.out.println("\n> Input ended. Thanks for playing!");
+        }
     }
 
+    /** Reads a menu choice, asking again until the line is a number. */
     private int getIntInput() {
+        long promptShown = System.nanoTime();
         while (true) {
             try {
-                return scanner.nextInt();
+                int value = input.readInt();
+                GameMetrics.get().recordPromptLatency(System.nanoTime() - promptShown);
+                return value;
             } catch (InputMismatchException e) {
                 System.out.println("Invalid input! Please enter a number.");
-                scanner.nextLine(); // Clear invalid input
             }
         }
     }
@@ -76,60 +109,96 @@ public class HunterGame {
         System.out.println("     WELCOME TO THE HUNTER GAME      ");
         System.out.println("=====================================");
         System.out.print("Enter your Hunter's name: ");
-        String name = scanner.nextLine();
-
-        System.out.print("\nChoose your starting weapon (Lapis, Tirungan, Flat Screw): ");
-        String weaponChoice = scanner.nextLine().toLowerCase();
-
-        Item weapon;
-        if (weaponChoice.contains("lapis")) {
-            weapon = LAPIS;
-        } else if (weaponChoice.contains("tirungan")) {
-            weapon = TIRUNGAN;
-        } else if (weaponChoice.contains("flat") || weaponChoice.contains("screw")) {
-            weapon = FLAT_SCREW;
-        } else {
+        String name = input.readLine();
+
+        ContentCatalog catalog = ContentCatalog.get();
+        StringBuilder starters = new StringBuilder();
+        for (int i = 0; i < catalog.getWeaponCount(); i++) {
+            if (!catalog.isStarterWeapon(i)) continue;
+            if (starters.length() > 0) starters.append(", ");
+            starters.append(catalog.getWeaponName(i));
+        }
+        System.out.print("\nChoose your starting weapon (" + starters + "): ");
+        String weaponChoice = input.readLine().toLowerCase();
+
+        // Any word of a starter weapon's name selects it (e.g. "flat" or "screw")
+        Item weapon = null;
+        for (int i = 0; i < catalog.getWeaponCount() && weapon == null; i++) {
+            if (!catalog.isStarterWeapon(i)) continue;
+            for (String word : catalog.getWeaponName(i).toLowerCase().split(" ")) {
+                if (weaponChoice.contains(word)) {
+                    weapon = catalog.createWeapon(i);
+                    break;
+                }
+            }
+        }
+        if (weapon == null) {
             System.out.println("Invalid choice, defaulting to Lapis");
-            weapon = LAPIS;
+            weapon = catalog.createWeapon(DEFAULT_WEAPON);
         }
 
-        player = new Hunter(name, weapon);
+        setPlayer(new Hunter(name, weapon));
         System.out.println("\nWelcome Hunter " + name + "!");
 
         initializeWorld();
-        mainMenu();
+        try {
+            mainMenu();
+        } finally {
+            // Session over (or input ended): the player leaves the live leaderboard
+            FameLeaderboard.get().unregister(player);
+            if (bot != null) bot.close();
+        }
     }
 
     /**
-     * Initializes locations, NPCs, and initial quests.
-     * Extend here to add new content.
+     * Initializes the world state needed before the first prompt (initial quests).
+     * Locations and NPCs are not built here; they are created on first visit
+     * so startup stays off the critical path for on-demand session workers.
      */
     private void initializeWorld() {
-        // --- Create locations (add more here) ---
-        locations = new HashMap<>();
-        locations.put("market", new Location("Market", "A bustling marketplace filled with merchants"));
-        locations.put("gym", new Location("Gym", "Training facility to improve your skills"));
-        locations.put("center", new Location("Hunter Center",
-                "Hub for hunter analysis and System information\n"
-                + " - 2D Echo: Visual heart health scan\n"
-                + " - Mana Crystal: Rank assessment technology\n"
-                + " - System Terminal: Access game information"));
-        locations.put("home", new Location("Home", "Your safe haven to rest and recover"));
-        // Example: locations.put("library", new Location("Library", "A quiet place of ancient secrets."));
-
-        // --- Create NPCs (add more here) ---
-        npcs = new HashMap<>();
-        npcs.put("market_merchant", new NPC("merchant", "Old Man Jenkins"));
-        npcs.put("center_clerk", new NPC("friend", "Clerk Sarah"));
-        npcs.put("reporter", new NPC("reporter", "Lois Lane"));
-        npcs.put("quest_giver", new NPC("quest_giver", "Master Hunter Rodriguez"));
-        // Example: npcs.put("sage", new NPC("sage", "Old Sage Merlin"));
-
         // --- Initial quests (add more as desired) ---
         player.addQuest(new Quest("First Hunt", "Clear any E-Rank dungeon", 100, 50, "Will to Recover"));
         player.addQuest(new Quest("Red Gate Challenge", "Clear a C-Rank dungeon", 300, 150, "Tenacity"));
     }
 
+    /** Returns a location, creating it on first visit. */
+    private Location location(String key) {
+        return locations.computeIfAbsent(key, HunterGame::createLocation);
+    }
+
+    /** Returns an NPC, creating it on first visit. */
+    private NPC npc(String key) {
+        return npcs.computeIfAbsent(key, HunterGame::createNpc);
+    }
+
+    /** Builds a location by key (add more here). */
+    private static Location createLocation(String key) {
+        switch (key) {
+            case "market": return new Location("Market", "A bustling marketplace filled with merchants");
+            case "gym": return new Location("Gym", "Training facility to improve your skills");
+            case "center": return new Location("Hunter Center",
+                    "Hub for hunter analysis and System information\n"
+                    + " - 2D Echo: Visual heart health scan\n"
+                    + " - Mana Crystal: Rank assessment technology\n"
+                    + " - System Terminal: Access game information");
+            case "home": return new Location("Home", "Your safe haven to rest and recover");
+            // Example: case "library": return new Location("Library", "A quiet place of ancient secrets.");
+            default: throw new IllegalArgumentException("Unknown location: " + key);
+        }
+    }
+
+    /** Builds an NPC by key (add more here). */
+    private static NPC createNpc(String key) {
+        switch (key) {
+            case "market_merchant": return new NPC("merchant", "Old Man Jenkins");
+            case "center_clerk": return new NPC("friend", "Clerk Sarah");
+            case "reporter": return new NPC("reporter", "Lois Lane");
+            case "quest_giver": return new NPC("quest_giver", "Master Hunter Rodriguez");
+            // Example: case "sage": return new NPC("sage", "Old Sage Merlin");
+            default: throw new IllegalArgumentException("Unknown NPC: " + key);
+        }
+    }
+
     /**
      * Main menu loop.
      */
@@ -144,7 +213,6 @@ public class HunterGame {
             System.out.print("Please enter your choice: ");
 
             int choice = getIntInput();
-            scanner.nextLine(); // Consume newline
 
             switch (choice) {
                 case 1: enterDungeon(); break;
@@ -169,7 +237,7 @@ public class HunterGame {
     private void goHome() {
         atHome = true;
         while (atHome && inGame) {
-            locations.get("home").enter();
+            location("home").enter();
 
             System.out.println("1. Save Game");
             System.out.println("2. Load Game");
@@ -182,7 +250,6 @@ public class HunterGame {
             System.out.print("Please enter your choice: ");
 
             int choice = getIntInput();
-            scanner.nextLine(); // Consume newline
 
             switch (choice) {
                 case 1: saveGame(); break;
@@ -202,49 +269,102 @@ public class HunterGame {
      * Saves game state (expand for more detail if needed).
      */
     private void saveGame() {
-        try (FileWriter writer = new FileWriter("hunter_save.txt")) {
+        long start = System.nanoTime();
+        GameEvents.Persistence event = new GameEvents.Persistence();
+        event.begin();
+        event.operation = "save";
+        try (FileWriter writer = new FileWriter(saveFile)) {
             writer.write(player.getName() + "\n");
             writer.write(player.getRank() + "\n");
             writer.write(player.getHP() + "\n");
             writer.write(player.getGold() + "\n");
             writer.write(player.getFame() + "\n");
             writer.write(player.getWeapon().getName() + "\n");
+            writer.write(System.currentTimeMillis() + "\n"); // for offline progress on load
+            if (player.getJournal() != null) player.getJournal().save(new File(journalFile));
+            GameMetrics.get().recordSave(System.nanoTime() - start);
+            event.success = true;
             System.out.println("> Game saved successfully!");
         } catch (IOException e) {
             System.out.println("> ERROR: Failed to save game - " + e.getMessage());
         }
+        GameEvents.commit(event, player);
     }
 
     /**
      * Loads game state (expand for more detail if needed).
      */
     private void loadGame() {
-        try (BufferedReader reader = new BufferedReader(new FileReader("hunter_save.txt"))) {
+        long start = System.nanoTime();
+        GameEvents.Persistence event = new GameEvents.Persistence();
+        event.begin();
+        event.operation = "load";
+        try (BufferedReader reader = new BufferedReader(new FileReader(saveFile))) {
             String name = reader.readLine();
             String rank = reader.readLine();
             int hp = Integer.parseInt(reader.readLine());
             int gold = Integer.parseInt(reader.readLine());
             int fame = Integer.parseInt(reader.readLine());
             String weaponName = reader.readLine();
-
-            Item weapon;
-            switch (weaponName) {
-                case "Lapis": weapon = LAPIS; break;
-                case "Tirungan": weapon = TIRUNGAN; break;
-                case "Flat Screw": weapon = FLAT_SCREW; break;
-                case "Sanga sa Kamunggay": weapon = SANGGA; break;
-                case "Dos Purdos": weapon = DOS_PURDOS; break;
-                default: weapon = LAPIS;
-            }
-
-            player = new Hunter(name, weapon);
-            player.addGold(gold);
+            String savedAt = reader.readLine(); // null in saves from older versions
+
+            ContentCatalog catalog = ContentCatalog.get();
+            int weaponIndex = catalog.getWeaponIndexByName(weaponName);
+            Item weapon = weaponIndex >= 0 ? catalog.createWeapon(weaponIndex)
+                                           : catalog.createWeapon(DEFAULT_WEAPON);
+
+            Hunter hunter = new Hunter(name, weapon);
+            HunterJournal journal = loadJournal(name);
+            if (journal != null) hunter.resumeJournal(journal); // level, XP, gold, items, skills, quests
+            else hunter.addGold(gold);
+            setPlayer(hunter);
             player.addFame(fame);
             // Note: This simplified load doesn't restore all state
+            GameMetrics.get().recordLoad(System.nanoTime() - start);
+            event.success = true;
             System.out.println("> Game loaded successfully!");
-        } catch (IOException e) {
+            if (savedAt != null) grantOfflineProgress(Long.parseLong(savedAt.trim()));
+        } catch (IOException | NumberFormatException e) {
             System.out.println("> ERROR: Failed to load game - " + e.getMessage());
         }
+        GameEvents.commit(event, player);
+    }
+
+    /** Makes a new or loaded hunter the player, replacing the previous one on the dashboard and fame leaderboard. */
+    private void setPlayer(Hunter hunter) {
+        if (player != null) FameLeaderboard.get().unregister(player);
+        player = hunter;
+        player.setRandom(new Random(rand.nextLong()));
+        if (journalFile != null && player.getJournal() == null) player.startJournal();
+        dashboard.setHunter(player);
+        FameLeaderboard.get().register(player);
+    }
+
+    /** The saved journal (-Dhunter.journal) if it exists and belongs to this hunter, else null. */
+    private HunterJournal loadJournal(String hunterName) {
+        if (journalFile == null || !new File(journalFile).exists()) return null;
+        try {
+            HunterJournal journal = HunterJournal.load(new File(journalFile));
+            if (journal.getHead().getName().equals(hunterName)) return journal;
+            System.out.println("> The journal in " + journalFile + " belongs to another hunter; starting a new one");
+        } catch (IOException e) {
+            System.out.println("> ERROR: Failed to read journal - " + e.getMessage());
+        }
+        return null;
+    }
+
+    /** The current player (null before startGame() has created one). */
+    Hunter getPlayer() {
+        return player;
+    }
+
+    /** Grants AFK dungeon run rewards for the time since the save (see IdleProgress). */
+    private void grantOfflineProgress(long savedAtMillis) {
+        long away = System.currentTimeMillis() - savedAtMillis;
+        if (away < 60_000) return;
+        System.out.println("> While you were away (" + away / 60_000 + " min), you kept hunting...");
+        IdleProgress.Report report = IdleProgress.get().grant(player, away, rand);
+        System.out.println("> " + report);
     }
 
     /**
@@ -253,7 +373,7 @@ public class HunterGame {
     private void trainSkills() {
         player.displayAvailableSkills();
         System.out.print("\nEnter skill name to train (or 'back'): ");
-        String skillName = scanner.nextLine();
+        String skillName = input.readLine();
 
         if ("back".equalsIgnoreCase(skillName)) return;
 
@@ -293,11 +413,10 @@ public class HunterGame {
             System.out.print("Please enter your choice: ");
 
             int choice = getIntInput();
-            scanner.nextLine(); // Consume newline
 
             switch (choice) {
-                case 1: locations.get("market").enter(); npcs.get("market_merchant").interact(player); break;
-                case 2: locations.get("gym").enter(); System.out.println("You spend an hour training..."); player.addExperience(15); break;
+                case 1: location("market").enter(); npc("market_merchant").interact(player, input); break;
+                case 2: location("gym").enter(); System.out.println("You spend an hour training..."); player.addExperience(15); break;
                 case 3: visitCenter(); break;
                 case 0: outside = false; break;
                 default: System.out.println("Invalid choice");
@@ -305,11 +424,24 @@ public class HunterGame {
         }
     }
 
+    // --- Center visualizations: rasterized once per key, then written in one call ---
+    private static final String[] HEALTH_ANALYSIS = {
+        "Cardiovascular system: Optimal",
+        "Cardiovascular system: Strong",
+        "Cardiovascular system: Stable",
+        "Cardiovascular system: Weakened",
+        "Cardiovascular system: Critical",
+        "Cardiovascular system: Failure imminent"
+    };
+    private static final String[] RANK_COLORS = {"\u001B[37m", "\u001B[34m", "\u001B[36m", "\u001B[32m", "\u001B[33m", "\u001B[31m"};
+    private static final String[] RANK_NAMES = {"E-Rank", "D-Rank", "C-Rank", "B-Rank", "A-Rank", "S-Rank"};
+    private static final FrameCache<Integer> HEART_FRAMES = new FrameCache<>(HunterGame::renderHeartFrame);
+    private static final FrameCache<Integer> CRYSTAL_FRAMES = new FrameCache<>(HunterGame::renderCrystalFrame);
+
     /**
      * Displays the 2D Heart Echo (ASCII heart visualization).
      */
     private void displayHeartEcho() {
-        int heartSize = 10;
         int currentHP = player.getHP();
         int maxHP = player.getMaxHP();
 
@@ -322,71 +454,80 @@ public class HunterGame {
         System.out.println("Cardiovascular Status: " + healthPercent + "% functionality");
         System.out.println("Current HP: " + currentHP + "/" + maxHP);
 
-        // ASCII heart visualization
+        // Heart art and analysis only depend on the health band
+        HEART_FRAMES.write(healthBand(healthPercent), System.out);
+    }
+
+    /** Maps a health percentage to its analysis band (0 = Optimal ... 5 = Failure imminent). */
+    private static int healthBand(int healthPercent) {
+        if (healthPercent > 90) return 0;
+        if (healthPercent > 70) return 1;
+        if (healthPercent > 50) return 2;
+        if (healthPercent > 30) return 3;
+        if (healthPercent > 10) return 4;
+        return 5;
+    }
+
+    /** Rasterizes the heart for one health band: ASCII heart plus the health analysis line. */
+    private static String renderHeartFrame(int band) {
+        int heartSize = 10;
+        String nl = System.lineSeparator();
+        // Color based on health status (>70% green, >30% yellow, else red)
+        String color = band <= 1 ? "\u001B[32m" : band <= 3 ? "\u001B[33m" : "\u001B[31m";
+
+        StringBuilder sb = new StringBuilder();
         for (int y = -heartSize; y <= heartSize; y++) {
+            boolean inHeart = false;
             for (int x = -2 * heartSize; x <= 2 * heartSize; x++) {
                 double formula = Math.pow(x * 0.04, 2) + Math.pow(y * 0.1, 2) - Math.pow(heartSize * 0.1, 2);
-                if (Math.abs(formula) < heartSize * 0.3) {
-                    // Color based on health status
-                    if (healthPercent > 70) {
-                        System.out.print("\u001B[32m♥\u001B[0m");
-                    } else if (healthPercent > 30) {
-                        System.out.print("\u001B[33m♥\u001B[0m");
-                    } else {
-                        System.out.print("\u001B[31m♥\u001B[0m");
-                    }
-                } else {
-                    System.out.print(" ");
-                }
+                boolean cell = Math.abs(formula) < heartSize * 0.3;
+                // One color span per run of hearts instead of per glyph
+                if (cell && !inHeart) sb.append(color);
+                if (!cell && inHeart) sb.append("\u001B[0m");
+                sb.append(cell ? '♥' : ' ');
+                inHeart = cell;
             }
-            System.out.println();
+            if (inHeart) sb.append("\u001B[0m");
+            sb.append(nl);
         }
 
         // Health status interpretation
-        System.out.println("\nHealth Analysis:");
-        if (healthPercent > 90) {
-            System.out.println("Cardiovascular system: Optimal");
-        } else if (healthPercent > 70) {
-            System.out.println("Cardiovascular system: Strong");
-        } else if (healthPercent > 50) {
-            System.out.println("Cardiovascular system: Stable");
-        } else if (healthPercent > 30) {
-            System.out.println("Cardiovascular system: Weakened");
-        } else if (healthPercent > 10) {
-            System.out.println("Cardiovascular system: Critical");
-        } else {
-            System.out.println("Cardiovascular system: Failure imminent");
-        }
+        sb.append(nl).append("Health Analysis:").append(nl);
+        sb.append(HEALTH_ANALYSIS[band]).append(nl);
+        return sb.toString();
     }
 
     /**
      * Displays rank visualization (Mana Crystal).
      */
     private void displayManaCrystal() {
-        String[] rankColors = {"\u001B[37m", "\u001B[34m", "\u001B[36m", "\u001B[32m", "\u001B[33m", "\u001B[31m"};
-        String[] rankNames = {"E-Rank", "D-Rank", "C-Rank", "B-Rank", "A-Rank", "S-Rank"};
-        int rankIndex = Arrays.asList("E", "D", "C", "B", "A", "S").indexOf(player.getRank());
+        CRYSTAL_FRAMES.write(getRankValue(player.getRank()) - 1, System.out);
+    }
 
-        System.out.println("\n--- MANA CRYSTAL ANALYSIS ---");
-        System.out.println("Current Rank: " + rankNames[rankIndex]);
+    /** Rasterizes the full Mana Crystal screen for one rank index (0 = E ... 5 = S). */
+    private static String renderCrystalFrame(int rankIndex) {
+        String nl = System.lineSeparator();
+        StringBuilder sb = new StringBuilder();
+        sb.append(nl).append("--- MANA CRYSTAL ANALYSIS ---").append(nl);
+        sb.append("Current Rank: ").append(RANK_NAMES[rankIndex]).append(nl);
 
         // ASCII crystal visualization
-        String color = rankColors[rankIndex];
-        System.out.println(color + "    /\\");
-        System.out.println("   /  \\");
-        System.out.println("  /    \\");
-        System.out.println(" /      \\");
-        System.out.println(" \\      /");
-        System.out.println("  \\    /");
-        System.out.println("   \\  /");
-        System.out.println("    \\/\u001B[0m");
+        sb.append(RANK_COLORS[rankIndex]).append("    /\\").append(nl);
+        sb.append("   /  \\").append(nl);
+        sb.append("  /    \\").append(nl);
+        sb.append(" /      \\").append(nl);
+        sb.append(" \\      /").append(nl);
+        sb.append("  \\    /").append(nl);
+        sb.append("   \\  /").append(nl);
+        sb.append("    \\/\u001B[0m").append(nl);
 
         // Rank progression
-        System.out.println("\nRank Progression:");
+        sb.append(nl).append("Rank Progression:").append(nl);
         for (int i = 0; i <= 5; i++) {
             String indicator = (i <= rankIndex) ? "◉" : "○";
-            System.out.println(rankColors[i] + indicator + " " + rankNames[i] + "\u001B[0m");
+            sb.append(RANK_COLORS[i]).append(indicator).append(' ').append(RANK_NAMES[i]).append("\u001B[0m").append(nl);
         }
+        return sb.toString();
     }
 
     /**
@@ -395,7 +536,7 @@ public class HunterGame {
     private void visitCenter() {
         boolean inCenter = true;
         while (inCenter && inGame) {
-            locations.get("center").enter();
+            location("center").enter();
 
             System.out.println("\nCenter Services:");
             System.out.println("1. 2D Heart Echo Scan");
@@ -407,14 +548,13 @@ public class HunterGame {
             System.out.print("Select service: ");
 
             int choice = getIntInput();
-            scanner.nextLine();  // Consume newline
 
             switch (choice) {
                 case 1: displayHeartEcho(); break;
                 case 2: displayManaCrystal(); break;
                 case 3: displaySystemInfo(); break;
-                case 4: npcs.get("center_clerk").interact(player); break;
-                case 5: npcs.get("quest_giver").interact(player); break;
+                case 4: npc("center_clerk").interact(player, input); break;
+                case 5: npc("quest_giver").interact(player, input); break;
                 case 0: inCenter = false; break;
                 default: System.out.println("Invalid choice!");
             }
@@ -437,7 +577,11 @@ public class HunterGame {
 
         System.out.println("\nRecent Notifications:");
         System.out.println("- Red Gate activity: Increased");
-        System.out.println("- Double Dungeon probability: 5%");
+        StringBuilder gates = new StringBuilder("- Open gates:");
+        for (String rank : new String[] {"E", "D", "C", "B", "A", "S"}) {
+            gates.append(' ').append(rank).append(' ').append(world.getOpenGates(rank));
+        }
+        System.out.println(gates);
     }
 
     /**
@@ -456,7 +600,6 @@ public class HunterGame {
 
         String rankChoice;
         int choice = getIntInput();
-        scanner.nextLine(); // Consume newline
         switch (choice) {
             case 1: rankChoice = "E"; break;
             case 2: rankChoice = "D"; break;
@@ -475,7 +618,13 @@ public class HunterGame {
             return;
         }
 
-        Dungeon dungeon = new Dungeon(rankChoice);
+        // Enter one of the world's open gates of that rank (see WorldEvents), else a minor gate
+        WorldEvents.Gate gate = world.findGate(rankChoice, rand);
+        Dungeon dungeon = dungeons.open(rankChoice, gate != null ? gate.getSeed() : rand.nextLong());
+        if (gate != null) {
+            System.out.println("\n> " + gate + " - closes in " + gate.ticksLeft(world.getTick()) + " ticks");
+            if (gate.isRedGate()) dungeon.setAsRedGate();
+        }
 
         // Red gate mechanics
         if (dungeon.isRedGate()) {
@@ -483,10 +632,10 @@ public class HunterGame {
             System.out.println("> You cannot leave until you clear all floors!");
         }
 
-        // Double dungeon chance
-        Random rand = new Random();
-        if (rand.nextDouble() < 0.06) { // 6% chance
-            Dungeon doubleDungeon = new Dungeon("S");
+        // A Double Dungeon hides behind some gates
+        if (gate != null && gate.isDoubleDungeon()) {
+            dungeons.close(dungeon);
+            Dungeon doubleDungeon = dungeons.open("S", ~gate.getSeed());
             doubleDungeon.setAsDoubleDungeon();
             System.out.println("\n> WARNING: Hidden Double Dungeon detected!");
             System.out.println("> You've been transported to " + doubleDungeon.getName() + " Dungeon!");
@@ -497,14 +646,19 @@ public class HunterGame {
         System.out.println("You are entering the " + dungeon.getName() + " Dungeon.");
         System.out.println("===================================================");
 
-        dungeonStack.push(dungeon);
-        exploreDungeon(dungeon);
+        player.setCurrentDungeon(dungeon);
+        try {
+            exploreDungeon(dungeon);
+        } finally {
+            player.setCurrentDungeon(null);
+            dungeons.close(dungeon);
+        }
     }
 
     /**
      * Converts rank string to numerical value.
      */
-    private int getRankValue(String rank) {
+    private static int getRankValue(String rank) {
         switch (rank) {
             case "E": return 1;
             case "D": return 2;
@@ -527,13 +681,21 @@ public class HunterGame {
             System.out.println("===============================================");
             System.out.println("Your Health: " + player.getHP());
 
-            // Generate monsters (1-3 per floor)
-            Random rand = new Random();
-            int monsterCount = 1 + rand.nextInt(3);
-            Monster[] monsters = new Monster[monsterCount];
-            for (int i = 0; i < monsterCount; i++) {
-                monsters[i] = new Monster(dungeon.getCurrentFloor(), dungeon.getRank());
-                // To customize monster creation, edit Monster.java as needed.
+            // Floor layout comes from the dungeon's seeded generator (see DungeonGenerator).
+            // The next floor is built in the background while this one is fought.
+            DungeonGenerator.Floor floor = dungeon.getFloor();
+            dungeon.getGenerator().prefetch(floor.getNumber() + 1);
+            dungeons.touch(dungeon);
+            Monster[] monsters = floor.getMonsters();
+            int monsterCount = monsters.length;
+            dashboard.showFloor(dungeon, monsters);
+
+            if (floor.isBossFloor()) {
+                System.out.println("> BOSS FLOOR! A powerful presence fills the room...");
+            }
+            if (player.hasSkill("Dungeon Sense") && floor.takeHiddenPath()) {
+                System.out.println("> Dungeon Sense: You detect a hidden path and find a Mana Potion!");
+                player.addItem("Mana Potion");
             }
 
             System.out.println("Monsters: " + monsterCount);
@@ -545,17 +707,20 @@ public class HunterGame {
 
             int choice = -1;
             while (choice < 0 || choice > monsterCount) {
-                try {
-                    System.out.print("Choose a monster to attack (1-" + monsterCount + " or 0 to leave): ");
-                    choice = scanner.nextInt();
-                    scanner.nextLine();
+                if (autoBattle) {
+                    choice = bot().chooseTarget(player, monsters) + 1;
+                    System.out.println("> Auto: targeting " + monsters[choice - 1].getName());
+                } else {
+                    try {
+                        System.out.print("Choose a monster to attack (1-" + monsterCount + " or 0 to leave): ");
+                        choice = input.readInt();
 
-                    if (choice < 0 || choice > monsterCount) {
-                        System.out.println("Invalid choice! Please enter between 0 and " + monsterCount);
+                        if (choice < 0 || choice > monsterCount) {
+                            System.out.println("Invalid choice! Please enter between 0 and " + monsterCount);
+                        }
+                    } catch (InputMismatchException e) {
+                        System.out.println("Invalid input! Please enter a number.");
                     }
-                } catch (InputMismatchException e) {
-                    System.out.println("Invalid input! Please enter a number.");
-                    scanner.nextLine();
                 }
                 if (choice == 0) {
                     if (dungeon.isRedGate()) {
@@ -571,10 +736,19 @@ public class HunterGame {
                 }
 
                 Monster target = monsters[choice - 1];
-                System.out.println("You attack the " + target.getName() + "!");
+                if (!target.isAlive()) {
+                    System.out.println("The " + target.getName() + " is already defeated!");
+                    continue;
+                }
+                combatLog("You attack the " + target.getName() + "!");
+                dashboard.setTarget(target);
 
                 // Combat with selected monster
                 boolean monsterDefeated = combat(target);
+                if (monsterDefeated && floor.getMonsterDrop(choice - 1) != LootTable.NOTHING) {
+                    System.out.println("> The " + target.getName() + " dropped a "
+                            + LootTables.get().grant(player, floor.getMonsterDrop(choice - 1)) + "!");
+                }
 
                 if (!player.isAlive()) {
                     System.out.println("You have been defeated!");
@@ -586,25 +760,28 @@ public class HunterGame {
                     return;
                 }
 
-                if (monsterDefeated) {
-                    // Check if all monsters are defeated
-                    boolean allDefeated = true;
-                    for (Monster m : monsters) {
-                        if (m.isAlive()) {
-                            allDefeated = false;
-                            break;
-                        }
+                if (monsterDefeated && floor.isCleared()) {
+                    GameEvents.FloorTransition transition = new GameEvents.FloorTransition();
+                    transition.begin();
+                    System.out.println();
+                    combatLog("> All monsters on this floor defeated!");
+                    // Loot was pre-rolled with the floor layout
+                    if (floor.getClearDrop() != LootTable.NOTHING) {
+                        System.out.println("> You found a " + LootTables.get().grant(player, floor.getClearDrop()) + "!");
                     }
-                    if (allDefeated) {
-                        System.out.println("\n> All monsters on this floor defeated!");
+                    dungeon.getGenerator().release(floor.getNumber());
+                    dungeon.nextFloor();
+                    if (dungeon.isCleared()) {
+                        GameMetrics.get().recordDungeonClear(dungeon.getRank());
+                        System.out.println("> The boss has fallen. " + dungeon.getName() + " Dungeon cleared!");
+                        inDungeon = false;
+                    } else {
                         System.out.println("> Advancing to next floor...");
-                        dungeon.nextFloor();
-                        // Chance to find healing
-                        if (rand.nextDouble() < 0.4) {
-                            System.out.println("> You found a Health Potion!");
-                            player.addItem("Health Potion");
-                        }
+                        dungeon.getFloor(); // picks up the prefetched layout
                     }
+                    transition.fromFloor = floor.getNumber();
+                    transition.cleared = !inDungeon;
+                    GameEvents.commit(transition, player);
                 }
                 // Check quest completion
                 player.checkQuestCompletion(dungeon.getName(), dungeon.getRank());
@@ -612,17 +789,42 @@ public class HunterGame {
         }
     }
 
+    /** The auto-battle bot; thinking time per decision from -Dhunter.autobattle.budget (ms). */
+    private AutoBattleBot bot() {
+        if (bot == null) bot = new AutoBattleBot(Long.getLong("hunter.autobattle.budget", 200));
+        return bot;
+    }
+
+    /** Prints a combat message and mirrors it to the dashboard log. */
+    private void combatLog(String message) {
+        System.out.println(message);
+        dashboard.log(message);
+    }
+
+    /** Name of a combat action for CombatTurn events. */
+    private static String actionName(int action) {
+        switch (action) {
+            case CombatEngine.ATTACK: return "attack";
+            case CombatEngine.SKILL: return "skill";
+            case CombatEngine.ITEM: return "item";
+            case CombatEngine.FLEE: return "flee";
+            default: return "hesitate";
+        }
+    }
+
     /**
-     * Combat system. Integrate with Monster and Hunter logic as needed.
-     * Add new skills/items here.
+     * Combat system: menus and rewards here, rules in CombatEngine.
+     * Add new skills/items here and in CombatEngine.
      */
     private boolean combat(Monster monster) {
-        boolean inCombat = true;
-        boolean usedFlux = false;
-        int fluxTurns = 0;
+        combatEngine.begin(player, monster);
 
-        while (inCombat && player.isAlive() && monster.isAlive()) {
-            player.applyEndOfTurnEffects();
+        while (!combatEngine.isOver()) {
+            GameEvents.CombatTurn turnEvent = new GameEvents.CombatTurn();
+            turnEvent.begin();
+            turnEvent.monster = monster.getName();
+            combatEngine.startTurn();
+            dashboard.refresh();
 
             System.out.println("\n" + monster.getName() + " | Level: " + monster.getLevel()
                     + " | Health: " + monster.getHealth());
@@ -631,127 +833,112 @@ public class HunterGame {
             System.out.println("2. Use Skill");
             System.out.println("3. Use Item");
             System.out.println("4. Attempt Flee");
-            System.out.print("Select: ");
-
-            int action = scanner.nextInt();
-            scanner.nextLine(); // Consume newline
-            int damage = 0;
+            System.out.println("5. Auto");
+
+            int action;
+            AutoBattleBot.Decision decision = null;
+            if (!autoBattle) {
+                System.out.print("Select: ");
+                action = getIntInput();
+            } else {
+                action = AUTO;
+            }
+            if (action == AUTO) {
+                decision = bot().decide(player, monster, combatEngine.getFluxTurns());
+                combatLog("> Auto: " + decision);
+                action = decision.getAction();
+            }
 
             switch (action) {
-                case 1: // Attack
-                    int attackDamage = player.getWeapon().use();
-                    if (attackDamage > 1) {
-                        damage = player.calculateDamage();
-                        System.out.println("You deal " + damage + " damage!");
-                        monster.takeDamage(damage);
-                    } else {
-                        System.out.println("Your weapon broke! Attack failed.");
-                    }
+                case CombatEngine.ATTACK:
+                    combatEngine.attack();
                     break;
 
-                case 2: // Use Skill
-                    if (player.isAwakened()) {
-                        Map<String, Skill> skills = player.getSkills();
+                case CombatEngine.SKILL:
+                    if (decision != null) {
+                        combatEngine.useSkill(decision.getSkill());
+                    } else if (player.isAwakened()) {
                         System.out.println("Available Skills:");
-                        int index = 1;
-                        for (Skill skill : skills.values()) {
-                            System.out.println(index++ + ". " + skill.getName()
+                        int count = player.getSkillCount();
+                        for (int i = 0; i < count; i++) {
+                            Skill skill = player.getSkillAt(i);
+                            System.out.println((i + 1) + ". " + skill.getName()
                                     + " (" + skill.getManaCost() + " MP)");
                         }
-                        System.out.println(index + ". Cancel");
+                        System.out.println((count + 1) + ". Cancel");
 
                         System.out.print("Select skill: ");
-                        int skillChoice = scanner.nextInt();
-                        scanner.nextLine(); // Consume newline
-                        if (skillChoice == index) continue;
-
-                        Skill[] skillArray = skills.values().toArray(new Skill[0]);
-                        if (skillChoice > 0 && skillChoice <= skillArray.length) {
-                            Skill selectedSkill = skillArray[skillChoice - 1];
-
-                            if (player.getMana() >= selectedSkill.getManaCost()) {
-                                switch (selectedSkill.getName()) {
-                                    case "Healing": player.heal(30); System.out.println("> Healed 30 HP!"); break;
-                                    case "Flux": usedFlux = true; fluxTurns = 4; System.out.println("> ATK/DEF boosted for 4 turns!"); break;
-                                    case "Stealth": System.out.println("> You vanish from sight!"); break;
-                                }
-                                // Properly reduce mana (should be setMana, not addGold)
-                                // player.setMana(player.getMana() - selectedSkill.getManaCost());
-                            } else {
-                                System.out.println("Not enough mana!");
-                            }
+                        int skillChoice = getIntInput();
+                        if (skillChoice == count + 1) continue;
+
+                        if (skillChoice > 0 && skillChoice <= count) {
+                            combatEngine.useSkill(player.getSkillAt(skillChoice - 1));
                         }
                     } else {
                         System.out.println("Skills not unlocked yet!");
                     }
                     break;
 
-                case 3: // Use Item
+                case CombatEngine.ITEM:
+                    if (decision != null) {
+                        combatEngine.useItem(decision.getItem());
+                        break;
+                    }
                     System.out.println("1. Health Potion");
                     System.out.println("2. Mana Potion");
                     System.out.println("3. Weapon Repair Kit");
                     System.out.println("4. Cancel");
                     System.out.print("Select: ");
 
-                    int itemChoice = scanner.nextInt();
-                    scanner.nextLine(); // Consume newline
+                    int itemChoice = getIntInput();
                     switch (itemChoice) {
-                        case 1: player.useItem("Health Potion"); break;
-                        case 2: player.useItem("Mana Potion"); break;
-                        case 3: player.useItem("Weapon Repair Kit"); break;
+                        case 1: combatEngine.useItem("Health Potion"); break;
+                        case 2: combatEngine.useItem("Mana Potion"); break;
+                        case 3: combatEngine.useItem("Weapon Repair Kit"); break;
                     }
                     break;
 
-                case 4: // Flee
-                    if (new Random().nextDouble() < 0.4) {
-                        System.out.println("You escaped successfully!");
+                case CombatEngine.FLEE:
+                    if (combatEngine.flee()) {
+                        GameMetrics.get().recordCombat(combatEngine.getTurns());
+                        turnEvent.action = "flee";
+                        GameEvents.commit(turnEvent, player);
                         return false;
-                    } else {
-                        System.out.println("Escape failed!");
                     }
                     break;
 
                 default: System.out.println("Invalid choice, you hesitate...");
             }
 
-            // Apply flux damage boost if active
-            if (usedFlux && action == 1) {
-                int fluxDamage = (int) (damage * 0.4);
-                System.out.println("Flux adds " + fluxDamage + " bonus damage!");
-                monster.takeDamage(fluxDamage);
-                if (--fluxTurns <= 0) {
-                    usedFlux = false;
-                    System.out.println("> Flux effect wore off");
-                }
-            }
+            // Monster acts if still alive
+            combatEngine.monsterTurn();
+            combatEngine.endTurn();
 
-            // Monster attack if still alive
-            if (monster.isAlive()) {
-                int monsterDamage = monster.getDamage();
-                if (usedFlux) monsterDamage *= 0.6;
-                System.out.println(monster.getName() + " attacks for " + monsterDamage + " damage!");
-                player.takeDamage(monsterDamage);
-            }
+            turnEvent.action = actionName(action);
+            turnEvent.damageDealt = combatEngine.getDamageDealt();
+            turnEvent.damageTaken = combatEngine.getDamageTaken();
+            GameEvents.commit(turnEvent, player);
         }
 
+        GameMetrics.get().recordCombat(combatEngine.getTurns());
         if (!player.isAlive()) return false;
 
-        if (!monster.isAlive()) {
-            // Victory rewards
-            System.out.println("\n> Victory! You defeated the " + monster.getName());
-            System.out.println("> Rewards: " + monster.getExpReward() + " XP, "
-                    + monster.getGoldReward() + " Gold");
-            player.addExperience(monster.getExpReward());
-            player.addGold(monster.getGoldReward());
-            player.addFame(monster.isBoss() ? 15 : 5);
-
-            // Boss drops
-            if (monster.isBoss() && new Random().nextDouble() < 0.3) {
-                System.out.println("> The boss dropped a Dos Purdos!");
-                player.setWeapon(DOS_PURDOS);
+        // Victory rewards
+        System.out.println();
+        combatLog("> Victory! You defeated the " + monster.getName());
+        System.out.println("> Rewards: " + monster.getExpReward() + " XP, "
+                + monster.getGoldReward() + " Gold");
+        player.addExperience(monster.getExpReward());
+        player.addGold(monster.getGoldReward());
+        player.addFame(monster.isBoss() ? 15 : 5);
+
+        // Boss drops: rolled for the hunter, so the boss table's guarantee counts their kills
+        if (monster.isBoss()) {
+            int drop = LootTables.get().forBoss().roll(player.getRandom(), player.getLootCounters());
+            if (drop != LootTable.NOTHING) {
+                System.out.println("> The boss dropped a " + LootTables.get().grant(player, drop) + "!");
             }
-            return true;
         }
-        return false;
+        return true;
     }
 }
\ No newline at end of file
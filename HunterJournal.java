@@ -0,0 +1,514 @@
+package com.bosakon.monsterhunter;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Event log of a hunter's progression and economy: every experience grant, level up,
+ * rank up, gold change, item gained or used, skill unlocked, quest accepted and the
+ * awakening is appended as a typed event, so any past state can be rebuilt and every
+ * gold change can be traced back (see print()).
+ *
+ * Events are a few bytes each: one opcode byte, then zig-zag varints (item, skill and
+ * quest texts are interned once in a name table and referenced by index). Every
+ * snapshotEvents events the journal keeps a snapshot of the state, so rebuilding the
+ * state after event n replays at most snapshotEvents events from the nearest snapshot.
+ * Replay is a loop over a byte array with no allocation per event: tens of millions of
+ * events per second (see main()).
+ *
+ * Combat state (HP, mana, weapon durability, status effects) and fame are not
+ * journaled: HP and mana come back full from a rebuild, fame lives on the leaderboard.
+ * Quests come back as accepted; their completion shows up as the reward events.
+ * A journal is not thread-safe; it belongs to the hunter's game thread.
+ *
+ * Example:
+ *   HunterJournal journal = hunter.startJournal();
+ *   ...                                        // play
+ *   HunterJournal.State then = journal.rebuild(1000);   // after the first 1000 events
+ *   journal.print(990, 1000, System.out::println);     // what happened to the gold
+ *   journal.save(new File("hunter.journal"));
+ *
+ * <b>How to add an event type:</b>
+ *   - An opcode below, a recording method (called from the Hunter mutator) and a case
+ *     in apply(); bump VERSION if old journals can no longer be read.
+ */
+public final class HunterJournal {
+    // Opcodes
+    private static final int EXPERIENCE = 1, LEVEL_UP = 2, RANK_UP = 3, GOLD = 4, SPEND_GOLD = 5,
+            ITEM = 6, USE_ITEM = 7, SKILL = 8, QUEST = 9, AWAKEN = 10;
+
+    private static final int MAGIC = 0x484A524E; // "HJRN"
+    private static final int VERSION = 1;
+    private static final int DEFAULT_SNAPSHOT_EVENTS = 4096;
+
+    private final int snapshotEvents;
+    private final State genesis;              // state when the journal started
+    private final State head;                 // state after the last event
+    private byte[] log = new byte[256];
+    private State[] snapshots = new State[16]; // snapshots[i]: state after i * snapshotEvents events
+    private int snapshotCount;
+
+    // Interned texts, and the append-only collections a state holds a prefix of
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private int[] skillOrder = new int[8];    // name id per skill, in unlock order
+    private int[] quests = new int[5 * 8];    // per quest: title, objective, XP, gold, skill (+1, 0 = none)
+
+    /**
+     * Starts a journal from a hunter's current progress (see Hunter.startJournal(), which
+     * then records the items, skills and quests the hunter already has).
+     */
+    HunterJournal(String hunterName, int rank, int level, int experience, int gold,
+                  int strength, int dexterity, int intelligence, int maxHP, int maxMana) {
+        this(DEFAULT_SNAPSHOT_EVENTS, hunterName, new int[] {rank, level, gold, strength, dexterity,
+                intelligence, maxHP, maxMana}, experience);
+    }
+
+    /** @param stats rank, level, gold, strength, dexterity, intelligence, max HP, max mana (save() order) */
+    private HunterJournal(int snapshotEvents, String hunterName, int[] stats, long experience) {
+        this.snapshotEvents = snapshotEvents;
+        this.genesis = new State(this, hunterName, stats, experience);
+        this.head = genesis.copy();
+        snapshots[snapshotCount++] = genesis;
+    }
+
+    // === Recording (called by Hunter's mutators) ===
+
+    void experience(int exp) { record(EXPERIENCE, exp); }
+    void levelUp(int levels) { record(LEVEL_UP, levels); }
+    void rankUp(int rank) { record(RANK_UP, rank); }
+    void gold(int amount) { record(GOLD, amount); }
+    void spendGold(int amount) { record(SPEND_GOLD, amount); }
+    void useItem(String item) { record(USE_ITEM, intern(item)); }
+    void skill(String skill) { record(SKILL, intern(skill)); }
+
+    void awaken() {
+        begin(AWAKEN);
+        end();
+    }
+
+    void item(String item, int amount) {
+        int at = begin(ITEM);
+        at = writeVarint(at, intern(item));
+        writeVarint(at, amount);
+        end();
+    }
+
+    void quest(Quest quest) {
+        int title = intern(quest.getTitle());
+        int objective = intern(quest.getObjective());
+        String skill = quest.getUnlockSkill();
+        int skillId = skill == null || skill.isEmpty() ? 0 : intern(skill) + 1;
+        int at = begin(QUEST);
+        at = writeVarint(at, title);
+        at = writeVarint(at, objective);
+        at = writeVarint(at, quest.getRewardXP());
+        at = writeVarint(at, quest.getRewardGold());
+        writeVarint(at, skillId);
+        end();
+    }
+
+    private void record(int op, int value) {
+        writeVarint(begin(op), value);
+        end();
+    }
+
+    /** Writes an opcode after the last event, making room for the longest event (a quest). */
+    private int begin(int op) {
+        int at = head.pos;
+        if (at + 32 > log.length) log = Arrays.copyOf(log, log.length * 2);
+        log[at] = (byte) op;
+        return at + 1;
+    }
+
+    /** Applies the event just written to the head state, snapshotting on schedule. */
+    private void end() {
+        apply(head, null);
+        if (head.events % snapshotEvents == 0) {
+            if (snapshotCount == snapshots.length) snapshots = Arrays.copyOf(snapshots, snapshotCount * 2);
+            snapshots[snapshotCount++] = head.copy();
+        }
+    }
+
+    private int intern(String name) {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            nameIds.put(name, id);
+        }
+        return id;
+    }
+
+    /** Zig-zag varint: small magnitudes of either sign take one byte. */
+    private int writeVarint(int at, int value) {
+        int v = (value << 1) ^ (value >> 31);
+        while ((v & ~0x7F) != 0) {
+            log[at++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        log[at++] = (byte) v;
+        return at;
+    }
+
+    // === Replay ===
+
+    /** Reads a varint at state.pos and advances it. */
+    private int readVarint(State s) {
+        byte[] bytes = log;
+        int at = s.pos;
+        int v = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = bytes[at++];
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        s.pos = at;
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Applies the event at state.pos to the state and advances past it.
+     * @param describe Receives a description of the event, or null to build none
+     */
+    private void apply(State s, StringBuilder describe) {
+        int op = log[s.pos++];
+        switch (op) {
+            case EXPERIENCE: {
+                int exp = readVarint(s);
+                s.experience += exp;
+                if (describe != null) describe.append("+").append(exp).append(" XP");
+                break;
+            }
+            case LEVEL_UP: {
+                int levels = readVarint(s);
+                s.experience -= Hunter.levelCost(s.level, s.level + levels);
+                s.level += levels;
+                s.strength += Hunter.STAT_PER_LEVEL * levels;
+                s.dexterity += Hunter.STAT_PER_LEVEL * levels;
+                s.intelligence += Hunter.STAT_PER_LEVEL * levels;
+                s.maxHP += Hunter.HP_PER_LEVEL * levels;
+                s.maxMana += Hunter.MANA_PER_LEVEL * levels;
+                if (describe != null) describe.append("level up to ").append(s.level);
+                break;
+            }
+            case RANK_UP:
+                s.rank = readVarint(s);
+                if (describe != null) describe.append("rank up to ").append(Hunter.rankName(s.rank)).append("-Rank");
+                break;
+            case GOLD: {
+                int amount = readVarint(s);
+                s.gold += amount;
+                if (describe != null) describe.append(amount < 0 ? "" : "+").append(amount).append(" gold");
+                break;
+            }
+            case SPEND_GOLD: {
+                int amount = readVarint(s);
+                s.gold -= amount;
+                if (describe != null) describe.append("spent ").append(amount).append(" gold");
+                break;
+            }
+            case ITEM: {
+                int item = readVarint(s);
+                int amount = readVarint(s);
+                if (item >= s.items.length) s.items = Arrays.copyOf(s.items, Math.max(item + 1, s.items.length * 2));
+                s.items[item] += amount;
+                if (describe != null) describe.append("+").append(amount).append(" ").append(names.get(item));
+                break;
+            }
+            case USE_ITEM: {
+                int item = readVarint(s);
+                s.items[item]--;
+                if (describe != null) describe.append("used ").append(names.get(item));
+                break;
+            }
+            case SKILL: {
+                int skill = readVarint(s);
+                if (s == head) {
+                    if (s.skillCount == skillOrder.length) skillOrder = Arrays.copyOf(skillOrder, s.skillCount * 2);
+                    skillOrder[s.skillCount] = skill;
+                }
+                s.skillCount++;
+                if (describe != null) describe.append("learned ").append(names.get(skill));
+                break;
+            }
+            case QUEST: {
+                int at = s.questCount * 5;
+                if (s == head && at + 5 > quests.length) quests = Arrays.copyOf(quests, quests.length * 2);
+                for (int i = 0; i < 5; i++) {
+                    int value = readVarint(s);
+                    if (s == head) quests[at + i] = value;
+                }
+                s.questCount++;
+                if (describe != null) describe.append("accepted quest ").append(names.get(quests[at]));
+                break;
+            }
+            case AWAKEN:
+                s.awakened = true;
+                if (describe != null) describe.append("awakened");
+                break;
+            default:
+                throw new IllegalStateException("Corrupt hunter journal: opcode " + op + " at byte " + (s.pos - 1));
+        }
+        s.events++;
+    }
+
+    /**
+     * Hunter progress after the first {@code events} events (0 = when the journal started),
+     * replayed from the nearest snapshot.
+     */
+    public State rebuild(int events) {
+        if (events < 0 || events > head.events) {
+            throw new IllegalArgumentException("No event " + events + " (journal has " + head.events + ")");
+        }
+        State s = snapshots[Math.min(events / snapshotEvents, snapshotCount - 1)].copy();
+        while (s.events < events) apply(s, null);
+        return s;
+    }
+
+    /** Rebuilds from the first event without snapshots (what snapshots save; see main()). */
+    State replayAll() {
+        State s = genesis.copy();
+        int events = head.events;
+        while (s.events < events) apply(s, null);
+        return s;
+    }
+
+    /**
+     * Describes events {@code from} (inclusive) to {@code to} (exclusive), each with the
+     * gold, level and rank right after it, e.g. "#41 spent 150 gold | gold 230, level 3, E-Rank".
+     */
+    public void print(int from, int to, Consumer<String> out) {
+        State s = rebuild(from);
+        to = Math.min(to, head.events);
+        StringBuilder sb = new StringBuilder();
+        while (s.events < to) {
+            sb.setLength(0);
+            sb.append('#').append(s.events).append(' ');
+            apply(s, sb);
+            sb.append(" | gold ").append(s.gold).append(", level ").append(s.level)
+              .append(", ").append(Hunter.rankName(s.rank)).append("-Rank");
+            out.accept(sb.toString());
+        }
+    }
+
+    /** Creates a hunter with the progress after the first {@code events} events, at full HP and mana. */
+    public Hunter materialize(int events, Item weapon) {
+        State s = rebuild(events);
+        Hunter hunter = new Hunter(s.name, weapon);
+        hunter.restore(s);
+        return hunter;
+    }
+
+    // === Persistence ===
+
+    /** Writes the journal: name table, starting state and events (snapshots are rebuilt on load). */
+    public void save(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(snapshotEvents);
+            out.writeInt(names.size());
+            for (String name : names) out.writeUTF(name);
+            out.writeUTF(genesis.name);
+            int[] stats = {genesis.rank, genesis.level, genesis.gold, genesis.strength, genesis.dexterity,
+                           genesis.intelligence, genesis.maxHP, genesis.maxMana};
+            for (int value : stats) out.writeInt(value);
+            out.writeLong(genesis.experience);
+            out.writeInt(head.events);
+            out.writeInt(head.pos);
+            out.write(log, 0, head.pos);
+        }
+    }
+
+    /** Reads a journal written by save(), replaying it once to rebuild the snapshots. */
+    public static HunterJournal load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a hunter journal: " + file);
+            if (in.readInt() != VERSION) throw new IOException("Unsupported hunter journal version: " + file);
+            int snapshotEvents = in.readInt();
+            String[] names = new String[in.readInt()];
+            for (int i = 0; i < names.length; i++) names[i] = in.readUTF();
+            String hunterName = in.readUTF();
+            int[] stats = new int[8];
+            for (int i = 0; i < stats.length; i++) stats[i] = in.readInt();
+            long experience = in.readLong();
+
+            HunterJournal journal = new HunterJournal(snapshotEvents, hunterName, stats, experience);
+            for (String name : names) journal.intern(name);
+            int events = in.readInt();
+            int bytes = in.readInt();
+            journal.log = new byte[bytes + 256];
+            in.readFully(journal.log, 0, bytes);
+            for (int i = 0; i < events; i++) journal.end();
+            return journal;
+        }
+    }
+
+    // === Getters ===
+    /** Number of events recorded. */
+    public int getEventCount() { return head.events; }
+    /** Size of the encoded events in bytes. */
+    public int getByteCount() { return head.pos; }
+    /** Current progress (the state after the last event); do not modify. */
+    public State getHead() { return head; }
+
+    /**
+     * Hunter progress at one point of the journal. Items, skills and quests are only
+     * counts and prefixes here: names live in the journal's tables, shared by all states.
+     */
+    public static final class State {
+        private final HunterJournal journal;
+        private final String name;
+        private int rank;
+        private int level;
+        private long experience;
+        private int gold;
+        private int strength, dexterity, intelligence;
+        private int maxHP, maxMana;
+        private boolean awakened;
+        private int[] items = new int[8]; // count per name id
+        private int skillCount;           // the first skillCount entries of skillOrder
+        private int questCount;           // the first questCount entries of quests
+        private int events;               // events applied
+        private int pos;                  // byte offset of the next event
+
+        private State(HunterJournal journal, String name, int[] stats, long experience) {
+            this.journal = journal;
+            this.name = name;
+            this.rank = stats[0];
+            this.level = stats[1];
+            this.gold = stats[2];
+            this.strength = stats[3];
+            this.dexterity = stats[4];
+            this.intelligence = stats[5];
+            this.maxHP = stats[6];
+            this.maxMana = stats[7];
+            this.experience = experience;
+        }
+
+        private State copy() {
+            State c = new State(journal, name, new int[] {rank, level, gold, strength, dexterity, intelligence,
+                    maxHP, maxMana}, experience);
+            c.awakened = awakened;
+            c.items = items.clone();
+            c.skillCount = skillCount;
+            c.questCount = questCount;
+            c.events = events;
+            c.pos = pos;
+            return c;
+        }
+
+        public String getName() { return name; }
+        public String getRank() { return Hunter.rankName(rank); }
+        public int getLevel() { return level; }
+        public int getExperience() { return (int) experience; }
+        public int getGold() { return gold; }
+        public int getStrength() { return strength; }
+        public int getDexterity() { return dexterity; }
+        public int getIntelligence() { return intelligence; }
+        public int getMaxHP() { return maxHP; }
+        public int getMaxMana() { return maxMana; }
+        public boolean isAwakened() { return awakened; }
+        /** Number of events this state includes. */
+        public int getEvents() { return events; }
+        public int getSkillCount() { return skillCount; }
+        public int getQuestCount() { return questCount; }
+
+        public int getItemCount(String item) {
+            Integer id = journal.nameIds.get(item);
+            return id == null || id >= items.length ? 0 : items[id];
+        }
+
+        /** Name of the i-th skill unlocked. */
+        public String getSkill(int i) {
+            if (i >= skillCount) throw new IndexOutOfBoundsException("Skill " + i + " of " + skillCount);
+            return journal.names.get(journal.skillOrder[i]);
+        }
+
+        /** A new (not completed) copy of the i-th quest accepted. */
+        public Quest createQuest(int i) {
+            if (i >= questCount) throw new IndexOutOfBoundsException("Quest " + i + " of " + questCount);
+            int[] quests = journal.quests;
+            List<String> names = journal.names;
+            int at = i * 5;
+            return new Quest(names.get(quests[at]), names.get(quests[at + 1]), quests[at + 2], quests[at + 3],
+                    quests[at + 4] == 0 ? null : names.get(quests[at + 4] - 1));
+        }
+
+        /** Calls back with every item the hunter carries and its count. */
+        void forEachItem(ItemConsumer consumer) {
+            for (int i = 0; i < items.length; i++) {
+                if (items[i] > 0) consumer.accept(journal.names.get(i), items[i]);
+            }
+        }
+    }
+
+    /** Receives an item and its count (see State.forEachItem()). */
+    interface ItemConsumer {
+        void accept(String item, int count);
+    }
+
+    /**
+     * Plays a quiet hunter through a mix of rewards, purchases and potions, checks that
+     * the rebuilt state matches the live hunter, then measures a full replay and
+     * rebuilds at random points with snapshots.
+     */
+    public static void main(String[] args) {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Random rand = new Random(42);
+        Hunter hunter = new Hunter("Auditor", ContentCatalog.get().createWeapon(0));
+        hunter.setQuiet(true);
+        HunterJournal journal = hunter.startJournal();
+        hunter.addQuest(new Quest("Audit", "Clear the E-Rank gate", 50, 100, null));
+        hunter.unlockSkill("Healing");
+        hunter.awaken();
+
+        long start = System.nanoTime();
+        while (journal.getEventCount() < events) {
+            int roll = rand.nextInt(10);
+            if (roll < 3) hunter.addGold(rand.nextInt(200));
+            else if (roll < 5) hunter.spendGold(rand.nextInt(150));
+            else if (roll < 7) hunter.addItem("Health Potion", 1 + rand.nextInt(2));
+            else if (roll < 9) hunter.useItem("Health Potion");
+            else hunter.addExperience(rand.nextInt(40));
+        }
+        double recordNanos = (System.nanoTime() - start) / (double) journal.getEventCount();
+
+        State head = journal.getHead();
+        State full = journal.replayAll();
+        boolean match = full.getGold() == hunter.getGold() && full.getLevel() == hunter.getLevel()
+                && full.getExperience() == hunter.getExperience() && full.getRank().equals(hunter.getRank())
+                && full.getItemCount("Health Potion") == hunter.getItemCount("Health Potion")
+                && head.getGold() == hunter.getGold()
+                && journal.materialize(journal.getEventCount(), null).isAwakened() == hunter.isAwakened();
+        System.out.printf("%d events | %.2f bytes per event | %.0f ns per recorded event | rebuild %s the live hunter%n",
+                journal.getEventCount(), journal.getByteCount() / (double) journal.getEventCount(), recordNanos,
+                match ? "matches" : "DOES NOT MATCH");
+
+        for (int run = 0; run < 3; run++) {
+            start = System.nanoTime();
+            full = journal.replayAll();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("full replay         | %.1f M events/s (gold %d)%n",
+                    journal.getEventCount() / seconds / 1e6, full.getGold());
+        }
+        int points = 10_000;
+        long sink = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < points; i++) sink += journal.rebuild(rand.nextInt(journal.getEventCount() + 1)).getGold();
+        System.out.printf("rebuild at a point  | %.1f us on average (snapshot every %d events)%s%n",
+                (System.nanoTime() - start) / 1e3 / points, journal.snapshotEvents, sink == 42 ? " " : "");
+
+        System.out.println("\nLast events:");
+        journal.print(journal.getEventCount() - 5, journal.getEventCount(), System.out::println);
+    }
+}
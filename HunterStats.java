@@ -0,0 +1,102 @@
+package com.bosakon.monsterhunter;
+
+/**
+ * A hunter's effective stats: base stats, weapon, skills and active effects folded
+ * into the few numbers combat actually reads.
+ *
+ * Contributors and what they change:
+ *   - level:          strength, dexterity, intelligence, max HP (Tenacity threshold)
+ *   - weapon:         hit and crit damage, crit chance
+ *   - skills:         Tenacity (halves damage taken below 30% HP)
+ *   - status effect:  damage modifier (hit damage), defense modifier (damage taken)
+ *   - Flux:           bonus damage per hit (40%), damage taken (60%)
+ * The Hunter owns one HunterStats and recomputes it only after a contributor changed
+ * (see Hunter.getStats()), so per-hit math is a couple of field reads and one multiply.
+ *
+ * Modifiers follow content/abilities.txt: a defense modifier of 0 means "unchanged",
+ * any other divides the damage taken. Statuses come from monster abilities, which the
+ * catalog only accepts as debuffs (both modifiers from 0 to 1). Base stats are aggregated
+ * here too, but no combat formula uses them yet.
+ *
+ * Example:
+ *   HunterStats stats = hunter.getStats();
+ *   int damage = crit ? stats.getCritDamage() : stats.getHitDamage();
+ *   int taken = stats.damageTaken(monster.getDamage());
+ */
+public final class HunterStats {
+    private int strength;
+    private int dexterity;
+    private int intelligence;
+    private int hitDamage;
+    private int critDamage;
+    private double critChance;
+    private double bonusRate;       // extra damage per hit, as a share of the hit (Flux)
+    private double damageTaken;     // multiplier on monster hits (Flux, status defense)
+    private double tenacityBelow;   // HP under which Tenacity halves damage; 0 without Tenacity
+
+    HunterStats() {
+    }
+
+    /** Recomputes everything from the contributors (called by Hunter when one changed). */
+    void recompute(int strength, int dexterity, int intelligence, int maxHP, Item weapon,
+                   boolean tenacity, StatusEffect status, boolean flux) {
+        this.strength = strength;
+        this.dexterity = dexterity;
+        this.intelligence = intelligence;
+        boolean active = status != null && status.getDuration() > 0;
+        double damageModifier = active ? status.getDamageModifier() : 1.0;
+        double defenseModifier = active ? status.getDefenseModifier() : 0;
+        hitDamage = weapon == null ? 0 : hitDamage(weapon.getBaseDamage(), damageModifier);
+        critDamage = hitDamage * 2;
+        critChance = weapon == null ? 0 : weapon.getCritChance();
+        bonusRate = flux ? CombatEngine.FLUX_DAMAGE_BONUS : 0;
+        damageTaken = damageTaken(flux, defenseModifier);
+        tenacityBelow = tenacity ? maxHP * Hunter.TENACITY_THRESHOLD : 0;
+    }
+
+    /** Weapon damage under a status damage modifier (FightSolver uses the same rule). */
+    static int hitDamage(int weaponDamage, double damageModifier) {
+        return scale(weaponDamage, damageModifier);
+    }
+
+    /** Multiplier on monster hits with Flux and a status defense modifier (0 = unchanged). */
+    static double damageTaken(boolean flux, double defenseModifier) {
+        double taken = flux ? CombatEngine.FLUX_DAMAGE_TAKEN : 1.0;
+        return defenseModifier > 0 ? taken / defenseModifier : taken;
+    }
+
+    public int getStrength() { return strength; }
+    public int getDexterity() { return dexterity; }
+    public int getIntelligence() { return intelligence; }
+    /** Damage of a normal hit. */
+    public int getHitDamage() { return hitDamage; }
+    /** Damage of a critical hit. */
+    public int getCritDamage() { return critDamage; }
+    public double getCritChance() { return critChance; }
+
+    /** Extra damage a hit of this size deals on top (Flux), 0 if none. */
+    public int bonusDamage(int damage) {
+        return (int) (damage * bonusRate);
+    }
+
+    /** A monster hit after Flux and status defense, before Tenacity (see Hunter.takeDamage()). */
+    public int damageTaken(int damage) {
+        return scale(damage, damageTaken);
+    }
+
+    /** Damage times a multiplier, rounded down (exact when the multiplier is 1). */
+    static int scale(int damage, double multiplier) {
+        return multiplier == 1.0 ? damage : (int) (damage * multiplier);
+    }
+
+    /** True if Tenacity halves damage at this HP. */
+    public boolean isTenacious(int hp) {
+        return hp < tenacityBelow;
+    }
+
+    @Override
+    public String toString() {
+        return "STR " + strength + " | DEX " + dexterity + " | INT " + intelligence + " | DMG " + hitDamage
+                + " (crit " + critDamage + ", " + Math.round(critChance * 100) + "%)";
+    }
+}
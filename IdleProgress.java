@@ -0,0 +1,325 @@
+package com.bosakon.monsterhunter;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Offline ("AFK dungeon run") progress: what a hunter would have earned while away,
+ * granted in O(1) per hunter instead of simulating every turn.
+ *
+ * A table of expected rewards per dungeon run holds, for every (hunter rank, weapon,
+ * skills) and dungeon rank: XP, gold, fame, net Health/Mana Potions, run time and death
+ * rate, each with its per-run variance. Rows are built lazily, the first time a hunter
+ * with that rank, weapon and skill set asks, so loading a save only simulates the one
+ * row it needs. A row comes from RUNS_PER_ENTRY silent CombatEngine runs per dungeon
+ * rank through DungeonGenerator layouts, by a hunter with the rank's lowest level and
+ * the player's skills, with a cautious AFK policy: attack, drink a Health Potion below
+ * 30% HP, try to flee below 20% HP without potions, and leave the dungeon between
+ * fights when HP is low or the weapon breaks.
+ *
+ * Granting picks the most rewarding dungeon the hunter survives at least 90% of the
+ * time, or the safest dungeon if none is that safe (fresh E-Rank hunters), turns the
+ * time away into a number of runs, and samples each total from a normal approximation
+ * of the sum of that many runs, clamped to 3 standard deviations (so no grant is ever
+ * wildly off the expected value). XP goes through Hunter.addExperience, which applies
+ * any number of level and rank ups at once.
+ *
+ * Example:
+ *   IdleProgress.Report report = IdleProgress.get().grant(player, offlineMillis, new Random());
+ *   System.out.println(report);
+ *
+ * <b>How to tune:</b>
+ *   - AFK pace: SECONDS_PER_TURN, SECONDS_PER_FLOOR, SECONDS_PER_RUN
+ *   - Which dungeons AFK hunters farm: MAX_DEATH_RATE
+ *   - Longest absence that still pays: MAX_OFFLINE_MILLIS
+ */
+public final class IdleProgress {
+    private static final String[] RANKS = {"E", "D", "C", "B", "A", "S"};
+    // Lowest level at which each hunter rank is reachable (Hunter's RANK_THRESHOLDS / 100 + 1)
+    private static final int[] RANK_LEVELS = {1, 2, 4, 8, 16, 31};
+    private static final int RUNS_PER_ENTRY = 2000;
+    private static final int MAX_TURNS_PER_FIGHT = 500;
+    private static final double POTION_BELOW = 0.3;  // of max HP
+    private static final double FLEE_BELOW = 0.2;
+    private static final double LEAVE_BELOW = 0.5;   // between fights, without potions
+    private static final double SECONDS_PER_TURN = 4.0;
+    private static final double SECONDS_PER_FLOOR = 30.0;  // walking and looting
+    private static final double SECONDS_PER_RUN = 120.0;   // travel, rest and repair between runs
+    private static final double MAX_DEATH_RATE = 0.1;
+    private static final double SPREAD_CAP = 3.0;          // standard deviations
+    private static final long MAX_OFFLINE_MILLIS = 12 * 60 * 60 * 1000L;
+    private static final long TABLE_SEED = 0x1D1E;
+
+    private static volatile IdleProgress instance;
+
+    private final long seed;
+    private final Map<String, Entry[]> table = new ConcurrentHashMap<>(); // row key -> [dungeon rank]
+
+    /** Calculator whose rows are deterministic for the seed. */
+    public IdleProgress(long seed) {
+        this.seed = seed;
+    }
+
+    /** Returns the shared calculator (rows are built on first use, see getEntries). */
+    public static IdleProgress get() {
+        IdleProgress result = instance;
+        if (result == null) {
+            synchronized (IdleProgress.class) {
+                result = instance;
+                if (result == null) instance = result = new IdleProgress(TABLE_SEED);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Expected rewards for one run of each dungeon rank (E to S) for the hunter's rank,
+     * weapon and skills, simulating the row (all dungeon ranks in parallel) on first use.
+     */
+    public Entry[] getEntries(Hunter hunter) {
+        int hunterRank = rankIndex(hunter.getRank());
+        int weapon = weaponIndex(hunter.getWeapon().getName());
+        String[] skills = new String[hunter.getSkillCount()];
+        for (int i = 0; i < skills.length; i++) skills[i] = hunter.getSkillAt(i).getName();
+        Arrays.sort(skills);
+        String key = hunterRank + "|" + weapon + "|" + String.join(",", skills);
+        return table.computeIfAbsent(key, k -> {
+            ContentCatalog catalog = ContentCatalog.get();
+            Entry[] row = new Entry[RANKS.length];
+            IntStream.range(0, RANKS.length).parallel().forEach(d -> row[d] = simulate(hunterRank,
+                    catalog.createWeapon(weapon), hunter, d, (seed * 31 + hunterRank * 64 + weapon) * RANKS.length + d));
+            return row;
+        });
+    }
+
+    /** Expected rewards for one run of a dungeon rank. */
+    public Entry getEntry(Hunter hunter, String dungeonRank) {
+        return getEntries(hunter)[rankIndex(dungeonRank)];
+    }
+
+    /**
+     * Dungeon rank with the most XP per hour among those with a death rate up to 10%;
+     * if none is that safe, the one with the lowest death rate.
+     */
+    public String bestDungeon(Hunter hunter) {
+        Entry[] byDungeon = getEntries(hunter);
+        int best = -1, safest = 0;
+        for (int d = 0; d < byDungeon.length; d++) {
+            if (byDungeon[d].deathRate < byDungeon[safest].deathRate) safest = d;
+            if (byDungeon[d].deathRate > MAX_DEATH_RATE) continue;
+            if (best < 0 || byDungeon[d].getXpPerHour() > byDungeon[best].getXpPerHour()) best = d;
+        }
+        return RANKS[best < 0 ? safest : best];
+    }
+
+    /**
+     * Grants the rewards of AFK runs over the given absence (capped at 12 hours)
+     * and returns what was granted.
+     */
+    public Report grant(Hunter hunter, long offlineMillis, Random rand) {
+        double seconds = Math.min(Math.max(0, offlineMillis), MAX_OFFLINE_MILLIS) / 1000.0;
+        if (seconds <= 0) return new Report(null, 0, 0, 0, 0, 0, 0, 0);
+        String dungeon = bestDungeon(hunter);
+
+        Entry e = getEntry(hunter, dungeon);
+        double runs = seconds / e.seconds;
+        int xp = (int) sample(e.xp, runs, rand);
+        int gold = (int) sample(e.gold, runs, rand);
+        int fame = (int) sample(e.fame, runs, rand);
+        int healthPotions = (int) sample(e.healthPotions, runs, rand);
+        int manaPotions = (int) sample(e.manaPotions, runs, rand);
+
+        int levelBefore = hunter.getLevel();
+        hunter.addExperience(xp);
+        hunter.addGold(gold);
+        hunter.addFame(fame);
+        hunter.addItem("Health Potion", healthPotions);
+        hunter.addItem("Mana Potion", manaPotions);
+        return new Report(dungeon, runs, xp, gold, fame, healthPotions, manaPotions, hunter.getLevel() - levelBefore);
+    }
+
+    /** Sum of `runs` independent runs: normal approximation, clamped to +-3 sd and at 0. */
+    private static long sample(Stat stat, double runs, Random rand) {
+        double mean = stat.mean * runs;
+        double sd = Math.sqrt(stat.variance * runs);
+        double z = Math.max(-SPREAD_CAP, Math.min(SPREAD_CAP, rand.nextGaussian()));
+        return Math.max(0, Math.round(mean + z * sd));
+    }
+
+    // ===================== Table building =====================
+
+    /** Plays RUNS_PER_ENTRY silent AFK runs with the player's skills and summarizes them. */
+    private static Entry simulate(int hunterRank, Item weapon, Hunter player, int dungeonRank, long seed) {
+        Random rand = new Random(seed);
+        Hunter template = new Hunter("Idle", weapon);
+        template.setQuiet(true);
+        int level = RANK_LEVELS[hunterRank];
+        template.addExperience(50 * level * (level - 1)); // exactly enough XP for that level
+        template.learnSkillsOf(player);
+        Hunter hunter = template.copy();
+        hunter.setRandom(rand);
+        CombatEngine engine = new CombatEngine(null);
+
+        Stat xp = new Stat(), gold = new Stat(), fame = new Stat();
+        Stat healthPotions = new Stat(), manaPotions = new Stat(), seconds = new Stat();
+        int deaths = 0;
+        for (int run = 0; run < RUNS_PER_ENTRY; run++) {
+            hunter.copyFrom(template);
+            hunter.getWeapon().repair();
+            DungeonGenerator generator = new DungeonGenerator(RANKS[dungeonRank], dungeonRank + 1, rand.nextLong(), true);
+
+            int runXp = 0, runGold = 0, runFame = 0, manaDrops = 0, turns = 0, floors = 0;
+            boolean over = false;
+            for (int f = 1; f <= generator.getFloorCount() && !over; f++) {
+                DungeonGenerator.Floor floor = generator.getFloor(f);
+                floors++;
+                for (Monster monster : floor.getMonsters()) {
+                    boolean potions = hunter.getItemCount("Health Potion") > 0;
+                    if (hunter.getHP() < hunter.getMaxHP() * LEAVE_BELOW && !potions) {
+                        over = true; // head home with what we have
+                        break;
+                    }
+                    monster.setRandom(rand);
+                    engine.begin(hunter, monster);
+                    boolean fled = false;
+                    while (!engine.isOver() && !fled && engine.getTurns() < MAX_TURNS_PER_FIGHT
+                            && hunter.getWeapon().getDurability() > 0) {
+                        engine.startTurn();
+                        double hp = hunter.getHP() / (double) hunter.getMaxHP();
+                        if (hp < POTION_BELOW && hunter.getItemCount("Health Potion") > 0) {
+                            engine.useItem("Health Potion");
+                        } else if (hp < FLEE_BELOW && engine.flee()) {
+                            fled = true;
+                            break;
+                        } else {
+                            engine.attack();
+                        }
+                        engine.monsterTurn();
+                        engine.endTurn();
+                    }
+                    turns += engine.getTurns();
+                    if (!hunter.isAlive()) {
+                        deaths++;
+                        over = true;
+                        break;
+                    }
+                    if (monster.isAlive()) { // fled, weapon broke or stalemate: leave the dungeon
+                        over = true;
+                        break;
+                    }
+                    runXp += monster.getExpReward();
+                    runGold += monster.getGoldReward();
+                    runFame += monster.isBoss() ? 15 : 5;
+                }
+                if (!over) {
+                    // Items only: a simulated run keeps the hunter's weapon
+                    int drop = floor.getClearDrop();
+                    if (drop != LootTable.NOTHING && !LootTables.get().isWeapon(drop)) LootTables.get().grant(hunter, drop);
+                    if (floor.hasHiddenPath() && hunter.hasSkill("Dungeon Sense")) manaDrops++;
+                }
+            }
+            xp.add(runXp);
+            gold.add(runGold);
+            fame.add(runFame);
+            healthPotions.add(hunter.getItemCount("Health Potion")); // drops left after drinking
+            manaPotions.add(manaDrops);
+            seconds.add(turns * SECONDS_PER_TURN + floors * SECONDS_PER_FLOOR + SECONDS_PER_RUN);
+        }
+        return new Entry(xp.finish(), gold.finish(), fame.finish(), healthPotions.finish(),
+                manaPotions.finish(), seconds.finish().mean, deaths / (double) RUNS_PER_ENTRY);
+    }
+
+    private static int rankIndex(String rank) {
+        for (int i = 0; i < RANKS.length; i++) {
+            if (RANKS[i].equals(rank)) return i;
+        }
+        return 0;
+    }
+
+    private static int weaponIndex(String weaponName) {
+        return Math.max(0, ContentCatalog.get().getWeaponIndexByName(weaponName));
+    }
+
+    /** Mean and variance of a per-run amount (Welford's running algorithm). */
+    private static final class Stat {
+        double mean, variance;
+        private double m2;
+        private int n;
+
+        void add(double x) {
+            n++;
+            double delta = x - mean;
+            mean += delta / n;
+            m2 += delta * (x - mean);
+        }
+
+        Stat finish() {
+            variance = n > 1 ? m2 / (n - 1) : 0;
+            return this;
+        }
+    }
+
+    /** Expected rewards for one AFK run of a dungeon rank. */
+    public static final class Entry {
+        private final Stat xp, gold, fame, healthPotions, manaPotions;
+        private final double seconds;
+        private final double deathRate;
+
+        Entry(Stat xp, Stat gold, Stat fame, Stat healthPotions, Stat manaPotions, double seconds, double deathRate) {
+            this.xp = xp;
+            this.gold = gold;
+            this.fame = fame;
+            this.healthPotions = healthPotions;
+            this.manaPotions = manaPotions;
+            this.seconds = seconds;
+            this.deathRate = deathRate;
+        }
+
+        public double getXpPerRun() { return xp.mean; }
+        public double getGoldPerRun() { return gold.mean; }
+        public double getFamePerRun() { return fame.mean; }
+        public double getSecondsPerRun() { return seconds; }
+        public double getDeathRate() { return deathRate; }
+        public double getXpPerHour() { return xp.mean * 3600 / seconds; }
+    }
+
+    /** What one grant gave the hunter. */
+    public static final class Report {
+        private final String dungeonRank;
+        private final double runs;
+        private final int xp, gold, fame, healthPotions, manaPotions, levelsGained;
+
+        Report(String dungeonRank, double runs, int xp, int gold, int fame,
+               int healthPotions, int manaPotions, int levelsGained) {
+            this.dungeonRank = dungeonRank;
+            this.runs = runs;
+            this.xp = xp;
+            this.gold = gold;
+            this.fame = fame;
+            this.healthPotions = healthPotions;
+            this.manaPotions = manaPotions;
+            this.levelsGained = levelsGained;
+        }
+
+        /** Dungeon rank farmed, or null if the hunter wasn't away. */
+        public String getDungeonRank() { return dungeonRank; }
+        public double getRuns() { return runs; }
+        public int getXp() { return xp; }
+        public int getGold() { return gold; }
+        public int getFame() { return fame; }
+        public int getHealthPotions() { return healthPotions; }
+        public int getManaPotions() { return manaPotions; }
+        public int getLevelsGained() { return levelsGained; }
+
+        @Override
+        public String toString() {
+            if (dungeonRank == null || runs == 0) return "No offline progress";
+            return String.format("%.1f %s-Rank runs: +%d XP, +%d Gold, +%d Fame, +%d Health Potions, "
+                    + "+%d Mana Potions, +%d levels", runs, dungeonRank, xp, gold, fame,
+                    healthPotions, manaPotions, levelsGained);
+        }
+    }
+}
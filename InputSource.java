@@ -0,0 +1,183 @@
+package com.bosakon.monsterhunter;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * Line-based player input for the menus, read from stdin, a file or an in-memory
+ * script through one byte-level tokenizer (no regex, no per-token Strings).
+ *
+ * Every read consumes a whole line, so callers never need the old
+ * "scanner.nextLine(); // Consume newline" after reading a number:
+ *   - readInt()  skips blank lines, parses the first token of the next line as an int
+ *                and drops the rest of the line. Not a number: InputMismatchException
+ *                (the line is still consumed, so the caller can just ask again).
+ *   - readLine() returns the next line without its line break.
+ * Both throw NoSuchElementException once the input is exhausted (like Scanner), which
+ * ends scripted sessions.
+ *
+ * Example:
+ *   InputSource input = InputSource.script("Jin\nlapis\n1\n1\n1\n");
+ *   new HunterGame(input).startGame();
+ *
+ *   // or from a file: java -Dhunter.input=session.txt -jar hunter.jar
+ *
+ * A supplier-backed source asks for each line only when the game wants the next
+ * input, so a driver can answer based on what was printed so far (see GoldenRunSuite).
+ *
+ * <b>How to soak test:</b>
+ *   java -cp hunter.jar com.bosakon.monsterhunter.SoakTest [turns] [scriptFile]
+ */
+public final class InputSource implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in; // null for in-memory scripts
+    private final Supplier<String> lines; // non-null for supplier-backed sources
+    private byte[] buf;
+    private int pos;
+    private int limit;
+    private byte[] line = new byte[256]; // readLine scratch
+    private long linesRead;
+
+    private InputSource(InputStream in, byte[] buf, int limit) {
+        this(in, null, buf, limit);
+    }
+
+    private InputSource(InputStream in, Supplier<String> lines, byte[] buf, int limit) {
+        this.in = in;
+        this.lines = lines;
+        this.buf = buf;
+        this.limit = limit;
+    }
+
+    /** Reads the console. */
+    public static InputSource stdin() {
+        return new InputSource(System.in, new byte[BUFFER_SIZE], 0);
+    }
+
+    /** Reads a script file. */
+    public static InputSource file(String path) throws IOException {
+        return new InputSource(new FileInputStream(path), new byte[BUFFER_SIZE], 0);
+    }
+
+    /** Reads an in-memory script; one input per line. */
+    public static InputSource script(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return new InputSource(null, bytes, bytes.length);
+    }
+
+    /** Asks the supplier for one line at a time, when the buffer runs dry; null ends the input. */
+    public static InputSource fromSupplier(Supplier<String> lines) {
+        return new InputSource(null, lines, new byte[0], 0);
+    }
+
+    /** The file named by -Dhunter.input, or the console if unset or unreadable. */
+    public static InputSource fromSystemProperty() {
+        String path = System.getProperty("hunter.input");
+        if (path == null || path.isEmpty()) return stdin();
+        try {
+            return file(path);
+        } catch (IOException e) {
+            System.out.println("> ERROR: Cannot read input script - " + e.getMessage());
+            return stdin();
+        }
+    }
+
+    /**
+     * Reads the next non-blank line as an int (first token; the rest of the line is ignored).
+     * @throws InputMismatchException if the token is not an int (the line is consumed)
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    public int readInt() {
+        int c;
+        do {
+            c = read();
+            if (c < 0) throw new NoSuchElementException("No more input");
+        } while (c == ' ' || c == '\t' || c == '\r' || c == '\n');
+
+        boolean negative = c == '-';
+        if (c == '-' || c == '+') c = read();
+        long value = 0;
+        int digits = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE + 1L) break;
+            digits++;
+            c = read();
+        }
+        boolean valid = digits > 0 && (c < 0 || c == ' ' || c == '\t' || c == '\r' || c == '\n')
+                && value <= (negative ? Integer.MAX_VALUE + 1L : Integer.MAX_VALUE);
+        if (c != '\n') skipLine();
+        linesRead++;
+        if (!valid) throw new InputMismatchException("Not a number");
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Reads the next line (possibly empty), without its line break.
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    public String readLine() {
+        int c = read();
+        if (c < 0) throw new NoSuchElementException("No more input");
+        int n = 0;
+        while (c >= 0 && c != '\n') {
+            if (n == line.length) line = Arrays.copyOf(line, n * 2);
+            line[n++] = (byte) c;
+            c = read();
+        }
+        if (n > 0 && line[n - 1] == '\r') n--;
+        linesRead++;
+        return new String(line, 0, n, StandardCharsets.UTF_8);
+    }
+
+    private void skipLine() {
+        int c;
+        do {
+            c = read();
+        } while (c >= 0 && c != '\n');
+    }
+
+    /** Next byte, or -1 at end of input. */
+    private int read() {
+        if (pos == limit && !fill()) return -1;
+        return buf[pos++] & 0xFF;
+    }
+
+    private boolean fill() {
+        if (lines != null) {
+            String next = lines.get();
+            if (next == null) return false;
+            buf = (next + "\n").getBytes(StandardCharsets.UTF_8);
+            pos = 0;
+            limit = buf.length;
+            return true;
+        }
+        if (in == null) return false;
+        try {
+            int n = in.read(buf, 0, buf.length);
+            if (n <= 0) return false;
+            pos = 0;
+            limit = n;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Inputs consumed so far (blank lines skipped by readInt not counted). */
+    public long getLinesRead() { return linesRead; }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null && in != System.in) in.close();
+    }
+}
@@ -60,6 +60,23 @@ public class Item {
         durability = maxDurability;
     }
 
+    /** Returns an independent copy (same stats, own durability). */
+    public Item copy() {
+        Item item = new Item(name, baseDamage, critChance, specialEffect, maxDurability);
+        item.durability = durability;
+        return item;
+    }
+
+    /** Overwrites this item with another's values (reuses this object instead of copying). */
+    public void copyFrom(Item other) {
+        this.name = other.name;
+        this.baseDamage = other.baseDamage;
+        this.critChance = other.critChance;
+        this.specialEffect = other.specialEffect;
+        this.durability = other.durability;
+        this.maxDurability = other.maxDurability;
+    }
+
     // === Getters ===
     public String getName()            { return name; }
     public int getBaseDamage()         { return baseDamage; }
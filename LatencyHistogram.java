@@ -0,0 +1,126 @@
+package com.bosakon.monsterhunter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Low-overhead HDR-style histogram for non-negative long values (latencies in nanos,
+ * turns per combat, ...).
+ *
+ * Buckets are log-linear: values below 32 are exact, larger values keep 5 significant
+ * bits (about 3% relative error) across the whole long range in 1888 buckets.
+ * Recording is a couple of shifts plus one atomic add into a per-thread stripe,
+ * so concurrent recorders don't fight over the same cache lines.
+ *
+ * Example:
+ *   LatencyHistogram saves = new LatencyHistogram();
+ *   long start = System.nanoTime();
+ *   ...
+ *   saves.record(System.nanoTime() - start);
+ *   long p99 = saves.getValueAtPercentile(99.0);
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+    private static final int STRIPES = stripeCount();
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPES];
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    /** Records one value (negative values are recorded as 0). */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        stripes[stripe].incrementAndGet(bucketOf(value));
+        max.accumulate(value);
+    }
+
+    /** Total number of recorded values. */
+    public long getCount() {
+        long count = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int b = 0; b < BUCKETS; b++) count += stripe.get(b);
+        }
+        return count;
+    }
+
+    /** Mean of recorded values (bucket precision). */
+    public double getMean() {
+        long count = 0;
+        double sum = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            long n = bucketTotal(b);
+            count += n;
+            sum += n * (double) lowerBound(b);
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /** Largest recorded value (exact). */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the value at the given percentile (0-100), or 0 if nothing was recorded.
+     * The result is the lower bound of the bucket holding that percentile.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] totals = new long[BUCKETS];
+        long count = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            totals[b] = bucketTotal(b);
+            count += totals[b];
+        }
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += totals[b];
+            if (seen >= target) return lowerBound(b);
+        }
+        return max.get();
+    }
+
+    /** Clears all recorded values. Not atomic with respect to concurrent record() calls. */
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int b = 0; b < BUCKETS; b++) stripe.set(b, 0);
+        }
+        max.reset();
+    }
+
+    private long bucketTotal(int bucket) {
+        long n = 0;
+        for (AtomicLongArray stripe : stripes) n += stripe.get(bucket);
+        return n;
+    }
+
+    /** Log-linear bucket index: exact below 32, then 32 sub-buckets per power of two. */
+    static int bucketOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int top = (int) (value >>> (exponent - SUB_BITS));       // in [32, 64)
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + (top - SUB_COUNT);
+    }
+
+    /** Smallest value that falls into the bucket. */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+        long top = SUB_COUNT + bucket % SUB_COUNT;
+        return top << (exponent - SUB_BITS);
+    }
+
+    private static int stripeCount() {
+        int n = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        return Math.min(n * 2, 16);
+    }
+}
@@ -0,0 +1,130 @@
+package com.bosakon.monsterhunter;
+
+import java.util.Random;
+
+/**
+ * One compiled loot table: weighted drops sampled in O(1) with Walker's alias method,
+ * plus an optional guaranteed drop. Built by LootTables from content/loot.txt.
+ *
+ * Sampling draws one column uniformly, then one coin against that column's probability:
+ * either the column's own drop or its alias. No search, no allocation, however many
+ * drops the table has. A drop is an int code:
+ *   - NOTHING (-1)
+ *   - 0..n-1: an item or weapon of LootTables (see LootTables.getDropName())
+ *   - a nested table, rolled in turn until it yields one of the above
+ *
+ * Guaranteed drop: with a counters array (one per hunter, see Hunter.getLootCounters()),
+ * the table's guaranteed drop comes out at the latest on every Nth roll; a natural
+ * drop restarts the count. Without counters (layout rolls), the table is a plain
+ * weighted draw.
+ *
+ * Example:
+ *   LootTable boss = LootTables.get().forBoss();
+ *   int drop = boss.roll(player.getRandom(), player.getLootCounters());
+ *   if (drop != LootTable.NOTHING) ...
+ */
+public final class LootTable {
+    /** No drop. */
+    public static final int NOTHING = -1;
+
+    private final String name;
+    private final double[] prob;  // chance to keep column i rather than take its alias
+    private final int[] alias;
+    private final int[] outcome;  // per column: NOTHING, a drop id, or nestedCode(table)
+    private final int guaranteed; // outcome code of the guaranteed drop
+    private final int guaranteeRolls; // 0 if none
+    private final int counter;    // slot in the hunter's counters, -1 if none
+    private LootTable[] tables;   // all tables of the registry, for nested codes
+
+    /**
+     * Compiles a table with Vose's alias construction.
+     * @param outcomes       Drop code per entry
+     * @param weights        Relative weight per entry (positive)
+     * @param guaranteed     Entry index with a guarantee, or -1
+     * @param guaranteeRolls Guarantee period in rolls (ignored without a guaranteed entry)
+     * @param counter        Counter slot for the guarantee, or -1
+     */
+    LootTable(String name, int[] outcomes, double[] weights, int guaranteed, int guaranteeRolls, int counter) {
+        int n = outcomes.length;
+        this.name = name;
+        this.outcome = outcomes.clone();
+        this.prob = new double[n];
+        this.alias = new int[n];
+        this.guaranteed = guaranteed >= 0 ? outcomes[guaranteed] : NOTHING;
+        this.guaranteeRolls = guaranteed >= 0 ? guaranteeRolls : 0;
+        this.counter = guaranteed >= 0 ? counter : -1;
+
+        double total = 0;
+        for (double w : weights) total += w;
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            prob[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = scaled[l] + scaled[s] - 1.0;
+            if (scaled[l] < 1.0) small[smallCount++] = l;
+            else large[largeCount++] = l;
+        }
+        // Leftovers are 1.0 up to rounding
+        while (largeCount > 0) prob[large[--largeCount]] = 1.0;
+        while (smallCount > 0) prob[small[--smallCount]] = 1.0;
+    }
+
+    /** Links nested codes to the registry's tables (LootTables, once all tables exist). */
+    void link(LootTable[] tables) {
+        this.tables = tables;
+    }
+
+    /** Code of a nested table in an outcome array. */
+    static int nestedCode(int tableIndex) {
+        return -2 - tableIndex;
+    }
+
+    /**
+     * Rolls the table (and any nested tables) once.
+     * @param counters The hunter's guarantee counters, or null for a plain weighted draw
+     * @return a drop id, or NOTHING
+     */
+    public int roll(Random rand, int[] counters) {
+        LootTable table = this;
+        while (true) {
+            int drop;
+            if (counters != null && table.counter >= 0) {
+                if (++counters[table.counter] >= table.guaranteeRolls) {
+                    drop = table.guaranteed;
+                } else {
+                    drop = table.sample(rand);
+                }
+                if (drop == table.guaranteed) counters[table.counter] = 0;
+            } else {
+                drop = table.sample(rand);
+            }
+            if (drop >= NOTHING) return drop;
+            table = table.tables[-2 - drop];
+        }
+    }
+
+    /** One alias draw: a column, then that column's drop or its alias. */
+    private int sample(Random rand) {
+        int column = rand.nextInt(prob.length);
+        return rand.nextDouble() < prob[column] ? outcome[column] : outcome[alias[column]];
+    }
+
+    public String getName() { return name; }
+    /** Rolls after which the guaranteed drop is forced (0 if the table has none). */
+    public int getGuaranteeRolls() { return guaranteeRolls; }
+
+    @Override
+    public String toString() {
+        return "LootTable " + name + " (" + outcome.length + " drops)";
+    }
+}
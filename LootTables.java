@@ -0,0 +1,250 @@
+package com.bosakon.monsterhunter;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * All loot tables of content/loot.txt, compiled once into alias tables (see LootTable):
+ * one per dungeon rank (floor clear), one per monster template (the kill) and one for
+ * bosses, plus any nested tables they refer to with "@name".
+ *
+ * Floor loot is rolled with the floor layout (DungeonGenerator), so it is part of the
+ * seed like everything else on the floor: rollFloor() fills a per-monster drop array
+ * and returns the floor clear drop, without allocating. Boss drops are rolled when the
+ * boss falls, against the hunter's own guarantee counters.
+ *
+ * Example:
+ *   LootTables loot = LootTables.get();
+ *   int clearDrop = loot.rollFloor("S", monsters, rand, monsterDrops);
+ *   if (clearDrop != LootTable.NOTHING) System.out.println("> You found a " + loot.grant(player, clearDrop) + "!");
+ *
+ * <b>How to add a drop:</b>
+ *   - Add a line to content/loot.txt (see the header comment there). Weights are relative,
+ *     so existing lines don't need to change. Nested tables and weapons work the same way.
+ */
+public final class LootTables {
+    private static final LootTable EMPTY = new LootTable("none", new int[] {LootTable.NOTHING}, new double[] {1}, -1, 0, -1);
+
+    private static volatile LootTables instance;
+
+    private final LootTable[] tables;
+    private final LootTable[] byRank = new LootTable[Hunter.rankCount()];
+    private final Map<String, LootTable> byTemplate = new HashMap<>();
+    private final LootTable boss;
+    private final String[] dropNames;  // item names, or weapon display names
+    private final int[] dropWeapons;   // catalog weapon index, -1 for items
+    private final int counterCount;
+
+    private LootTables(ContentCatalog catalog) {
+        // Group rows by table, in file order
+        Map<String, List<Integer>> rowsByTable = new LinkedHashMap<>();
+        for (int row = 0; row < catalog.getLootRowCount(); row++) {
+            rowsByTable.computeIfAbsent(catalog.getLootTable(row), k -> new ArrayList<>()).add(row);
+        }
+        Map<String, Integer> tableIndex = new HashMap<>();
+        for (String name : rowsByTable.keySet()) tableIndex.put(name, tableIndex.size());
+
+        Map<String, Integer> dropIndex = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<Integer> weapons = new ArrayList<>();
+        tables = new LootTable[rowsByTable.size()];
+        int counters = 0;
+        for (Map.Entry<String, List<Integer>> entry : rowsByTable.entrySet()) {
+            String name = entry.getKey();
+            List<Integer> rows = entry.getValue();
+            int[] outcomes = new int[rows.size()];
+            double[] weights = new double[rows.size()];
+            int guaranteed = -1, guaranteeRolls = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                int row = rows.get(i);
+                String drop = catalog.getLootDrop(row);
+                weights[i] = catalog.getLootWeight(row);
+                if (weights[i] <= 0) throw new IllegalStateException("loot.txt: " + name + " | " + drop + ": weight must be positive");
+                if (catalog.getLootGuarantee(row) > 0) {
+                    if (guaranteed >= 0) throw new IllegalStateException("loot.txt: " + name + " has more than one guarantee");
+                    guaranteed = i;
+                    guaranteeRolls = catalog.getLootGuarantee(row);
+                }
+                if ("nothing".equals(drop)) {
+                    outcomes[i] = LootTable.NOTHING;
+                } else if (drop.startsWith("@")) {
+                    Integer nested = tableIndex.get(drop.substring(1));
+                    if (nested == null) throw new IllegalStateException("loot.txt: " + name + " refers to unknown table " + drop);
+                    outcomes[i] = LootTable.nestedCode(nested);
+                } else {
+                    Integer id = dropIndex.get(drop);
+                    if (id == null) {
+                        int weapon = -1;
+                        String display = drop;
+                        if (drop.startsWith("weapon:")) {
+                            weapon = catalog.getWeaponIndex(drop.substring(7));
+                            if (weapon < 0) throw new IllegalStateException("loot.txt: " + name + " refers to unknown " + drop);
+                            display = catalog.getWeaponName(weapon);
+                        }
+                        id = names.size();
+                        dropIndex.put(drop, id);
+                        names.add(display);
+                        weapons.add(weapon);
+                    }
+                    outcomes[i] = id;
+                }
+            }
+            tables[tableIndex.get(name)] = new LootTable(name, outcomes, weights, guaranteed, guaranteeRolls,
+                    guaranteed >= 0 ? counters++ : -1);
+        }
+        for (LootTable table : tables) table.link(tables);
+        for (int t = 0; t < tables.length; t++) checkNoCycle(t, new boolean[tables.length], rowsByTable, tableIndex, catalog);
+
+        dropNames = names.toArray(new String[0]);
+        dropWeapons = new int[weapons.size()];
+        for (int i = 0; i < dropWeapons.length; i++) dropWeapons[i] = weapons.get(i);
+        counterCount = counters;
+
+        for (int r = 0; r < byRank.length; r++) byRank[r] = table(tableIndex, "rank:" + Hunter.rankName(r));
+        for (String name : tableIndex.keySet()) {
+            if (name.startsWith("monster:")) byTemplate.put(name.substring(8), tables[tableIndex.get(name)]);
+        }
+        boss = table(tableIndex, "boss");
+    }
+
+    private LootTable table(Map<String, Integer> tableIndex, String name) {
+        Integer index = tableIndex.get(name);
+        return index == null ? EMPTY : tables[index];
+    }
+
+    /** Rejects "@a" -> "@b" -> "@a" loops, which would make roll() spin forever. */
+    private static void checkNoCycle(int table, boolean[] onPath, Map<String, List<Integer>> rowsByTable,
+                                     Map<String, Integer> tableIndex, ContentCatalog catalog) {
+        onPath[table] = true;
+        String name = new ArrayList<>(rowsByTable.keySet()).get(table);
+        for (int row : rowsByTable.get(name)) {
+            String drop = catalog.getLootDrop(row);
+            if (!drop.startsWith("@")) continue;
+            int nested = tableIndex.get(drop.substring(1));
+            if (onPath[nested]) throw new IllegalStateException("loot.txt: table " + name + " nests itself through " + drop);
+            checkNoCycle(nested, onPath, rowsByTable, tableIndex, catalog);
+        }
+        onPath[table] = false;
+    }
+
+    /** Returns the compiled tables of the shared content catalog, building them on first use. */
+    public static LootTables get() {
+        LootTables result = instance;
+        if (result == null) {
+            synchronized (LootTables.class) {
+                result = instance;
+                if (result == null) {
+                    result = new LootTables(ContentCatalog.get());
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Floor clear table of a dungeon rank (an always-empty table if loot.txt has none). */
+    public LootTable forRank(String rank) {
+        return byRank[Hunter.rankIndex(rank)];
+    }
+
+    /** Kill table of a monster template such as "Goblin" (an always-empty table if none). */
+    public LootTable forMonster(String template) {
+        LootTable table = byTemplate.get(template);
+        return table == null ? EMPTY : table;
+    }
+
+    /** Boss kill table. */
+    public LootTable forBoss() { return boss; }
+
+    /**
+     * Rolls all loot of one floor: each monster's kill drop into monsterDrops[i], and the
+     * floor clear drop as the return value. Allocation-free; plain weighted draws.
+     */
+    public int rollFloor(String rank, Monster[] monsters, Random rand, int[] monsterDrops) {
+        for (int i = 0; i < monsters.length; i++) {
+            monsterDrops[i] = forMonster(monsters[i].getTemplate()).roll(rand, null);
+        }
+        return forRank(rank).roll(rand, null);
+    }
+
+    /**
+     * Gives a drop to the hunter: an item goes to the inventory, a weapon replaces the
+     * equipped one. Returns the drop's display name.
+     */
+    public String grant(Hunter hunter, int drop) {
+        if (dropWeapons[drop] >= 0) {
+            hunter.setWeapon(ContentCatalog.get().createWeapon(dropWeapons[drop]));
+        } else {
+            hunter.addItem(dropNames[drop]);
+        }
+        return dropNames[drop];
+    }
+
+    /** Item name or weapon display name of a drop. */
+    public String getDropName(int drop) { return dropNames[drop]; }
+    public boolean isWeapon(int drop) { return dropWeapons[drop] >= 0; }
+    public int getDropCount() { return dropNames.length; }
+    /** Size of a hunter's guarantee counter array. */
+    public int getCounterCount() { return counterCount; }
+
+    /**
+     * Samples every rank table and the boss table, checks the drop rates against the
+     * weights, and measures sampling speed and what rolling a floor batch allocates.
+     */
+    public static void main(String[] args) {
+        int rolls = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        LootTables loot = get();
+        Random rand = new Random(42);
+
+        for (int r = 0; r < Hunter.rankCount(); r++) {
+            String rank = Hunter.rankName(r);
+            int[] counts = new int[loot.getDropCount() + 1];
+            LootTable table = loot.forRank(rank);
+            for (int i = 0; i < rolls; i++) counts[table.roll(rand, null) + 1]++;
+            StringBuilder line = new StringBuilder(String.format("rank:%s |", rank));
+            for (int d = 0; d < counts.length; d++) {
+                if (counts[d] == 0) continue;
+                line.append(String.format(" %s %.2f%%", d == 0 ? "nothing" : loot.getDropName(d - 1), 100.0 * counts[d] / rolls));
+            }
+            System.out.println(line);
+        }
+
+        // Boss drops with a guarantee: longest dry streak must stay under the period
+        int[] counters = new int[loot.getCounterCount()];
+        int drops = 0, streak = 0, longest = 0;
+        for (int i = 0; i < rolls; i++) {
+            if (loot.forBoss().roll(rand, counters) != LootTable.NOTHING) {
+                drops++;
+                streak = 0;
+            } else {
+                longest = Math.max(longest, ++streak);
+            }
+        }
+        System.out.printf("boss | drop rate %.2f%% with guarantee | longest dry streak %d (guaranteed every %d)%n",
+                100.0 * drops / rolls, longest, loot.forBoss().getGuaranteeRolls());
+
+        // Floor batches: speed and allocation on this thread
+        Monster[] monsters = new Monster[3];
+        for (int i = 0; i < monsters.length; i++) monsters[i] = new Monster(5, i == 0, new Random(i));
+        int[] monsterDrops = new int[monsters.length];
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long sink = 0;
+        for (int warm = 0; warm < 3; warm++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < rolls; i++) sink += loot.rollFloor("S", monsters, rand, monsterDrops) + monsterDrops[0];
+            long nanos = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+            System.out.printf("floor batch (3 monsters + clear) | %.1f ns per floor | %d bytes allocated in %d floors%n",
+                    nanos / (double) rolls, allocated, rolls);
+        }
+        if (sink == 42) System.out.println();
+    }
+}
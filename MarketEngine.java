@@ -0,0 +1,243 @@
+package com.bosakon.monsterhunter;
+
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide merchant economy: one shared stock per item (content/merchant.txt),
+ * prices that follow supply and demand across all sessions, and scheduled restocks.
+ *
+ * A purchase only takes one unit of stock (a CAS on that item's counter) and bumps a
+ * striped LongAdder of demand; it never recomputes anything. Every priceMillis a
+ * scheduled task drains the demand counters into a demand rate and publishes
+ * a new immutable price array through a volatile field, so price reads (NPC.trade) are
+ * a single array load, lock-free no matter how many sessions are buying. Every
+ * restockMillis the same scheduler tops stock back up toward the starting amount.
+ *
+ * Price rule, per item:
+ *   price = basePrice * (1 + DEMAND_WEIGHT * demand / startingStock
+ *                          + SCARCITY_WEIGHT * (1 - stock / startingStock))
+ * clamped to [basePrice, MAX_MARKUP * basePrice], where demand is the number of units
+ * bought per minute, averaged over about DEMAND_WINDOW_MILLIS (an exponentially weighted
+ * moving average, so the price interval only sets how often it is sampled). A single
+ * purchase adds about one unit per minute and fades over the next minutes; quiet markets
+ * drift back to the base price. Items with no starting stock keep their base price.
+ *
+ * Example:
+ *   MarketEngine market = MarketEngine.get();
+ *   int price = market.getPrice("Health Potion");
+ *   if (player.getGold() >= price && market.tryBuy("Health Potion")) { ... }
+ *
+ * <b>How to tune:</b>
+ *   - Reaction speed: DEMAND_WINDOW_MILLIS; -Dhunter.market.priceMillis (default 1000) is how often prices move
+ *   - Restock pace: -Dhunter.market.restockMillis (default 60000), RESTOCK_FRACTION
+ *   - Price swing: DEMAND_WEIGHT, SCARCITY_WEIGHT, MAX_MARKUP
+ */
+public final class MarketEngine {
+    private static final double DEMAND_WEIGHT = 0.5;
+    private static final double SCARCITY_WEIGHT = 0.5;
+    private static final double MAX_MARKUP = 3.0;
+    private static final double DEMAND_WINDOW_MILLIS = 60_000; // time constant of the demand average
+    private static final double RESTOCK_FRACTION = 0.25; // of starting stock per restock
+
+    private static volatile MarketEngine instance;
+
+    private final ContentCatalog catalog;
+    private final long priceMillis;
+    private final int[] startingStock;
+    private final int[] basePrices;
+    private final AtomicIntegerArray stock;
+    private final LongAdder[] demand;        // units bought since the last recompute
+    private final double[] demandRate;       // averaged units per minute; recompute task only
+    private final AtomicLong purchases = new AtomicLong();
+    private volatile int[] prices;           // published snapshot, never modified
+    private ScheduledExecutorService scheduler;
+
+    /** Market over the catalog's merchant items; call start() to run the schedules. */
+    MarketEngine(ContentCatalog catalog, long priceMillis) {
+        this.catalog = catalog;
+        this.priceMillis = priceMillis;
+        int n = catalog.getMerchantItemCount();
+        startingStock = new int[n];
+        basePrices = new int[n];
+        stock = new AtomicIntegerArray(n);
+        demand = new LongAdder[n];
+        demandRate = new double[n];
+        for (int i = 0; i < n; i++) {
+            startingStock[i] = catalog.getMerchantStock(i);
+            basePrices[i] = catalog.getMerchantPrice(i);
+            stock.set(i, startingStock[i]);
+            demand[i] = new LongAdder();
+        }
+        prices = basePrices.clone();
+    }
+
+    /** Returns the shared market, starting its price and restock schedules on first use. */
+    public static MarketEngine get() {
+        MarketEngine result = instance;
+        if (result == null) {
+            synchronized (MarketEngine.class) {
+                result = instance;
+                if (result == null) {
+                    result = new MarketEngine(ContentCatalog.get(), Long.getLong("hunter.market.priceMillis", 1000));
+                    result.start(Long.getLong("hunter.market.restockMillis", 60_000));
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Schedules price recomputes every priceMillis and restocks every restockMillis (daemon thread). */
+    synchronized void start(long restockMillis) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "market");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::recomputePrices, priceMillis, priceMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::restock, restockMillis, restockMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // ===================== Session side (lock-free) =====================
+
+    /** Current price of an item (0 for items the merchant doesn't list). */
+    public int getPrice(String item) {
+        int index = catalog.getMerchantIndex(item);
+        return index < 0 ? 0 : prices[index];
+    }
+
+    public int getPrice(int index) { return prices[index]; }
+    public int getStock(int index) { return stock.get(index); }
+    public int getItemCount() { return startingStock.length; }
+    public String getItem(int index) { return catalog.getMerchantItem(index); }
+    /** Total units sold since startup. */
+    public long getPurchases() { return purchases.get(); }
+
+    /** Takes one unit of stock; returns false if the item is sold out or not listed. */
+    public boolean tryBuy(String item) {
+        int index = catalog.getMerchantIndex(item);
+        return index >= 0 && tryBuy(index);
+    }
+
+    /** Takes one unit of stock; returns false if the item is sold out. */
+    public boolean tryBuy(int index) {
+        int left;
+        do {
+            left = stock.get(index);
+            if (left <= 0) return false;
+        } while (!stock.compareAndSet(index, left, left - 1));
+        demand[index].increment();
+        purchases.incrementAndGet();
+        return true;
+    }
+
+    // ===================== Scheduled batches =====================
+
+    /** Folds the demand since the last run into the per-minute averages and publishes new prices. */
+    void recomputePrices() {
+        double perMinute = 60_000.0 / priceMillis;
+        double weight = 1 - Math.exp(-priceMillis / DEMAND_WINDOW_MILLIS);
+        int[] next = new int[basePrices.length];
+        for (int i = 0; i < next.length; i++) {
+            double bought = demand[i].sumThenReset() * perMinute;
+            demandRate[i] += weight * (bought - demandRate[i]);
+            if (startingStock[i] <= 0) {
+                next[i] = basePrices[i];
+                continue;
+            }
+            double scarcity = 1.0 - Math.min(1.0, (double) stock.get(i) / startingStock[i]);
+            double factor = 1 + DEMAND_WEIGHT * demandRate[i] / startingStock[i] + SCARCITY_WEIGHT * scarcity;
+            next[i] = (int) Math.round(basePrices[i] * Math.min(MAX_MARKUP, factor));
+        }
+        prices = next;
+    }
+
+    /** Tops every item up by RESTOCK_FRACTION of its starting stock, never above it. */
+    void restock() {
+        for (int i = 0; i < startingStock.length; i++) {
+            int amount = Math.max(1, (int) (startingStock[i] * RESTOCK_FRACTION));
+            int left, topped;
+            do {
+                left = stock.get(i);
+                topped = Math.max(left, Math.min(startingStock[i], left + amount));
+            } while (!stock.compareAndSet(i, left, topped));
+        }
+    }
+
+    /**
+     * Back to opening day: full stock, no demand, base prices. Only for runs that must
+     * replay the same market (GoldenRunSuite), with no price recompute due meanwhile.
+     */
+    void reset() {
+        for (int i = 0; i < startingStock.length; i++) {
+            stock.set(i, startingStock[i]);
+            demand[i].reset();
+            demandRate[i] = 0;
+        }
+        prices = basePrices.clone();
+    }
+
+    /**
+     * Rush hour for the first half of the run, then quiet: price-sensitive buyer threads
+     * hammer the market while a reader keeps reading prices. Prints how prices move
+     * and what a price read costs.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int buyers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        MarketEngine market = new MarketEngine(ContentCatalog.get(), 250);
+        market.start(1000);
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long rushEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds) / 2;
+        LongAdder reads = new LongAdder();
+        Thread[] threads = new Thread[buyers + 1];
+        for (int t = 0; t < buyers; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                Random rand = new Random(seed);
+                while (System.nanoTime() < rushEnd) {
+                    int item = rand.nextInt(market.getItemCount());
+                    // The higher the markup, the fewer buyers still pay it
+                    if (rand.nextDouble() < (double) market.basePrices[item] / market.getPrice(item)) {
+                        market.tryBuy(item);
+                    }
+                    try {
+                        Thread.sleep(rand.nextInt(20));
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+        threads[buyers] = new Thread(() -> {
+            long sink = 0;
+            while (System.nanoTime() < end) {
+                for (int i = 0; i < 1000; i++) sink += market.getPrice("Health Potion");
+                reads.add(1000);
+            }
+            if (sink == 42) System.out.println();
+        });
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) thread.start();
+        while (System.nanoTime() < end) {
+            Thread.sleep(1000);
+            StringBuilder line = new StringBuilder(String.format("t=%4.1fs", (System.nanoTime() - start) / 1e9));
+            for (int i = 0; i < market.getItemCount(); i++) {
+                line.append(String.format(" | %s %3d g (%2d left)", market.getItem(i), market.getPrice(i), market.getStock(i)));
+            }
+            System.out.println(line);
+        }
+        for (Thread thread : threads) thread.join();
+        System.out.printf("%d purchases | %.1f ns wall time per price read on the reader thread (%d reads)%n",
+                market.getPurchases(), (System.nanoTime() - start) / (double) reads.sum(), reads.sum());
+    }
+}
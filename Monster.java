@@ -3,7 +3,6 @@ package com.bosakon.monsterhunter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
@@ -17,10 +16,11 @@ import java.util.Set;
  * - Bosses can have multiple abilities and stronger stats.
  * - Each monster can inflict status effects (e.g., Burn, Poison) on the Hunter.
  * - Cooldowns for abilities, and active effects on monster (affecting its attack).
- * - Easily extensible: Add new abilities/statuses by editing ABILITIES array.
+ * - Easily extensible: Add new abilities/statuses by editing content/abilities.txt.
  */
 public class Monster {
     private String name;
+    private int template; // index into SUFFIXES; picks the loot table (see LootTables)
     private int level;
     private int maxHP;
     private int hp;
@@ -28,107 +28,264 @@ public class Monster {
     private boolean isBoss;
     private String[] abilities;
     private int[] cooldowns;
+    private int readyMask;    // bit i set while ability i is off cooldown
+    private int[] behavior;   // compiled behavior rules (see MonsterBehavior.compile()); shared by copies
     private StatusEffect[] abilityEffects;
     private List<StatusEffect> activeEffects;
+    private Random rand; // cooldown rolls; the generator's seeded Random when built by DungeonGenerator
+    private boolean simulated; // copies for AutoBattleBot etc.: no metrics or JFR events
+
+    // Copy-on-write (see fork()): arrays shared with a branch, copied before the first write
+    private static final int COOLDOWNS = 1, EFFECTS = 2;
+    private int shared;
+
+    static final int BOSS_LEVEL_BONUS = 2; // bosses are this many levels above their floor's monsters
 
     private static final String[] PREFIXES = {"Shadow", "Frost", "Vengeful", "Crimson", "Rotting"};
     private static final String[] SUFFIXES = {"Goblin", "Orc", "Spider", "Snake", "Wraith"};
-    // {AbilityName, StatusName, duration, damage, dmgModifier, defModifier}
-    private static final String[][] ABILITIES = {
-        {"Fire Breath", "Burning", "3", "10", "1.2", "0"},
-        {"Poison Sting", "Tetanus", "2", "7", "1.0", "0"},
-        {"Frost Aura", "Freeze", "2", "0", "0.8", "1.2"},
-        {"Life Drain", "Leech", "3", "5", "1.0", "0"},
-        {"Enrage", "Enrage", "4", "0", "2.0", "0"},
-        {"Venom Cloud", "Venom", "3", "6", "1.0", "0"}
-    };
 
     public Monster(int playerRank, boolean boss) {
-        Random rand = new Random();
-        this.name = PREFIXES[rand.nextInt(PREFIXES.length)] + " " + SUFFIXES[rand.nextInt(SUFFIXES.length)];
-        this.level = playerRank + rand.nextInt(3) + (boss ? 2 : 0);
-        this.maxHP = 20 + level * 10 + (boss ? 30 : 0);
+        this(playerRank, boss, new Random());
+    }
+
+    /**
+     * Creates a monster using the given Random, so seeded generators
+     * (see DungeonGenerator) always produce the same monster.
+     */
+    public Monster(int playerRank, boolean boss, Random rand) {
+        this(playerRank, boss, rand, false);
+    }
+
+    /** Creates a monster; simulated monsters record no metrics or events (see copy()). */
+    Monster(int playerRank, boolean boss, Random rand, boolean simulated) {
+        int prefix = rand.nextInt(PREFIXES.length);
+        this.template = rand.nextInt(SUFFIXES.length);
+        this.name = PREFIXES[prefix] + " " + SUFFIXES[template];
+        this.level = playerRank + rand.nextInt(3) + (boss ? BOSS_LEVEL_BONUS : 0);
+        this.maxHP = maxHPFor(level, boss);
         this.hp = maxHP;
         this.baseDamage = 5 + level * 2 + (boss ? 8 : 0);
         this.isBoss = boss;
+        this.rand = rand;
 
-        int nAbilities = boss ? 3 : 1 + rand.nextInt(2);
+        ContentCatalog catalog = ContentCatalog.get();
+        int nAbilities = Math.min(boss ? 3 : 1 + rand.nextInt(2), catalog.getAbilityCount());
         abilities = new String[nAbilities];
         cooldowns = new int[nAbilities];
         abilityEffects = new StatusEffect[nAbilities];
+        int[] abilityIds = new int[nAbilities];
         Set<Integer> used = new HashSet<>();
         for (int i = 0; i < nAbilities; i++) {
             int ab;
-            do { ab = rand.nextInt(ABILITIES.length); } while (used.contains(ab));
+            do { ab = rand.nextInt(catalog.getAbilityCount()); } while (used.contains(ab));
             used.add(ab);
-            abilities[i] = ABILITIES[ab][0];
+            abilityIds[i] = ab;
+            abilities[i] = catalog.getAbilityName(ab);
             cooldowns[i] = 0;
-            abilityEffects[i] = new StatusEffect(
-                ABILITIES[ab][1],
-                Integer.parseInt(ABILITIES[ab][2]),
-                Integer.parseInt(ABILITIES[ab][3]),
-                Double.parseDouble(ABILITIES[ab][4]),
-                Double.parseDouble(ABILITIES[ab][5])
-            );
+            abilityEffects[i] = catalog.createAbilityEffect(ab);
         }
+        readyMask = (1 << nAbilities) - 1;
+        behavior = MonsterBehavior.get().compile(abilityIds);
         activeEffects = new ArrayList<>();
+        this.simulated = simulated;
+    }
+
+    /** Empty monster for copy() and fork(), which fill every field. */
+    private Monster() {
+    }
+
+    /**
+     * Returns a branch of the monster in O(1), for search and what-if tools (see
+     * Hunter.fork()): cooldowns and active effects are shared until either side
+     * changes them. Like copy(), the branch records no metrics or events.
+     */
+    public Monster fork() {
+        return fork(true);
+    }
+
+    /** Branch that records metrics and events unless simulated (Dungeon forks floors of a live dungeon). */
+    Monster fork(boolean simulated) {
+        Monster branch = new Monster();
+        branch.copyStats(this);
+        branch.cooldowns = cooldowns;
+        branch.activeEffects = activeEffects;
+        shared = branch.shared = COOLDOWNS | EFFECTS;
+        branch.rand = new Random();
+        branch.simulated = simulated;
+        return branch;
+    }
+
+    /** Takes private copies of the given arrays if they are shared with a fork. */
+    private void own(int components) {
+        int copy = shared & components;
+        if (copy == 0) return;
+        shared &= ~copy;
+        if ((copy & COOLDOWNS) != 0) cooldowns = cooldowns.clone();
+        if ((copy & EFFECTS) != 0) {
+            List<StatusEffect> own = new ArrayList<>(activeEffects.size());
+            for (int i = 0; i < activeEffects.size(); i++) own.add(activeEffects.get(i).copy());
+            activeEffects = own;
+        }
+    }
+
+    /**
+     * Returns a copy of the monster for combat simulations. Abilities and their effect
+     * templates are shared; HP, cooldowns and active effects are the copy's own.
+     * Copies record no metrics or events.
+     */
+    public Monster copy() {
+        Monster copy = new Monster();
+        copy.activeEffects = new ArrayList<>();
+        copy.copyFrom(this);
+        copy.rand = new Random();
+        copy.simulated = true;
+        return copy;
+    }
+
+    /**
+     * Resets this copy to another monster's state, reusing its cooldown array
+     * (simulation rollouts call this per iteration). Keeps this monster's own Random.
+     */
+    public void copyFrom(Monster other) {
+        copyStats(other);
+        if (cooldowns == null || cooldowns.length != other.cooldowns.length || (shared & COOLDOWNS) != 0) cooldowns = other.cooldowns.clone();
+        else System.arraycopy(other.cooldowns, 0, cooldowns, 0, cooldowns.length);
+        if ((shared & EFFECTS) != 0) activeEffects = new ArrayList<>();
+        shared = 0;
+        activeEffects.clear();
+        for (int i = 0; i < other.activeEffects.size(); i++) activeEffects.add(other.activeEffects.get(i).copy());
+    }
+
+    /** Copies the plain fields and the shared, never modified ability tables. */
+    private void copyStats(Monster other) {
+        name = other.name;
+        template = other.template;
+        level = other.level;
+        maxHP = other.maxHP;
+        hp = other.hp;
+        baseDamage = other.baseDamage;
+        isBoss = other.isBoss;
+        abilities = other.abilities;
+        abilityEffects = other.abilityEffects;
+        behavior = other.behavior;
+        readyMask = other.readyMask;
     }
     
+    /** Max HP of a monster of this level (balance tools, see DamageDistribution). */
+    static int maxHPFor(int level, boolean boss) {
+        return 20 + level * 10 + (boss ? 30 : 0);
+    }
+
     public String getName() { return name; }
+    /** Monster kind without its prefix ("Goblin", "Orc", ...), as used by content/loot.txt. */
+    public String getTemplate() { return SUFFIXES[template]; }
     public int getHP() { return hp; }
     public int getLevel() { return level; }
     public boolean isBoss() { return isBoss; }
     public int getMaxHP() { return maxHP; }
+    public int getHealth() { return hp; }
+    public boolean isAlive() { return hp > 0; }
+    /** Damage of a basic attack, including active effect modifiers. */
+    public int getDamage() {
+        int dmg = baseDamage;
+        for (int i = 0; i < activeEffects.size(); i++)   // indexed: no Iterator per attack
+            dmg *= activeEffects.get(i).getDamageModifier();
+        return dmg;
+    }
+    public int getExpReward() { return level * 10 + (isBoss ? 50 : 0); }
+    public int getGoldReward() { return level * 5 + (isBoss ? 30 : 0); }
+    public int getAbilityCount() { return abilities.length; }
+    public String getAbilityName(int index) { return abilities[index]; }
+    /** Status effect template the ability inflicts (shared; don't modify). */
+    public StatusEffect getAbilityEffect(int index) { return abilityEffects[index]; }
+    /** Turns until the ability is ready again (0 = ready). */
+    public int getCooldown(int index) { return cooldowns[index]; }
+    /** True if no status effects modify the monster's attack. */
+    public boolean hasNoActiveEffects() { return activeEffects.isEmpty(); }
+    /** Replaces the monster's Random (seeded simulations). */
+    public void setRandom(Random rand) { this.rand = rand; }
 
-    /** Uses first available ability, or attacks */
-    public void useAbility(Hunter hunter) {
-        for (int i = 0; i < abilities.length; i++) {
-            if (cooldowns[i] == 0) {
-                StatusEffect se = abilityEffects[i].copy();
-                hunter.applyStatusEffect(se);
-                System.out.println(name + " uses " + abilities[i] + "! Applied " + se);
-                cooldowns[i] = 2 + new Random().nextInt(2);
-                return;
-            }
-        }
-        attack(hunter);
+    /** Returns true if at least one ability is off cooldown. */
+    public boolean hasReadyAbility() {
+        return readyMask != 0;
     }
 
+    /** Bit i set if ability i is off cooldown. */
+    public int getReadyMask() { return readyMask; }
+    /** The monster's compiled behavior rules (shared; don't modify). */
+    int[] getBehavior() { return behavior; }
+
+    /**
+     * Picks this turn's move with the monster's behavior rules (see MonsterBehavior):
+     * an ability index, or MonsterBehavior.ATTACK for a basic attack.
+     */
+    public int chooseAbility(Hunter hunter) {
+        if (readyMask == 0) return MonsterBehavior.ATTACK;
+        return MonsterBehavior.get().choose(MonsterBehavior.situation(this, hunter), readyMask, behavior, isBoss);
+    }
+
+    /** Uses a ready ability: inflicts its status effect and puts it on cooldown (2-3 turns). */
+    public void useAbility(Hunter hunter, int index) {
+        // The hunter copies the effect into its own slot, so the template can be passed as is
+        hunter.applyStatusEffect(abilityEffects[index]);
+        own(COOLDOWNS);
+        cooldowns[index] = 2 + rand.nextInt(2);
+        readyMask &= ~(1 << index);
+        if (simulated) return;
+        GameEvents.MonsterAbility event = new GameEvents.MonsterAbility();
+        event.begin();
+        event.monster = name;
+        event.boss = isBoss;
+        if (!hunter.isQuiet()) {
+            System.out.println(name + " uses " + abilities[index] + "! Applied " + abilityEffects[index]);
+        }
+        event.ability = abilities[index];
+        GameEvents.commit(event, hunter);
+    }
 
     /** Reduces all ability cooldowns by 1 (minimum 0) */
     public void reduceCooldowns() {
-        for (int i = 0; i < cooldowns.length; i++)
-            if (cooldowns[i] > 0) cooldowns[i]--;
+        for (int i = 0; i < cooldowns.length; i++) {
+            if (cooldowns[i] > 0) {
+                own(COOLDOWNS);
+                if (--cooldowns[i] == 0) readyMask |= 1 << i;
+            }
+        }
     }
 
     /** Apply a status effect to the monster itself */
     public void applyStatusEffect(StatusEffect se) {
+        own(EFFECTS);
         activeEffects.add(se);
     }
 
-    /** Apply all end-of-turn effects, and remove expired ones */
+    /** Apply all end-of-turn effects (damage over time), and remove expired ones */
     public void applyEndOfTurnEffects() {
-        Iterator<StatusEffect> it = activeEffects.iterator();
-        while (it.hasNext()) {
-            StatusEffect se = it.next();
-            se.applyEffect(null); // Placeholder: add monster effect logic as needed
+        if (!activeEffects.isEmpty()) own(EFFECTS);
+        // Walk backwards so removal by index doesn't skip entries (and no Iterator is allocated)
+        for (int i = activeEffects.size() - 1; i >= 0; i--) {
+            StatusEffect se = activeEffects.get(i);
+            if (se.getDamagePerTurn() > 0) takeDamage(se.getDamagePerTurn());
             se.reduceDuration();
-            if (se.isExpired()) it.remove();
+            if (se.isExpired()) activeEffects.remove(i);
         }
     }
 
     public void takeDamage(int dmg) {
+        if (!simulated) GameMetrics.get().recordDamageDealt(Math.max(0, dmg));
         this.hp -= Math.max(0, dmg);
         if (hp < 0) hp = 0;
     }
 
-    /** Monster basic attack: applies status effect damage modifiers */
-    public void attack(Hunter hunter) {
-        int dmg = baseDamage;
-        for (StatusEffect se : activeEffects)
-            dmg *= se.getDamageModifier();
-        System.out.println(name + " attacks for " + dmg + "!");
-        hunter.reduceHP(dmg);
+    /** Records a basic attack as a MonsterAbility event with no ability (CombatEngine deals the damage). */
+    void recordAttack(Hunter hunter) {
+        if (simulated) return;
+        GameEvents.MonsterAbility event = new GameEvents.MonsterAbility();
+        event.begin();
+        event.monster = name;
+        event.boss = isBoss;
+        event.ability = "";
+        GameEvents.commit(event, hunter);
     }
 
     public boolean isDead() { return hp <= 0; }
@@ -0,0 +1,227 @@
+package com.bosakon.monsterhunter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Monster AI: the rules of content/behavior.txt, compiled once into a decision table.
+ *
+ * A monster's turn is decided from two small bitmasks:
+ *   - the situation: one bit per condition (HURT, DYING, HUNTER_HURT, BLEEDING, PHASE2, PHASE3),
+ *     computed from a few HP comparisons
+ *   - the ready mask: one bit per ability slot that is off cooldown (kept by Monster)
+ * The decision table maps each situation (2^6 of them, per profile) to the rules that
+ * apply there, in file order. Each monster compiles every rule to the mask of its own
+ * ability slots it allows (compile(), once at spawn), so choosing is
+ * "first applicable rule with ready & mask != 0": a few ANDs, no matter how many
+ * abilities the monster has or how many rules the file has for other situations.
+ *
+ * Choices are pure functions of (situation, ready mask, rule masks), so FightSolver
+ * plays the exact same AI in its model as CombatEngine does in a real fight.
+ *
+ * Example:
+ *   MonsterBehavior ai = MonsterBehavior.get();
+ *   int[] rules = ai.compile(catalogAbilityIds);   // once per monster
+ *   int slot = ai.choose(MonsterBehavior.situation(monster, hunter), readyMask, rules, boss);
+ *   if (slot == MonsterBehavior.ATTACK) ... else ... // use the ability in that slot
+ *
+ * <b>How to change monster behavior:</b>
+ *   - Edit content/behavior.txt (see the header comment there); no recompile needed.
+ *   - New condition: a bit here, its name in CONDITIONS and a test in situation().
+ */
+public final class MonsterBehavior {
+    /** Choice meaning "basic attack". */
+    public static final int ATTACK = -1;
+
+    // Situation bits, in CONDITIONS order
+    static final int HURT = 1, DYING = 2, PHASE2 = 4, PHASE3 = 8, HUNTER_HURT = 16, BLEEDING = 32;
+    private static final String[] CONDITIONS = {"hurt", "dying", "phase2", "phase3", "hunter-hurt", "bleeding"};
+    private static final String[] PROFILES = {"monster", "boss"};
+    private static final int SITUATIONS = 1 << CONDITIONS.length;
+    private static final long ALL_ABILITIES = -1L;
+
+    private static volatile MonsterBehavior instance;
+
+    private final int ruleCount;
+    private final long[] ruleAbilities;  // per rule: catalog abilities it allows (bit = ability id)
+    private final boolean[] ruleAttack;  // per rule: a basic attack
+    private final int[][][] decisions;   // [profile][situation] -> applicable rules, in file order
+    private final String description;    // all rules, normalized (FightSolver cache key)
+
+    private MonsterBehavior(ContentCatalog catalog) {
+        if (catalog.getAbilityCount() > 64) throw new IllegalStateException("At most 64 monster abilities are supported");
+        ruleCount = catalog.getBehaviorRuleCount();
+        ruleAbilities = new long[ruleCount];
+        ruleAttack = new boolean[ruleCount];
+        int[] profile = new int[ruleCount];
+        int[] require = new int[ruleCount];
+        int[] forbid = new int[ruleCount];
+        StringBuilder sb = new StringBuilder();
+
+        for (int r = 0; r < ruleCount; r++) {
+            String where = "behavior.txt: " + catalog.getBehaviorProfile(r) + " | " + catalog.getBehaviorConditions(r)
+                    + " | " + catalog.getBehaviorAction(r);
+            profile[r] = Arrays.asList(PROFILES).indexOf(catalog.getBehaviorProfile(r));
+            if (profile[r] < 0) throw new IllegalStateException(where + ": unknown profile");
+
+            for (String condition : catalog.getBehaviorConditions(r).split(",")) {
+                condition = condition.trim();
+                if (condition.equals("always") || condition.isEmpty()) continue;
+                boolean negated = condition.startsWith("!");
+                int bit = Arrays.asList(CONDITIONS).indexOf(negated ? condition.substring(1) : condition);
+                if (bit < 0) throw new IllegalStateException(where + ": unknown condition " + condition);
+                if (negated) forbid[r] |= 1 << bit;
+                else require[r] |= 1 << bit;
+            }
+
+            String action = catalog.getBehaviorAction(r);
+            if (action.equals("attack")) {
+                ruleAttack[r] = true;
+            } else if (action.equals("any")) {
+                ruleAbilities[r] = ALL_ABILITIES;
+            } else if (action.equals("dot")) {
+                for (int a = 0; a < catalog.getAbilityCount(); a++) {
+                    if (catalog.createAbilityEffect(a).getDamagePerTurn() > 0) ruleAbilities[r] |= 1L << a;
+                }
+            } else {
+                for (int a = 0; a < catalog.getAbilityCount(); a++) {
+                    if (catalog.getAbilityName(a).equals(action)) ruleAbilities[r] |= 1L << a;
+                }
+                if (ruleAbilities[r] == 0) throw new IllegalStateException(where + ": unknown ability " + action);
+            }
+            sb.append(PROFILES[profile[r]]).append(':').append(require[r]).append('/').append(forbid[r])
+              .append(':').append(action).append(';');
+        }
+        description = sb.toString();
+
+        // Decision table: per situation, the rules whose conditions hold, cut after the
+        // first basic attack (nothing below it can ever be chosen)
+        decisions = new int[PROFILES.length][SITUATIONS][];
+        List<Integer> applicable = new ArrayList<>();
+        for (int p = 0; p < PROFILES.length; p++) {
+            for (int s = 0; s < SITUATIONS; s++) {
+                applicable.clear();
+                for (int r = 0; r < ruleCount; r++) {
+                    if (profile[r] != p || (s & require[r]) != require[r] || (s & forbid[r]) != 0) continue;
+                    applicable.add(r);
+                    if (ruleAttack[r]) break;
+                }
+                int[] rules = new int[applicable.size()];
+                for (int i = 0; i < rules.length; i++) rules[i] = applicable.get(i);
+                decisions[p][s] = rules;
+            }
+        }
+    }
+
+    /** Returns the compiled rules of the shared content catalog, building them on first use. */
+    public static MonsterBehavior get() {
+        MonsterBehavior result = instance;
+        if (result == null) {
+            synchronized (MonsterBehavior.class) {
+                result = instance;
+                if (result == null) {
+                    result = new MonsterBehavior(ContentCatalog.get());
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compiles every rule for one monster: the mask of its ability slots the rule allows.
+     * @param abilityIds Catalog ability id per slot (see ContentCatalog.getAbilityName())
+     */
+    public int[] compile(int[] abilityIds) {
+        if (abilityIds.length > 31) throw new IllegalArgumentException("At most 31 abilities per monster");
+        int[] masks = new int[ruleCount];
+        for (int r = 0; r < ruleCount; r++) {
+            for (int slot = 0; slot < abilityIds.length; slot++) {
+                if ((ruleAbilities[r] & 1L << abilityIds[slot]) != 0) masks[r] |= 1 << slot;
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * The monster's move: an ability slot, or ATTACK.
+     * @param situation See situation()
+     * @param ready     Bit i set if ability slot i is off cooldown
+     * @param rules     The monster's compile() result
+     */
+    public int choose(int situation, int ready, int[] rules, boolean boss) {
+        int[] candidates = decisions[boss ? 1 : 0][situation];
+        for (int i = 0; i < candidates.length; i++) {
+            int r = candidates[i];
+            if (ruleAttack[r]) return ATTACK;
+            int usable = ready & rules[r];
+            if (usable != 0) return Integer.numberOfTrailingZeros(usable);
+        }
+        return ATTACK;
+    }
+
+    /** Situation bits of a live fight. */
+    public static int situation(Monster monster, Hunter hunter) {
+        StatusEffect status = hunter.getStatus();
+        boolean bleeding = status != null && status.getDuration() > 0 && status.getDamagePerTurn() > 0;
+        return situation(monster.getHP(), monster.getMaxHP(), monster.isBoss(), hunter.getHP(), hunter.getMaxHP(), bleeding);
+    }
+
+    /** Situation bits from plain numbers (FightSolver's model). */
+    static int situation(int hp, int maxHP, boolean boss, int hunterHP, int hunterMaxHP, boolean bleeding) {
+        int s = 0;
+        if (hp * 2 <= maxHP) s |= HURT;
+        if (hp * 4 <= maxHP) s |= DYING;
+        if (boss && hp * 3 <= maxHP * 2) s |= PHASE2;
+        if (boss && hp * 3 <= maxHP) s |= PHASE3;
+        if (hunterHP * 2 <= hunterMaxHP) s |= HUNTER_HURT;
+        if (bleeding) s |= BLEEDING;
+        return s;
+    }
+
+    /** All rules in a normalized form: equal strings mean equal behavior. */
+    public String getDescription() { return description; }
+
+    /**
+     * Prints each profile's decision table size and measures the cost of a decision for
+     * monsters and bosses with 1 to 3 abilities.
+     */
+    public static void main(String[] args) {
+        int decisions = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        MonsterBehavior ai = get();
+        ContentCatalog catalog = ContentCatalog.get();
+        for (int p = 0; p < PROFILES.length; p++) {
+            int entries = 0, longest = 0;
+            for (int[] rules : ai.decisions[p]) {
+                entries += rules.length;
+                longest = Math.max(longest, rules.length);
+            }
+            System.out.printf("%-7s | %d situations | %.1f rules per situation on average, %d at most%n",
+                    PROFILES[p], SITUATIONS, entries / (double) SITUATIONS, longest);
+        }
+
+        Random rand = new Random(42);
+        int[] situations = new int[1024];
+        int[] readies = new int[1024];
+        for (int abilities = 1; abilities <= Math.min(3, catalog.getAbilityCount()); abilities++) {
+            int[] ids = new int[abilities];
+            for (int i = 0; i < abilities; i++) ids[i] = i;
+            for (int i = 0; i < situations.length; i++) {
+                situations[i] = rand.nextInt(SITUATIONS);
+                readies[i] = rand.nextInt(1 << abilities);
+            }
+            for (int b = 0; b < 2; b++) {
+                boolean boss = b == 1;
+                int[] rules = ai.compile(ids);
+                long sink = 0;
+                long start = System.nanoTime();
+                for (int i = 0; i < decisions; i++) sink += ai.choose(situations[i & 1023], readies[i & 1023], rules, boss);
+                double nanos = (System.nanoTime() - start) / (double) decisions;
+                System.out.printf("%-7s with %d abilities | %.1f ns per decision%s%n",
+                        boss ? "boss" : "monster", abilities, nanos, sink == 42 ? " " : "");
+            }
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.bosakon.monsterhunter;
 
 import java.util.HashMap;
+import java.util.InputMismatchException;
 import java.util.Map;
-import java.util.Scanner;
 
 class NPC {
     private String type;
@@ -13,25 +13,19 @@ class NPC {
         this.type = type;
         this.name = name;
         this.inventory = new HashMap<>();
-
-        // Merchant default inventory (add more as needed)
-        if ("merchant".equals(type)) {
-            inventory.put("Health Potion", 10);
-            inventory.put("Mana Potion", 8);
-            inventory.put("Weapon Repair Kit", 5);
-        }
+        // Merchant stock and prices live in the shared MarketEngine (items in content/merchant.txt)
     }
 
     /**
      * Handles interaction with player.
      * @param player Hunter interacting with NPC
-     * @param scanner Shared Scanner instance
+     * @param input Shared player input
      */
-    public void interact(Hunter player, Scanner scanner) {
+    public void interact(Hunter player, InputSource input) {
         if (player == null) return;
         switch(type) {
             case "merchant":
-                trade(player, scanner);
+                trade(player, input);
                 break;
             case "friend":
                 System.out.println(name + ": \"Hey " + player.getName() + ", how's the hunting?\"");
@@ -40,6 +34,10 @@ class NPC {
                 if (player.getFame() > 50) {
                     System.out.println(name + ": \"Can I get an interview about your latest dungeon clear?\"");
                     player.addFame(10);
+                    FameLeaderboard board = FameLeaderboard.get();
+                    board.refresh();
+                    System.out.println(name + ": \"The story runs tomorrow. You're #" + board.rankOf(player)
+                            + " of " + board.size() + " hunters by fame!\"");
                 } else {
                     System.out.println(name + ": \"Become more famous and I'll interview you!\"");
                 }
@@ -54,57 +52,65 @@ class NPC {
     }
 
     /** Handles trading with merchant NPC */
-    private void trade(Hunter player, Scanner scanner) {
+    private void trade(Hunter player, InputSource input) {
+        MarketEngine market = MarketEngine.get();
         while (true) {
             System.out.println("\n" + name + "'s Shop:");
             int index = 1;
-            for (Map.Entry<String, Integer> entry : inventory.entrySet()) {
-                System.out.println(index++ + ". " + entry.getKey() + " - " + getPrice(entry.getKey()) + " Gold (" + entry.getValue() + " in stock)");
+            for (int i = 0; i < market.getItemCount(); i++) {
+                System.out.println(index++ + ". " + market.getItem(i) + " - " + market.getPrice(i) + " Gold ("
+                        + market.getStock(i) + " in stock)");
             }
             System.out.println(index + ". Exit");
 
             System.out.print("Select item: ");
-            int choice = scanner.nextInt();
-            scanner.nextLine(); // Consume newline
+            int choice;
+            try {
+                choice = input.readInt();
+            } catch (InputMismatchException e) {
+                System.out.println("Invalid selection!");
+                continue;
+            }
 
             if (choice == index) return;
 
-            String[] items = inventory.keySet().toArray(new String[0]);
-            if (choice > 0 && choice <= items.length) {
-                String itemName = items[choice-1];
-                int price = getPrice(itemName);
+            if (choice > 0 && choice <= market.getItemCount()) {
+                String itemName = market.getItem(choice - 1);
+                int price = market.getPrice(choice - 1);
+                GameEvents.MerchantPurchase event = new GameEvents.MerchantPurchase();
+                event.begin();
 
                 if (player.getGold() >= price) {
-                    int stock = inventory.get(itemName);
-                    if (stock > 0) {
+                    if (market.tryBuy(choice - 1)) {
+                        player.spendGold(price);
                         player.addItem(itemName);
-                        player.addGold(-price);
-                        inventory.put(itemName, stock - 1);
                         System.out.println("Purchased " + itemName + "!");
+                        event.success = true;
                     } else {
                         System.out.println("Sorry, " + itemName + " is out of stock!");
                     }
                 } else {
                     System.out.println("Not enough gold!");
                 }
+                event.merchant = name;
+                event.item = itemName;
+                event.price = price;
+                GameEvents.commit(event, player);
             } else {
                 System.out.println("Invalid selection!");
             }
         }
     }
 
-    /** Gets price for items (add more here) */
-    private int getPrice(String item) {
-        switch(item) {
-            case "Health Potion": return 15;
-            case "Mana Potion": return 20;
-            case "Weapon Repair Kit": return 30;
-            default: return 0;
-        }
-    }
-
     // Getters if needed
     public String getType() { return type; }
     public String getName() { return name; }
-    public Map<String, Integer> getInventory() { return inventory; }
+    /** For merchants, a snapshot of the shared market stock; otherwise this NPC's own items. */
+    public Map<String, Integer> getInventory() {
+        if (!"merchant".equals(type)) return inventory;
+        MarketEngine market = MarketEngine.get();
+        Map<String, Integer> stock = new HashMap<>();
+        for (int i = 0; i < market.getItemCount(); i++) stock.put(market.getItem(i), market.getStock(i));
+        return stock;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,599 @@
+package com.bosakon.monsterhunter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A party run: 2-6 hunters (each from its own session/thread) share one Dungeon
+ * instance and fight its floors together.
+ *
+ * Every call (join, submit) is queued on this dungeon's own serial executor, a
+ * lock-free queue drained by one task at a time on a shared pool. All party and combat
+ * state is only touched from that queue, so parties never block each other and no
+ * global lock exists. A round resolves once every hunter still in the fight has
+ * submitted an action; each submit's future completes with the resolved Round.
+ * A round also resolves turnMillis after its first action arrived
+ * (-Dhunter.party.turnMillis, default 30000): hunters who haven't acted by then lose
+ * that turn, but stay in the fight. Every round ticks the start-of-turn effects (status
+ * effects, passives) of every hunter still fighting, whether they acted or not. If a party task throws, the run is aborted and
+ * every waiting future completes exceptionally with the cause.
+ *
+ * Rounds are deterministic under the party seed, whatever order the actions arrive in
+ * (as long as nobody runs out of time):
+ *   - hunters act in join order (slot order), each through its own CombatEngine
+ *   - every joined hunter's Random is replaced by one derived from (seed, slot), and
+ *     given back when the hunter leaves the party or the party finishes
+ *   - members are quiet while in the party (nothing printed from pool threads): their
+ *     combat, status effect and level up messages go to the Round instead
+ *   - monsters act in floor order and attack the hunter with the most threat against
+ *     them (damage dealt, plus HEAL_THREAT for every heal); ties go to a pick from the
+ *     party's seeded Random
+ *
+ * Members are owned by the party while it runs: do not use them from other threads
+ * until the party is finished.
+ *
+ * Example:
+ *   PartyDungeon party = new PartyDungeon(new Dungeon("C", 42L), 42L);
+ *   int slot = party.join(hunter).join();
+ *   // each session, on its own thread:
+ *   PartyDungeon.Round round = party.submit(hunter, PartyDungeon.Action.attack(0)).join();
+ *   round.getMessages().forEach(System.out::println);
+ *
+ * <b>How to add an action:</b>
+ *   - Add a factory to Action and a case to resolveAction() (use CombatEngine rules).
+ */
+public class PartyDungeon {
+    public static final int MIN_PARTY = 2;
+    public static final int MAX_PARTY = 6;
+    private static final int HEAL_THREAT = 10;
+
+    /** Turn deadlines of every party (one daemon thread; the work itself runs on each party's queue). */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "party-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Dungeon dungeon;
+    private final Random rand;
+    private final long seed;
+    private final long turnMillis;
+    private final SerialExecutor serial;
+
+    // Everything below is only touched on the serial executor
+    private final List<Member> members = new ArrayList<>();
+    private DungeonGenerator.Floor floor;
+    private int[][] threat;          // [monster][slot]
+    private boolean[] rewarded;      // [monster]
+    private int roundNumber;
+    private List<String> messages = new ArrayList<>();
+    private boolean started;
+    private boolean finished;
+    private ScheduledFuture<?> turnDeadline; // for the round being collected, null until its first action
+
+    /** Party run on the common fork/join pool. */
+    public PartyDungeon(Dungeon dungeon, long seed) {
+        this(dungeon, seed, ForkJoinPool.commonPool(), Long.getLong("hunter.party.turnMillis", 30_000));
+    }
+
+    /**
+     * @param dungeon    Dungeon instance shared by the whole party
+     * @param seed       Seed for hunter rolls and monster targeting
+     * @param pool       Pool the serial executor runs on (shared by many parties)
+     * @param turnMillis Time the party waits for everyone's action after the first one of a round
+     */
+    public PartyDungeon(Dungeon dungeon, long seed, Executor pool, long turnMillis) {
+        this.dungeon = dungeon;
+        this.seed = seed;
+        this.rand = new Random(seed);
+        this.turnMillis = turnMillis;
+        this.serial = new SerialExecutor(pool);
+    }
+
+    /**
+     * Queues party work that completes the given future. If the work throws, the party
+     * run is aborted: that future and every member's waiting one fail with the cause.
+     */
+    private void enqueue(CompletableFuture<?> result, Runnable work) {
+        serial.execute(() -> {
+            try {
+                work.run();
+            } catch (RuntimeException e) {
+                abort(e);
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    private void abort(RuntimeException cause) {
+        finish();
+        if (turnDeadline != null) turnDeadline.cancel(false);
+        for (Member m : members) {
+            m.pending = null;
+            if (m.waiting != null) {
+                CompletableFuture<Round> waiting = m.waiting;
+                m.waiting = null;
+                waiting.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * Adds a hunter to the party before the first round.
+     * Completes with the hunter's slot, or -1 if the party is full, already fighting,
+     * or the hunter is already in it.
+     */
+    public CompletableFuture<Integer> join(Hunter hunter) {
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        enqueue(result, () -> {
+            if (started || members.size() >= MAX_PARTY || slotOf(hunter) >= 0) {
+                result.complete(-1);
+                return;
+            }
+            int slot = members.size();
+            members.add(new Member(hunter, slot)); // keeps the hunter's own Random and quiet flag for release()
+            hunter.setRandom(new Random(seed + (slot + 1) * 0x9E3779B97F4A7C15L));
+            hunter.setQuiet(true);
+            result.complete(slot);
+        });
+        return result;
+    }
+
+    /**
+     * Queues a hunter's action for the current round. Completes with the Round once
+     * every hunter still fighting has acted, or exceptionally (IllegalStateException)
+     * if the action cannot be taken.
+     */
+    public CompletableFuture<Round> submit(Hunter hunter, Action action) {
+        CompletableFuture<Round> result = new CompletableFuture<>();
+        enqueue(result, () -> {
+            int slot = slotOf(hunter);
+            if (slot < 0) {
+                result.completeExceptionally(new IllegalStateException(hunter.getName() + " is not in this party"));
+                return;
+            }
+            if (!started && !start()) {
+                result.completeExceptionally(new IllegalStateException("A party needs at least " + MIN_PARTY + " hunters"));
+                return;
+            }
+            Member member = members.get(slot);
+            if (finished || !member.fighting()) {
+                result.completeExceptionally(new IllegalStateException(hunter.getName() + " is out of the fight"));
+                return;
+            }
+            if (member.pending != null) {
+                result.completeExceptionally(new IllegalStateException(hunter.getName() + " already acted this round"));
+                return;
+            }
+            member.pending = action;
+            member.waiting = result;
+            if (allSubmitted()) {
+                resolveRound();
+            } else if (turnDeadline == null) {
+                int round = roundNumber;
+                turnDeadline = TIMER.schedule(() -> enqueue(new CompletableFuture<Round>(), () -> {
+                    if (!finished && roundNumber == round) resolveRound(); // else resolved in time
+                }), turnMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+        return result;
+    }
+
+    private boolean start() {
+        if (members.size() < MIN_PARTY) return false;
+        started = true;
+        loadFloor();
+        return true;
+    }
+
+    private int slotOf(Hunter hunter) {
+        for (int i = 0; i < members.size(); i++) {
+            if (members.get(i).hunter == hunter) return i;
+        }
+        return -1;
+    }
+
+    private boolean allSubmitted() {
+        for (Member m : members) {
+            if (m.fighting() && m.pending == null) return false;
+        }
+        return true;
+    }
+
+    private void loadFloor() {
+        floor = dungeon.getFloor();
+        dungeon.getGenerator().prefetch(floor.getNumber() + 1);
+        int count = floor.getMonsters().length;
+        threat = new int[count][members.size()];
+        rewarded = new boolean[count];
+    }
+
+    /** Resolves one round: hunters in slot order, then monsters in floor order. */
+    private void resolveRound() {
+        if (turnDeadline != null) {
+            turnDeadline.cancel(false);
+            turnDeadline = null;
+        }
+        roundNumber++;
+        Round round = new Round(roundNumber, floor.getNumber());
+        messages = round.messages;
+        Monster[] monsters = floor.getMonsters();
+
+        for (Member m : members) {
+            if (!m.fighting()) continue;
+            // Status effects and passives tick for everyone still fighting, whether they acted or not
+            m.engine.begin(m.hunter, firstAlive(monsters), m.fluxTurns);
+            m.engine.startTurn();
+            if (!m.hunter.isAlive()) messages.add(m.hunter.getName() + " has fallen!");
+            else if (m.pending == null) messages.add(m.hunter.getName() + " ran out of time and loses the turn.");
+            else resolveAction(m, m.pending, monsters);
+            m.pending = null;
+        }
+        rewardKills(monsters);
+
+        for (int i = 0; i < monsters.length; i++) {
+            if (!monsters[i].isAlive()) continue;
+            Member target = pickTarget(i);
+            if (target == null) break;
+            target.engine.begin(target.hunter, monsters[i], target.fluxTurns);
+            target.engine.monsterTurn();
+            target.engine.endTurn();
+            if (!target.hunter.isAlive()) messages.add(target.hunter.getName() + " has fallen!");
+        }
+        rewardKills(monsters); // damage over time may finish monsters off
+
+        if (floor.isCleared()) {
+            round.floorCleared = true;
+            messages.add("> All monsters on floor " + floor.getNumber() + " defeated!");
+            if (floor.getClearDrop() != LootTable.NOTHING) {
+                Member finder = randomFighter();
+                if (finder != null) {
+                    messages.add("> " + finder.hunter.getName() + " found a "
+                            + LootTables.get().grant(finder.hunter, floor.getClearDrop()) + "!");
+                }
+            }
+            dungeon.getGenerator().release(floor.getNumber());
+            dungeon.nextFloor();
+            if (dungeon.isCleared()) {
+                GameMetrics.get().recordDungeonClear(dungeon.getRank());
+                messages.add("> The boss has fallen. " + dungeon.getName() + " Dungeon cleared!");
+                round.dungeonCleared = true;
+                finish();
+            } else {
+                loadFloor();
+            }
+        }
+        if (randomFighter() == null) {
+            round.wiped = !round.dungeonCleared;
+            if (round.wiped) messages.add("> The party has been defeated or scattered.");
+            finish();
+        }
+        round.finished = finished;
+
+        for (Member m : members) {
+            if (m.waiting != null) {
+                CompletableFuture<Round> waiting = m.waiting;
+                m.waiting = null;
+                waiting.complete(round);
+            }
+        }
+    }
+
+    /** Performs a member's action; its start-of-turn effects have already ticked (see resolveRound()). */
+    private void resolveAction(Member m, Action action, Monster[] monsters) {
+        Monster target = action.target >= 0 && action.target < monsters.length && monsters[action.target].isAlive()
+                ? monsters[action.target] : firstAlive(monsters);
+        if (target == null) return;
+        int targetIndex = indexOf(monsters, target);
+        CombatEngine engine = m.engine;
+        engine.begin(m.hunter, target, m.fluxTurns);
+        switch (action.type) {
+            case CombatEngine.ATTACK:
+                threat[targetIndex][m.slot] += engine.attack();
+                break;
+            case CombatEngine.SKILL:
+                if (engine.useSkill(action.skill) && "Healing".equals(action.skill.getName())) addHealThreat(m, monsters);
+                break;
+            case CombatEngine.ITEM:
+                if (engine.useItem(action.item) && "Health Potion".equals(action.item)) addHealThreat(m, monsters);
+                break;
+            case CombatEngine.FLEE:
+                if (engine.flee()) {
+                    m.left = true;
+                    release(m);
+                    messages.add(m.hunter.getName() + " left the party.");
+                }
+                break;
+        }
+        m.fluxTurns = engine.getFluxTurns();
+    }
+
+    /** Ends the run and gives every member back what the party took over. */
+    private void finish() {
+        finished = true;
+        for (Member m : members) release(m);
+    }
+
+    /** Gives a member who leaves (or whose party finished) its own Random and quiet flag back. */
+    private void release(Member m) {
+        if (m.released) return;
+        m.released = true;
+        m.hunter.setRandom(m.ownRandom);
+        m.hunter.setQuiet(m.ownQuiet);
+    }
+
+    private void addHealThreat(Member m, Monster[] monsters) {
+        for (int i = 0; i < monsters.length; i++) {
+            if (monsters[i].isAlive()) threat[i][m.slot] += HEAL_THREAT;
+        }
+    }
+
+    /** The fighting hunter with the most threat on this monster; ties broken by the seeded Random. */
+    private Member pickTarget(int monster) {
+        int best = -1, ties = 0;
+        Member pick = null;
+        for (Member m : members) {
+            if (!m.fighting()) continue;
+            int t = threat[monster][m.slot];
+            if (t > best) {
+                best = t;
+                pick = m;
+                ties = 1;
+            } else if (t == best && rand.nextInt(++ties) == 0) {
+                pick = m; // reservoir pick among equals
+            }
+        }
+        return pick;
+    }
+
+    /** Splits XP and gold of newly killed monsters between fighting hunters; each gets the fame. */
+    private void rewardKills(Monster[] monsters) {
+        List<Member> fighters = new ArrayList<>();
+        for (Member m : members) {
+            if (m.fighting()) fighters.add(m);
+        }
+        for (int i = 0; i < monsters.length; i++) {
+            if (monsters[i].isAlive() || rewarded[i]) continue;
+            rewarded[i] = true;
+            if (fighters.isEmpty()) continue;
+            Monster monster = monsters[i];
+            int exp = (monster.getExpReward() + fighters.size() - 1) / fighters.size();
+            int gold = (monster.getGoldReward() + fighters.size() - 1) / fighters.size();
+            messages.add("> " + monster.getName() + " defeated! " + exp + " XP and " + gold + " Gold each");
+            for (Member m : fighters) {
+                int level = m.hunter.getLevel();
+                m.hunter.addExperience(exp);
+                if (m.hunter.getLevel() > level) {
+                    messages.add("> " + m.hunter.getName() + " reached level " + m.hunter.getLevel() + "!");
+                }
+                m.hunter.addGold(gold);
+                m.hunter.addFame(monster.isBoss() ? 15 : 5);
+            }
+            if (floor.getMonsterDrop(i) != LootTable.NOTHING) {
+                Member finder = randomFighter();
+                messages.add("> " + finder.hunter.getName() + " picks up a "
+                        + LootTables.get().grant(finder.hunter, floor.getMonsterDrop(i)) + "!");
+            }
+        }
+    }
+
+    private Member randomFighter() {
+        Member pick = null;
+        int seen = 0;
+        for (Member m : members) {
+            if (m.fighting() && rand.nextInt(++seen) == 0) pick = m;
+        }
+        return pick;
+    }
+
+    private static Monster firstAlive(Monster[] monsters) {
+        for (Monster m : monsters) {
+            if (m.isAlive()) return m;
+        }
+        return null;
+    }
+
+    private static int indexOf(Monster[] monsters, Monster monster) {
+        for (int i = 0; i < monsters.length; i++) {
+            if (monsters[i] == monster) return i;
+        }
+        return -1;
+    }
+
+    // -------- Getters (safe from any thread) ---------
+    public Dungeon getDungeon() { return dungeon; }
+    public long getSeed() { return seed; }
+
+    /** One party member and its combat state. */
+    private final class Member {
+        final Hunter hunter;
+        final int slot;
+        final CombatEngine engine;
+        final Random ownRandom; // the hunter's Random and quiet flag before joining, restored by release()
+        final boolean ownQuiet;
+        int fluxTurns;
+        boolean left;
+        boolean released;
+        Action pending;
+        CompletableFuture<Round> waiting;
+
+        Member(Hunter hunter, int slot) {
+            this.hunter = hunter;
+            this.slot = slot;
+            this.ownRandom = hunter.getRandom();
+            this.ownQuiet = hunter.isQuiet();
+            // Engine messages are second person ("You deal..."), so name the speaker
+            this.engine = new CombatEngine(message -> messages.add("[" + hunter.getName() + "] " + message));
+        }
+
+        boolean fighting() {
+            return !left && hunter.isAlive();
+        }
+    }
+
+    /** What a hunter does this round. */
+    public static final class Action {
+        private final int type;
+        private final int target;
+        private final Skill skill;
+        private final String item;
+
+        private Action(int type, int target, Skill skill, String item) {
+            this.type = type;
+            this.target = target;
+            this.skill = skill;
+            this.item = item;
+        }
+
+        /** Basic attack on the monster at this index (the first living one if it is dead). */
+        public static Action attack(int target) { return new Action(CombatEngine.ATTACK, target, null, null); }
+        public static Action skill(Skill skill, int target) { return new Action(CombatEngine.SKILL, target, skill, null); }
+        public static Action item(String item) { return new Action(CombatEngine.ITEM, -1, null, item); }
+        /** Tries to leave the party run; on success the hunter is out for good. */
+        public static Action flee() { return new Action(CombatEngine.FLEE, -1, null, null); }
+    }
+
+    /** Outcome of one resolved round, shared by every hunter who acted in it. */
+    public static final class Round {
+        private final int number;
+        private final int floor;
+        private final List<String> messages = new ArrayList<>();
+        private boolean floorCleared;
+        private boolean dungeonCleared;
+        private boolean wiped;
+        private boolean finished;
+
+        Round(int number, int floor) {
+            this.number = number;
+            this.floor = floor;
+        }
+
+        public int getNumber() { return number; }
+        public int getFloor() { return floor; }
+        public List<String> getMessages() { return Collections.unmodifiableList(messages); }
+        public boolean isFloorCleared() { return floorCleared; }
+        public boolean isDungeonCleared() { return dungeonCleared; }
+        /** True if every hunter died or fled before the dungeon was cleared. */
+        public boolean isWiped() { return wiped; }
+        /** True if the party run is over (cleared or wiped). */
+        public boolean isFinished() { return finished; }
+    }
+
+    /**
+     * Runs tasks one at a time, in submission order, on a shared pool: a lock-free
+     * queue plus a flag saying whether a drain task is scheduled. Party tasks handle
+     * their own failures (see enqueue()); anything else that throws is only logged.
+     */
+    private static final class SerialExecutor implements Executor {
+        private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final Executor pool;
+
+        SerialExecutor(Executor pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+            if (scheduled.compareAndSet(false, true)) pool.execute(this::drain);
+        }
+
+        private void drain() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.out.println("> ERROR: Party task failed - " + e);
+                }
+            }
+            scheduled.set(false);
+            // A task added after the last poll but before the flag cleared still needs a drain
+            if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) pool.execute(this::drain);
+        }
+    }
+
+    /**
+     * Runs the same seeded party twice, each hunter on its own thread submitting
+     * attacks concurrently, and checks both runs produce the same combat log for
+     * every slot.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        String rank = args.length > 1 ? args[1] : "C";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        List<List<String>> first = run(size, rank, seed);
+        List<List<String>> second = run(size, rank, seed);
+        List<String> lead = first.get(0);
+        System.out.println(lead.get(lead.size() - 1));
+        boolean deterministic = true;
+        for (int slot = 0; slot < size; slot++) {
+            boolean same = first.get(slot).equals(second.get(slot));
+            System.out.println("Slot " + slot + " | rounds logged: " + first.get(slot).size() + " | deterministic: " + same);
+            deterministic &= same;
+        }
+        if (!deterministic) System.exit(1);
+    }
+
+    /** Each slot's log: every round that slot saw resolved, or why its session stopped. */
+    private static List<List<String>> run(int size, String rank, long seed) throws InterruptedException {
+        PartyDungeon party = new PartyDungeon(new Dungeon(rank, seed), seed);
+        Hunter[] hunters = new Hunter[size];
+        Random[] ownRandoms = new Random[size];
+        for (int i = 0; i < size; i++) {
+            hunters[i] = new Hunter("Hunter" + (i + 1), ContentCatalog.get().createWeapon(i % 2 == 0 ? "lapis" : "sangga"));
+            ownRandoms[i] = hunters[i].getRandom();
+            hunters[i].setQuiet(true);
+            hunters[i].addExperience(2000);
+            hunters[i].addItem("Health Potion", 3);
+            hunters[i].setQuiet(false); // the party quiets it and sends its messages to the rounds
+            party.join(hunters[i]).join();
+        }
+
+        List<List<String>> logs = new ArrayList<>();
+        Thread[] sessions = new Thread[size];
+        for (int i = 0; i < size; i++) {
+            Hunter hunter = hunters[i];
+            int slot = i;
+            List<String> log = new ArrayList<>(); // only this session writes it; read after join()
+            logs.add(log);
+            sessions[i] = new Thread(() -> {
+                int target = slot;
+                while (true) {
+                    Action action = hunter.getHP() < hunter.getMaxHP() / 3 && hunter.getItemCount("Health Potion") > 0
+                            ? Action.item("Health Potion") : Action.attack(target++ % 3);
+                    Round round;
+                    try {
+                        round = party.submit(hunter, action).join();
+                    } catch (RuntimeException e) {
+                        log.add("out: " + e.getCause().getMessage());
+                        return; // out of the fight
+                    }
+                    log.add(round.getNumber() + " floor " + round.getFloor() + " " + round.getMessages());
+                    if (round.isFinished()) return;
+                }
+            });
+        }
+        for (Thread session : sessions) session.start();
+        for (Thread session : sessions) session.join();
+        for (int i = 0; i < size; i++) {
+            if (hunters[i].getRandom() != ownRandoms[i] || hunters[i].isQuiet()) {
+                throw new IllegalStateException(hunters[i].getName() + " still has the party's Random or quiet flag");
+            }
+        }
+        return logs;
+    }
+}
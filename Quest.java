@@ -32,6 +32,8 @@ public class Quest {
             System.out.println("> Quest '" + title + "' is already completed!");
             return;
         }
+        GameEvents.QuestComplete event = new GameEvents.QuestComplete();
+        event.begin();
         completed = true;
         System.out.println("\n> QUEST COMPLETE: " + title);
         System.out.println("> Rewards: " + rewardXP + " XP, " + rewardGold + " Gold");
@@ -42,6 +44,17 @@ public class Quest {
             System.out.println("> Unlocked Skill: " + unlockSkill);
             player.unlockSkill(unlockSkill);
         }
+        event.title = title;
+        event.rewardXP = rewardXP;
+        event.rewardGold = rewardGold;
+        GameEvents.commit(event, player);
+    }
+
+    /** Returns an independent copy with the same completion state (see Hunter.fork()). */
+    public Quest copy() {
+        Quest quest = new Quest(title, objective, rewardXP, rewardGold, unlockSkill);
+        quest.completed = completed;
+        return quest;
     }
 
     // --- Getters ---
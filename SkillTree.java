@@ -7,32 +7,32 @@ import java.util.Map;
 
 /**
  * Manages skill unlocks and dependencies.
- * Easily extensible: add more skills, chain prerequisites, or implement skill tiers.
+ * Easily extensible: add more skills or chain prerequisites in content/skills.txt.
  */
 public class SkillTree {
     private Map<String, Skill> allSkills;
     private Map<String, List<String>> prerequisites;
 
+    /** Creates an empty tree; skills are loaded on first use (keeps Hunter creation cheap at startup). */
     public SkillTree() {
-        allSkills = new HashMap<>();
-        prerequisites = new HashMap<>();
-        initializeSkills();
     }
 
-    /** Populates skill tree with available skills and their dependencies. */
+    /** Loads the skills on first use. */
+    private void ensureInitialized() {
+        if (allSkills == null) {
+            allSkills = new HashMap<>();
+            prerequisites = new HashMap<>();
+            initializeSkills();
+        }
+    }
+
+    /** Populates skill tree with available skills and their dependencies (from the content catalog). */
     private void initializeSkills() {
-        // Active skills
-        addSkill("Stealth", true, 15, "Become invisible for 3 turns", null);
-        addSkill("Intimidation", true, 10, "Reduce enemy attack by 30%", null);
-        addSkill("Healing", true, 20, "Restore 30 HP", null);
-        addSkill("Flux", true, 25, "Boost ATK/DEF by 40% for 4 turns", null);
-        addSkill("Summon", true, 40, "Summon a monster ally", "Flux");
-        
-        // Passive skills
-        addSkill("Will to Recover", false, 0, "Heal 5 HP per turn", null);
-        addSkill("Tenacity", false, 0, "Reduce damage by 50% when HP < 30%", null);
-        addSkill("Dungeon Sense", false, 0, "20% chance to detect hidden paths", "Will to Recover");
-        addSkill("Fast Learner", false, 0, "Gain 20% more XP", null);
+        ContentCatalog catalog = ContentCatalog.get();
+        for (int i = 0; i < catalog.getSkillCount(); i++) {
+            addSkill(catalog.getSkillName(i), catalog.isSkillActive(i), catalog.getSkillManaCost(i),
+                     catalog.getSkillEffect(i), catalog.getSkillPrerequisite(i));
+        }
     }
 
     /**
@@ -54,6 +54,7 @@ public class SkillTree {
      * Checks if skill can be unlocked by player (all prerequisites met).
      */
     public boolean canUnlock(String skillName, Hunter player) {
+        ensureInitialized();
         if (!allSkills.containsKey(skillName)) return false;
         List<String> required = prerequisites.get(skillName);
         if (required == null) return true;
@@ -65,6 +66,7 @@ public class SkillTree {
 
     /** Gets skill by name. Returns null if not found. */
     public Skill getSkill(String name) {
+        ensureInitialized();
         return allSkills.get(name);
     }
 
@@ -74,6 +76,7 @@ public class SkillTree {
      * @return true if skill exists in the tree
      */
     public boolean isValidSkill(String skillName) {
+        ensureInitialized();
         return allSkills.containsKey(skillName);
     }
 
@@ -81,6 +84,7 @@ public class SkillTree {
      * Displays all skills available for unlock by the player.
      */
     public void displayAvailableSkills(Hunter player) {
+        ensureInitialized();
         System.out.println("\n--- AVAILABLE SKILLS ---");
         for (String skill : allSkills.keySet()) {
             if (!player.hasSkill(skill) && canUnlock(skill, player)) {
@@ -95,6 +99,7 @@ public class SkillTree {
      * Optionally, displays the full skill tree with unlock status.
      */
     public void displayFullTree(Hunter player) {
+        ensureInitialized();
         System.out.println("\n--- SKILL TREE ---");
         for (String skill : allSkills.keySet()) {
             Skill s = allSkills.get(skill);
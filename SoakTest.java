@@ -0,0 +1,112 @@
+package com.bosakon.monsterhunter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * Soak test: pipes a long scripted session (a million inputs by default) through the
+ * real HunterGame menus via InputSource, back to back sessions until the script runs out.
+ *
+ * The script is a seeded stream of choices 1-3 (hunter names and weapons included,
+ * since a new session starts wherever the previous hunter died). Those choices cover
+ * dungeon entry, target picks, attacks, skills and items; no other menu can loop
+ * forever on them. Game output goes to a discarding stream, so the run measures
+ * the game loop and input, not the terminal.
+ *
+ * Before the run, the script is also tokenized once with Scanner (nextInt + nextLine,
+ * the old menu input) and once with InputSource, to compare raw input speed.
+ *
+ * Usage:
+ *   java -cp hunter.jar com.bosakon.monsterhunter.SoakTest [inputs] [scriptFile]
+ *
+ * Example output:
+ *   script: 1000000 lines, 2.0 MB | Scanner 1650 ms | InputSource 21 ms
+ *   1000000 inputs | 23811 finished combat turns | 170 sessions | 9.8 s | 102040 inputs/s
+ */
+public class SoakTest {
+    public static void main(String[] args) throws IOException {
+        long inputs = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        String path = args.length > 1 ? args[1] : "build/soak/session.txt";
+
+        File script = writeScript(path, inputs, 42L);
+        compareTokenizers(script);
+
+        PrintStream console = System.out;
+        GameMetrics metrics = GameMetrics.get();
+        long turnsBefore = metrics.getCombatTurns();
+        int sessions = 0;
+        long consumed = 0;
+        long start = System.nanoTime();
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override public void write(int b) { }
+            @Override public void write(byte[] b, int off, int len) { }
+        }));
+        InputSource input = InputSource.file(script.getPath());
+        try {
+            while (true) {
+                sessions++;
+                new HunterGame(input).startGame();
+            }
+        } catch (NoSuchElementException e) {
+            // Script exhausted
+        } finally {
+            System.setOut(console);
+            consumed = input.getLinesRead();
+            input.close();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long played = metrics.getCombatTurns() - turnsBefore;
+        System.out.printf("%d inputs | %d finished combat turns | %d sessions | %.1f s | %.0f inputs/s%n",
+                consumed, played, sessions, seconds, consumed / seconds);
+        System.out.println("dungeons live " + DungeonInstanceManager.get().getLive()
+                + " | peak " + DungeonInstanceManager.get().getPeak());
+    }
+
+    /** Writes lines of seeded choices 1-3, with a 3 weighted low (it opens the item menu). */
+    private static File writeScript(String path, long lines, long seed) throws IOException {
+        File file = new File(path);
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+        Random rand = new Random(seed);
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file), 1 << 16)) {
+            for (long i = 0; i < lines; i++) {
+                int r = rand.nextInt(10);
+                out.write(r < 7 ? "1\n" : r < 9 ? "2\n" : "3\n");
+            }
+        }
+        return file;
+    }
+
+    /** Reads the whole script as menu numbers with Scanner and with InputSource. */
+    private static void compareTokenizers(File script) throws IOException {
+        long lines = 0, sum = 0;
+        long start = System.nanoTime();
+        try (Scanner scanner = new Scanner(script)) {
+            while (scanner.hasNextInt()) {
+                sum += scanner.nextInt();
+                scanner.nextLine();
+                lines++;
+            }
+        }
+        long scannerNanos = System.nanoTime() - start;
+
+        long check = 0;
+        start = System.nanoTime();
+        try (InputSource input = InputSource.file(script.getPath())) {
+            while (true) check += input.readInt();
+        } catch (NoSuchElementException e) {
+            // End of script
+        }
+        long inputNanos = System.nanoTime() - start;
+
+        System.out.printf("script: %d lines, %.1f MB | Scanner %d ms | InputSource %d ms%s%n",
+                lines, script.length() / 1e6, scannerNanos / 1_000_000, inputNanos / 1_000_000,
+                check == sum ? "" : " | MISMATCH");
+    }
+}
@@ -0,0 +1,92 @@
+package com.bosakon.monsterhunter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures time-to-first-prompt: from launching a fresh JVM running HunterGame
+ * until the main menu asks "Please enter your choice".
+ *
+ * Each run spawns a new JVM (so JVM startup, class loading, content catalog load and
+ * initializeWorld() are all included), types a hunter name and weapon, waits for the
+ * main menu prompt, then exits the game.
+ *
+ * Usage:
+ *   java -cp hunter.jar com.bosakon.monsterhunter.StartupBenchmark [runs] [jvm options...]
+ *
+ * Example (compare against the fast-start mode, see scripts/faststart.sh):
+ *   java -cp hunter.jar com.bosakon.monsterhunter.StartupBenchmark 20 -XX:SharedArchiveFile=build/hunter.jsa
+ */
+public class StartupBenchmark {
+    private static final byte[] FIRST_PROMPT = "Please enter your choice".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SESSION_INPUT = "Bench\nlapis\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EXIT_INPUT = "0\n".getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        List<String> jvmOptions = new ArrayList<>(Arrays.asList(args).subList(Math.min(1, args.length), args.length));
+
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(HunterGame.class.getName());
+
+        // One warm-up run (fills OS file cache and content/catalog.bin)
+        timeToFirstPrompt(command);
+
+        long[] samples = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            samples[i] = timeToFirstPrompt(command);
+        }
+        Arrays.sort(samples);
+
+        long total = 0;
+        for (long s : samples) total += s;
+        System.out.println("JVM options: " + (jvmOptions.isEmpty() ? "(none)" : String.join(" ", jvmOptions)));
+        System.out.printf("Time to first prompt over %d runs: min %.1f ms | median %.1f ms | mean %.1f ms | max %.1f ms%n",
+                runs, samples[0] / 1e6, samples[runs / 2] / 1e6, total / (double) runs / 1e6, samples[runs - 1] / 1e6);
+    }
+
+    /** Launches one game JVM and returns nanoseconds until the main menu prompt appears. */
+    private static long timeToFirstPrompt(List<String> command) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try {
+            OutputStream stdin = process.getOutputStream();
+            stdin.write(SESSION_INPUT);
+            stdin.flush();
+
+            waitFor(process.getInputStream(), FIRST_PROMPT);
+            long elapsed = System.nanoTime() - start;
+
+            stdin.write(EXIT_INPUT);
+            stdin.close();
+            process.waitFor();
+            return elapsed;
+        } finally {
+            process.destroy();
+        }
+    }
+
+    /** Reads the stream until the given byte pattern has been seen. */
+    private static void waitFor(InputStream in, byte[] pattern) throws IOException {
+        int matched = 0;
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == pattern[matched]) {
+                if (++matched == pattern.length) return;
+            } else {
+                matched = (b == pattern[0]) ? 1 : 0;
+            }
+        }
+        throw new IOException("Game exited before showing the first prompt");
+    }
+}
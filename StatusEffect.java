@@ -51,6 +51,15 @@ public class StatusEffect {
         return new StatusEffect(name, duration, damagePerTurn, damageModifier, defenseModifier);
     }
 
+    /** Overwrites this effect with another's values (reuses this object instead of copying). */
+    public void copyFrom(StatusEffect other) {
+        this.name = other.name;
+        this.duration = other.duration;
+        this.damagePerTurn = other.damagePerTurn;
+        this.damageModifier = other.damageModifier;
+        this.defenseModifier = other.defenseModifier;
+    }
+
     // --- Getters ---
     public String getName() { return name; }
     public int getDuration() { return duration; }
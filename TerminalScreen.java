@@ -0,0 +1,134 @@
+package com.bosakon.monsterhunter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Double-buffered character screen that redraws only the cells that changed.
+ *
+ * Draw the next frame into the back buffer with clear()/print(), then call flush().
+ * flush() compares the back buffer with what the terminal already shows (front buffer)
+ * and emits the minimum ANSI output: a cursor move only when the next changed cell is
+ * not where the cursor already is, a color code only when the color changes, then the
+ * glyphs. The whole update goes out in one write call.
+ *
+ * Colors are small indexes into COLORS (0 = terminal default).
+ *
+ * Example:
+ *   TerminalScreen screen = new TerminalScreen(80, 24);
+ *   screen.clear();
+ *   screen.print(0, 0, "HP: 80/100", TerminalScreen.GREEN);
+ *   screen.flush(out);   // first flush draws everything, later ones only the diff
+ */
+public class TerminalScreen {
+    public static final byte DEFAULT = 0;
+    public static final byte RED = 1;
+    public static final byte GREEN = 2;
+    public static final byte YELLOW = 3;
+    public static final byte BLUE = 4;
+    public static final byte CYAN = 6;
+    public static final byte WHITE = 7;
+
+    private static final String[] COLORS = {
+        "\u001B[0m", "\u001B[31m", "\u001B[32m", "\u001B[33m",
+        "\u001B[34m", "\u001B[35m", "\u001B[36m", "\u001B[37m"
+    };
+
+    private final int width;
+    private final int height;
+    private final char[] backChars;
+    private final byte[] backColors;
+    private final char[] frontChars;
+    private final byte[] frontColors;
+    private final StringBuilder out = new StringBuilder(4096);
+    private boolean firstFlush = true;
+
+    public TerminalScreen(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.backChars = new char[width * height];
+        this.backColors = new byte[width * height];
+        this.frontChars = new char[width * height];
+        this.frontColors = new byte[width * height];
+        clear();
+    }
+
+    /** Blanks the back buffer. */
+    public void clear() {
+        Arrays.fill(backChars, ' ');
+        Arrays.fill(backColors, DEFAULT);
+    }
+
+    /** Writes text into the back buffer; anything past the right edge is cut off. */
+    public void print(int row, int col, String text, byte color) {
+        if (row < 0 || row >= height) return;
+        int base = row * width;
+        for (int i = 0; i < text.length() && col + i < width; i++) {
+            if (col + i < 0) continue;
+            backChars[base + col + i] = text.charAt(i);
+            backColors[base + col + i] = color;
+        }
+    }
+
+    /** Fills a horizontal run of cells with one glyph (e.g. for HP bars). */
+    public void fill(int row, int col, int length, char glyph, byte color) {
+        if (row < 0 || row >= height) return;
+        int base = row * width;
+        for (int i = Math.max(0, col); i < col + length && i < width; i++) {
+            backChars[base + i] = glyph;
+            backColors[base + i] = color;
+        }
+    }
+
+    /**
+     * Sends the difference between the back buffer and the terminal to the stream,
+     * then makes the back buffer the new front buffer.
+     * @return number of cells redrawn
+     */
+    public int flush(OutputStream stream) throws IOException {
+        out.setLength(0);
+        if (firstFlush) {
+            out.append("\u001B[2J");          // clear the terminal once
+            Arrays.fill(frontChars, '\0');     // force every cell to be drawn
+            firstFlush = false;
+        }
+
+        int changed = 0;
+        int cursor = -1;                        // cell the terminal cursor sits on, -1 = unknown
+        byte color = -1;                        // color the terminal currently uses, -1 = unknown
+        for (int i = 0; i < backChars.length; i++) {
+            if (backChars[i] == frontChars[i] && backColors[i] == frontColors[i]) continue;
+
+            // Moving along a row is free; otherwise jump with CSI row;col H (1-based)
+            if (cursor != i || i % width == 0) {
+                out.append("\u001B[").append(i / width + 1).append(';').append(i % width + 1).append('H');
+            }
+            if (backColors[i] != color) {
+                color = backColors[i];
+                out.append(COLORS[color]);
+            }
+            out.append(backChars[i]);
+            frontChars[i] = backChars[i];
+            frontColors[i] = backColors[i];
+            cursor = i + 1;
+            changed++;
+        }
+
+        if (changed > 0) {
+            if (color != DEFAULT) out.append(COLORS[DEFAULT]);
+            stream.write(out.toString().getBytes(StandardCharsets.UTF_8));
+            stream.flush();
+        }
+        return changed;
+    }
+
+    /** Forces the next flush to redraw the whole screen (e.g. after the terminal was resized or reset). */
+    public void invalidate() {
+        firstFlush = true;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+}
@@ -0,0 +1,247 @@
+package com.bosakon.monsterhunter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * World-level gate scheduler: gates open, age and close on a fixed tick, shared by every
+ * session of the process. Entering a dungeon goes through an open gate of that rank,
+ * which decides the layout seed and whether it is a Red Gate or hides a Double Dungeon.
+ *
+ * Each tick (one thread, every tickMillis):
+ *   1. the clock advances one tick
+ *   2. gates whose time is up close: popped from a PriorityQueue ordered by expiry,
+ *      so closing k gates costs O(k log n), never a scan of all open gates
+ *   3. new gates spawn per rank (SPAWN_CHANCE), each living LIFETIME ticks +-25%
+ * Open gates are also indexed in a ConcurrentSkipListSet ordered by (rank, expiry, id),
+ * so sessions find a gate of a rank in O(log n) without locking, however many there are.
+ * When no gate of a rank is open, HunterGame falls back to an ordinary dungeon.
+ *
+ * Gate rules:
+ *   - C-Rank gates are Red Gates, and no others (as before: a Red Gate can't be left)
+ *   - DOUBLE_DUNGEON_CHANCE of gates hide a Double Dungeon (S-Rank) behind them
+ *
+ * Example:
+ *   WorldEvents world = WorldEvents.get();
+ *   WorldEvents.Gate gate = world.findGate("C", rand);
+ *   if (gate != null) System.out.println(gate + " closes in " + gate.ticksLeft(world.getTick()) + " ticks");
+ *
+ * <b>How to configure:</b>
+ *   -Dhunter.world.tickMillis=1000    tick length (default 1 s)
+ *   Spawn rates and lifetimes: SPAWN_CHANCE, LIFETIME (per rank, E to S)
+ */
+public final class WorldEvents {
+    private static final double[] SPAWN_CHANCE = {0.9, 0.7, 0.5, 0.35, 0.2, 0.1};
+    private static final int[] LIFETIME = {600, 600, 450, 300, 180, 120};
+    private static final int RED_GATE_RANK = 2; // C
+    private static final double DOUBLE_DUNGEON_CHANCE = 0.06;
+
+    private static volatile WorldEvents instance;
+
+    private final Random rand; // tick thread only
+    private final PriorityQueue<Gate> expiry = new PriorityQueue<>(Comparator.comparingLong(g -> g.expiresAt));
+    private final ConcurrentSkipListSet<Gate> open = new ConcurrentSkipListSet<>(Gate.ORDER);
+    private final AtomicIntegerArray openByRank = new AtomicIntegerArray(SPAWN_CHANCE.length);
+    private final LongAdder spawned = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private volatile long tick;
+    private long nextId = 1;
+    private ScheduledExecutorService scheduler;
+
+    /** A world with no gates yet, driven by tick()/advance() until start() is called. */
+    WorldEvents(Random rand) {
+        this.rand = rand;
+    }
+
+    /** Returns the shared world, already populated (one gate lifetime of ticks), with its tick running. */
+    public static WorldEvents get() {
+        WorldEvents result = instance;
+        if (result == null) {
+            synchronized (WorldEvents.class) {
+                result = instance;
+                if (result == null) {
+                    result = new WorldEvents(new Random());
+                    result.advance(LIFETIME[0]);
+                    result.start(Long.getLong("hunter.world.tickMillis", 1000));
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Runs tick() every tickMillis on a daemon thread. */
+    synchronized void start(long tickMillis) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "world-events");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // ===================== Tick =====================
+
+    /** Advances the world by one tick: closes expired gates, then spawns new ones. */
+    synchronized void tick() {
+        long now = ++tick;
+        Gate gate;
+        while ((gate = expiry.peek()) != null && gate.expiresAt <= now) {
+            expiry.poll();
+            open.remove(gate);
+            openByRank.decrementAndGet(gate.rankIndex);
+            closed.increment();
+        }
+        for (int r = 0; r < SPAWN_CHANCE.length; r++) {
+            if (rand.nextDouble() >= SPAWN_CHANCE[r]) continue;
+            int lifetime = LIFETIME[r] * 3 / 4 + rand.nextInt(LIFETIME[r] / 2 + 1);
+            boolean red = r == RED_GATE_RANK;
+            boolean hidden = rand.nextDouble() < DOUBLE_DUNGEON_CHANCE;
+            gate = new Gate(nextId++, r, rand.nextLong(), red, hidden, now, now + lifetime);
+            expiry.add(gate);
+            open.add(gate);
+            openByRank.incrementAndGet(r);
+            spawned.increment();
+        }
+    }
+
+    /** Runs several ticks at once (warm-up, and deterministic runs that drive the clock themselves). */
+    synchronized void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) tick();
+    }
+
+    // ===================== Session side (lock-free) =====================
+
+    /**
+     * Picks an open gate of the rank in O(log n): the first one expiring after a random
+     * point of the rank's lifetime, or the soonest to expire if none does.
+     * @return the gate, or null if no gate of that rank is open
+     */
+    public Gate findGate(String rank, Random rand) {
+        int r = Hunter.rankIndex(rank);
+        Gate gate = open.ceiling(Gate.probe(r, tick + rand.nextInt(LIFETIME[r] * 5 / 4 + 1)));
+        if (gate == null || gate.rankIndex != r) gate = open.ceiling(Gate.probe(r, Long.MIN_VALUE));
+        return gate == null || gate.rankIndex != r ? null : gate;
+    }
+
+    /** Open gates of the rank, soonest to close first (at most limit). */
+    public List<Gate> getGates(String rank, int limit) {
+        int r = Hunter.rankIndex(rank);
+        List<Gate> gates = new ArrayList<>();
+        for (Gate gate : open.subSet(Gate.probe(r, Long.MIN_VALUE), Gate.probe(r + 1, Long.MIN_VALUE))) {
+            if (gates.size() == limit) break;
+            gates.add(gate);
+        }
+        return gates;
+    }
+
+    /** Number of open gates of the rank (a counter read). */
+    public int getOpenGates(String rank) { return openByRank.get(Hunter.rankIndex(rank)); }
+    public int getOpenGates() { return open.size(); }
+    public long getTick() { return tick; }
+    public long getSpawned() { return spawned.sum(); }
+    public long getClosed() { return closed.sum(); }
+
+    /** An open dungeon gate. Immutable; shared by every session that enters it. */
+    public static final class Gate {
+        static final Comparator<Gate> ORDER = Comparator.<Gate>comparingInt(g -> g.rankIndex)
+                .thenComparingLong(g -> g.expiresAt)
+                .thenComparingLong(g -> g.id);
+
+        private final long id;
+        private final int rankIndex;
+        private final long seed;
+        private final boolean redGate;
+        private final boolean doubleDungeon;
+        private final long openedAt;
+        private final long expiresAt;
+
+        Gate(long id, int rankIndex, long seed, boolean redGate, boolean doubleDungeon, long openedAt, long expiresAt) {
+            this.id = id;
+            this.rankIndex = rankIndex;
+            this.seed = seed;
+            this.redGate = redGate;
+            this.doubleDungeon = doubleDungeon;
+            this.openedAt = openedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        /** Search key: sorts before every gate of the rank expiring at or after the tick. */
+        static Gate probe(int rankIndex, long expiresAt) {
+            return new Gate(Long.MIN_VALUE, rankIndex, 0, false, false, 0, expiresAt);
+        }
+
+        public long getId() { return id; }
+        public String getRank() { return Hunter.rankName(rankIndex); }
+        /** Layout seed: every session entering this gate gets the same dungeon. */
+        public long getSeed() { return seed; }
+        public boolean isRedGate() { return redGate; }
+        /** True if a Double Dungeon hides behind this gate. */
+        public boolean isDoubleDungeon() { return doubleDungeon; }
+        public long getOpenedAt() { return openedAt; }
+        public long getExpiresAt() { return expiresAt; }
+        /** Ticks until the gate closes (0 once it is due). */
+        public long ticksLeft(long now) { return Math.max(0, expiresAt - now); }
+
+        @Override
+        public String toString() {
+            return "Gate #" + id + " (" + getRank() + "-Rank" + (redGate ? ", red" : "") + ")";
+        }
+    }
+
+    /**
+     * Runs the world for a while as fast as it ticks, with reader threads querying gates
+     * the whole time, and prints open gates per rank and the cost of a tick and a query.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        WorldEvents world = new WorldEvents(new Random(42));
+        LongAdder queries = new LongAdder();
+        LongAdder found = new LongAdder();
+        Thread[] threads = new Thread[readers];
+        for (int t = 0; t < readers; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                Random rand = new Random(seed);
+                while (!Thread.currentThread().isInterrupted()) {
+                    for (int i = 0; i < 1000; i++) {
+                        if (world.findGate(Hunter.rankName(rand.nextInt(Hunter.rankCount())), rand) != null) found.increment();
+                    }
+                    queries.add(1000);
+                }
+            });
+            threads[t].setDaemon(true);
+            threads[t].start();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= ticks; i++) {
+            world.tick();
+            if (i % (ticks / 5) == 0) {
+                StringBuilder line = new StringBuilder(String.format("tick %6d | open %5d", world.getTick(), world.getOpenGates()));
+                for (int r = 0; r < Hunter.rankCount(); r++) {
+                    String rank = Hunter.rankName(r);
+                    line.append(String.format(" | %s %4d", rank, world.getOpenGates(rank)));
+                }
+                System.out.println(line.append(" | spawned ").append(world.getSpawned()).append(" | closed ").append(world.getClosed()));
+            }
+        }
+        double tickNanos = (System.nanoTime() - start) / (double) ticks;
+        for (Thread thread : threads) thread.interrupt();
+        for (Thread thread : threads) thread.join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%.1f us per tick | %d gate queries (%.0f%% found a gate) | %.0f queries/s%n",
+                tickNanos / 1000, queries.sum(), 100.0 * found.sum() / queries.sum(), queries.sum() / seconds);
+    }
+}
@@ -0,0 +1,51 @@
+#!/bin/sh
+# Fast-start launch mode for on-demand session workers.
+#
+#   scripts/faststart.sh          Launch the game (builds jar + CDS archive on first use)
+#   scripts/faststart.sh train    Rebuild the jar and regenerate the AppCDS archive
+#   scripts/faststart.sh bench    Compare time-to-first-prompt: default JVM vs fast start
+#
+# The AppCDS archive is produced by a training run that replays
+# scripts/training-session.txt through the real menus (dungeon entry, Center,
+# market, home, skills), so every class on the startup path is pre-parsed.
+# Requires JDK 13+ (-XX:ArchiveClassesAtExit).
+set -e
+cd "$(dirname "$0")/.."
+
+BUILD=build
+JAR=$BUILD/hunter.jar
+JSA=$BUILD/hunter.jsa
+MAIN=com.bosakon.monsterhunter.HunterGame
+FAST_OPTS="-XX:SharedArchiveFile=$JSA -Xshare:auto -XX:TieredStopAtLevel=1 -XX:+UseSerialGC"
+
+build_jar() {
+    rm -rf "$BUILD/classes"
+    mkdir -p "$BUILD/classes"
+    javac -encoding UTF-8 -d "$BUILD/classes" *.java
+    jar cfe "$JAR" "$MAIN" -C "$BUILD/classes" .
+}
+
+train() {
+    # The training run also writes content/catalog.bin, so the first real start is warm too.
+    java -XX:ArchiveClassesAtExit="$JSA" -cp "$JAR" "$MAIN" < scripts/training-session.txt > /dev/null
+    echo "AppCDS archive written to $JSA"
+}
+
+case "$1" in
+    train)
+        build_jar
+        train
+        ;;
+    bench)
+        [ -f "$JSA" ] || { build_jar; train; }
+        echo "== Default JVM =="
+        java -cp "$JAR" com.bosakon.monsterhunter.StartupBenchmark 20
+        echo "== Fast start =="
+        java -cp "$JAR" com.bosakon.monsterhunter.StartupBenchmark 20 $FAST_OPTS
+        ;;
+    *)
+        [ -f "$JSA" ] || { build_jar; train; }
+        # shellcheck disable=SC2086
+        exec java $FAST_OPTS -cp "$JAR" "$MAIN" "$@"
+        ;;
+esac